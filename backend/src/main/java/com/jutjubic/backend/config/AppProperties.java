@@ -9,6 +9,10 @@ public class AppProperties {
   private String uploadDir;
   private SocketProperties socket = new SocketProperties();
   private MqProperties mq = new MqProperties();
+  private ViewsProperties views = new ViewsProperties();
+  private UploadProperties upload = new UploadProperties();
+  private CacheProperties cache = new CacheProperties();
+  private RateLimitProperties rateLimit = new RateLimitProperties();
 
   public String getBackendUrl() {
     return backendUrl;
@@ -50,9 +54,45 @@ public class AppProperties {
     this.mq = mq;
   }
 
+  public ViewsProperties getViews() {
+    return views;
+  }
+
+  public void setViews(ViewsProperties views) {
+    this.views = views;
+  }
+
+  public UploadProperties getUpload() {
+    return upload;
+  }
+
+  public void setUpload(UploadProperties upload) {
+    this.upload = upload;
+  }
+
+  public CacheProperties getCache() {
+    return cache;
+  }
+
+  public void setCache(CacheProperties cache) {
+    this.cache = cache;
+  }
+
+  public RateLimitProperties getRateLimit() {
+    return rateLimit;
+  }
+
+  public void setRateLimit(RateLimitProperties rateLimit) {
+    this.rateLimit = rateLimit;
+  }
+
   public static class SocketProperties {
     private String host;
     private int port;
+    private String clusterMode = "local";
+    private String nodeId;
+    private long syncCoalesceWindowMs = 100;
+    private int syncMaxEventsPerSecond = 20;
 
     public String getHost() {
       return host;
@@ -69,6 +109,38 @@ public class AppProperties {
     public void setPort(int port) {
       this.port = port;
     }
+
+    public String getClusterMode() {
+      return clusterMode;
+    }
+
+    public void setClusterMode(String clusterMode) {
+      this.clusterMode = clusterMode;
+    }
+
+    public String getNodeId() {
+      return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+      this.nodeId = nodeId;
+    }
+
+    public long getSyncCoalesceWindowMs() {
+      return syncCoalesceWindowMs;
+    }
+
+    public void setSyncCoalesceWindowMs(long syncCoalesceWindowMs) {
+      this.syncCoalesceWindowMs = syncCoalesceWindowMs;
+    }
+
+    public int getSyncMaxEventsPerSecond() {
+      return syncMaxEventsPerSecond;
+    }
+
+    public void setSyncMaxEventsPerSecond(int syncMaxEventsPerSecond) {
+      this.syncMaxEventsPerSecond = syncMaxEventsPerSecond;
+    }
   }
 
   public static class MqProperties {
@@ -77,6 +149,10 @@ public class AppProperties {
     private String protobufQueue;
     private String jsonRoutingKey;
     private String protobufRoutingKey;
+    private String publishFormat = "protobuf";
+    private int publishBatchSize = 100;
+    private long confirmTimeoutMs = 5000;
+    private long outboxPollIntervalMs = 1000;
 
     public String getExchange() {
       return exchange;
@@ -117,5 +193,157 @@ public class AppProperties {
     public void setProtobufRoutingKey(String protobufRoutingKey) {
       this.protobufRoutingKey = protobufRoutingKey;
     }
+
+    public String getPublishFormat() {
+      return publishFormat;
+    }
+
+    public void setPublishFormat(String publishFormat) {
+      this.publishFormat = publishFormat;
+    }
+
+    public int getPublishBatchSize() {
+      return publishBatchSize;
+    }
+
+    public void setPublishBatchSize(int publishBatchSize) {
+      this.publishBatchSize = publishBatchSize;
+    }
+
+    public long getConfirmTimeoutMs() {
+      return confirmTimeoutMs;
+    }
+
+    public void setConfirmTimeoutMs(long confirmTimeoutMs) {
+      this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    public long getOutboxPollIntervalMs() {
+      return outboxPollIntervalMs;
+    }
+
+    public void setOutboxPollIntervalMs(long outboxPollIntervalMs) {
+      this.outboxPollIntervalMs = outboxPollIntervalMs;
+    }
+  }
+
+  public static class ViewsProperties {
+    private long flushIntervalMs = 5000;
+    private int maxBatchSize = 500;
+
+    public long getFlushIntervalMs() {
+      return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+      this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public int getMaxBatchSize() {
+      return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+      this.maxBatchSize = maxBatchSize;
+    }
+  }
+
+  public static class UploadProperties {
+    private long maxVideoSize = 104857600;
+    private long maxThumbnailSize = 5242880;
+    private int streamBufferSize = 65536;
+    private int chunkSize = 8388608;
+    private long sessionTtlMs = 3600000;
+    private long janitorIntervalMs = 300000;
+
+    public long getMaxVideoSize() {
+      return maxVideoSize;
+    }
+
+    public void setMaxVideoSize(long maxVideoSize) {
+      this.maxVideoSize = maxVideoSize;
+    }
+
+    public long getMaxThumbnailSize() {
+      return maxThumbnailSize;
+    }
+
+    public void setMaxThumbnailSize(long maxThumbnailSize) {
+      this.maxThumbnailSize = maxThumbnailSize;
+    }
+
+    public int getStreamBufferSize() {
+      return streamBufferSize;
+    }
+
+    public void setStreamBufferSize(int streamBufferSize) {
+      this.streamBufferSize = streamBufferSize;
+    }
+
+    public int getChunkSize() {
+      return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+      this.chunkSize = chunkSize;
+    }
+
+    public long getSessionTtlMs() {
+      return sessionTtlMs;
+    }
+
+    public void setSessionTtlMs(long sessionTtlMs) {
+      this.sessionTtlMs = sessionTtlMs;
+    }
+
+    public long getJanitorIntervalMs() {
+      return janitorIntervalMs;
+    }
+
+    public void setJanitorIntervalMs(long janitorIntervalMs) {
+      this.janitorIntervalMs = janitorIntervalMs;
+    }
+  }
+
+  public static class CacheProperties {
+    private long thumbnailL1MaxBytes = 67108864;
+
+    public long getThumbnailL1MaxBytes() {
+      return thumbnailL1MaxBytes;
+    }
+
+    public void setThumbnailL1MaxBytes(long thumbnailL1MaxBytes) {
+      this.thumbnailL1MaxBytes = thumbnailL1MaxBytes;
+    }
+  }
+
+  public static class RateLimitProperties {
+    private int maxLeaseSize = 10;
+    private long denyCacheMs = 1000;
+    private long maxLocalKeys = 100000;
+
+    public int getMaxLeaseSize() {
+      return maxLeaseSize;
+    }
+
+    public void setMaxLeaseSize(int maxLeaseSize) {
+      this.maxLeaseSize = maxLeaseSize;
+    }
+
+    public long getDenyCacheMs() {
+      return denyCacheMs;
+    }
+
+    public void setDenyCacheMs(long denyCacheMs) {
+      this.denyCacheMs = denyCacheMs;
+    }
+
+    public long getMaxLocalKeys() {
+      return maxLocalKeys;
+    }
+
+    public void setMaxLocalKeys(long maxLocalKeys) {
+      this.maxLocalKeys = maxLocalKeys;
+    }
   }
 }
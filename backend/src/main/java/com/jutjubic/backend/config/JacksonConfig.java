@@ -0,0 +1,18 @@
+package com.jutjubic.backend.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+  /**
+   * Replaces reflective getter calls on response records with lambdas generated once per property.
+   * Spring Boot registers every {@link Module} bean with its {@code ObjectMapper}.
+   */
+  @Bean
+  public Module blackbirdModule() {
+    return new BlackbirdModule();
+  }
+}
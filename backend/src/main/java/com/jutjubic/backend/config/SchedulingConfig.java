@@ -0,0 +1,22 @@
+package com.jutjubic.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+  // One thread per scheduled job (view-count flush, upload event relay, upload janitor), so a slow broker
+  // or disk cannot hold up the others.
+  private static final int SCHEDULED_JOBS = 3;
+
+  @Bean
+  public ThreadPoolTaskScheduler taskScheduler() {
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(SCHEDULED_JOBS);
+    scheduler.setThreadNamePrefix("scheduled-");
+    return scheduler;
+  }
+}
@@ -38,9 +38,11 @@ public class SecurityConfig {
         .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .exceptionHandling(ex -> ex.authenticationEntryPoint(authenticationEntryPoint))
         .authorizeHttpRequests(auth -> auth
+            // Only the liveness check is public; the /api/health/* stats expose internal state.
             .requestMatchers("/api/health").permitAll()
             .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/activate/**").permitAll()
             .requestMatchers(HttpMethod.GET, "/api/videos/**", "/api/users/**").permitAll()
+            .requestMatchers(HttpMethod.HEAD, "/api/videos/*/stream").permitAll()
             .requestMatchers("/uploads/**", "/api-docs", "/api-docs/**", "/api-docs.json", "/api-docs.json/**", "/v3/api-docs/**", "/swagger-ui/**").permitAll()
             .requestMatchers("/error").permitAll()
             .anyRequest().authenticated())
@@ -66,7 +68,14 @@ public class SecurityConfig {
     ));
     config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
     config.setAllowedHeaders(List.of("*"));
-    config.setExposedHeaders(List.of("X-RateLimit-Limit", "X-RateLimit-Remaining", "Retry-After"));
+    config.setExposedHeaders(List.of(
+        "X-RateLimit-Limit",
+        "X-RateLimit-Remaining",
+        "Retry-After",
+        "Accept-Ranges",
+        "Content-Range",
+        "ETag"
+    ));
     config.setAllowCredentials(true);
 
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
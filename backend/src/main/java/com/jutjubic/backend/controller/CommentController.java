@@ -1,13 +1,17 @@
 package com.jutjubic.backend.controller;
 
+import com.jutjubic.backend.dto.CommentResponse;
 import com.jutjubic.backend.dto.CreateCommentRequest;
 import com.jutjubic.backend.exception.ApiException;
 import com.jutjubic.backend.security.JwtPrincipal;
 import com.jutjubic.backend.security.SecurityUtils;
 import com.jutjubic.backend.service.CommentService;
+import com.jutjubic.backend.util.KeysetCursor;
 import jakarta.validation.Valid;
-import java.util.Map;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,6 +20,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/videos/{videoId}/comments")
@@ -27,18 +32,38 @@ public class CommentController {
   }
 
   @GetMapping
-  public Map<String, Object> list(
+  public ResponseEntity<byte[]> list(
       @PathVariable long videoId,
       @RequestParam(defaultValue = "1") int page,
-      @RequestParam(defaultValue = "20") int limit
+      @RequestParam(defaultValue = "20") int limit,
+      @RequestParam(required = false) String after,
+      WebRequest webRequest
   ) {
     validatePagination(page, limit);
-    return commentService.findByVideoId(videoId, page, limit);
+    // Any "after" parameter, even an empty one, switches to cursor mode; empty means the first page.
+    KeysetCursor cursor = after == null ? null : KeysetCursor.parse(after);
+    String position = after == null ? String.valueOf(page) : "c" + (cursor == null ? "" : cursor);
+    String version = commentService.getListVersion(videoId);
+    String etag = version == null ? null : "\"c%d-%s-%s-%d\"".formatted(videoId, version, position, limit);
+    if (etag != null && webRequest.checkNotModified(etag)) {
+      return null;
+    }
+
+    // The service hands back the page as cached JSON bytes; they are written out as they are.
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .cacheControl(CacheControl.noCache());
+    if (etag != null) {
+      response.eTag(etag);
+    }
+    return response.body(after == null
+        ? commentService.findByVideoId(videoId, version, page, limit)
+        : commentService.findByVideoIdAfter(videoId, version, cursor, limit));
   }
 
   @PostMapping
   @ResponseStatus(HttpStatus.CREATED)
-  public Map<String, Object> create(@PathVariable long videoId, @Valid @RequestBody CreateCommentRequest request) {
+  public CommentResponse create(@PathVariable long videoId, @Valid @RequestBody CreateCommentRequest request) {
     JwtPrincipal principal = SecurityUtils.getCurrentPrincipal();
     return commentService.create(videoId, principal.userId(), request.getText());
   }
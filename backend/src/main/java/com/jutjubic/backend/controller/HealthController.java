@@ -1,5 +1,15 @@
 package com.jutjubic.backend.controller;
 
+import com.jutjubic.backend.mq.UploadEventOutbox;
+import com.jutjubic.backend.mq.UploadEventPublisher;
+import com.jutjubic.backend.mq.UploadEventRelay;
+import com.jutjubic.backend.security.LeasedRateLimiterService;
+import com.jutjubic.backend.service.ThumbnailCacheService;
+import com.jutjubic.backend.service.WatchPartyRoomCache;
+import com.jutjubic.backend.websocket.SyncVideoCoalescer;
+import com.jutjubic.backend.websocket.WatchPartyPlaybackStore;
+import com.jutjubic.backend.websocket.WatchPartyRoomBus;
+import com.jutjubic.backend.websocket.WatchPartySocketServer;
 import java.time.OffsetDateTime;
 import java.util.Map;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,6 +19,41 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/api")
 public class HealthController {
+  private final ThumbnailCacheService thumbnailCacheService;
+  private final LeasedRateLimiterService rateLimiter;
+  private final UploadEventOutbox uploadEventOutbox;
+  private final UploadEventRelay uploadEventRelay;
+  private final UploadEventPublisher uploadEventPublisher;
+  private final WatchPartySocketServer socketServer;
+  private final WatchPartyRoomBus roomBus;
+  private final WatchPartyPlaybackStore playbackStore;
+  private final SyncVideoCoalescer syncCoalescer;
+  private final WatchPartyRoomCache watchPartyRoomCache;
+
+  public HealthController(
+      ThumbnailCacheService thumbnailCacheService,
+      LeasedRateLimiterService rateLimiter,
+      UploadEventOutbox uploadEventOutbox,
+      UploadEventRelay uploadEventRelay,
+      UploadEventPublisher uploadEventPublisher,
+      WatchPartySocketServer socketServer,
+      WatchPartyRoomBus roomBus,
+      WatchPartyPlaybackStore playbackStore,
+      SyncVideoCoalescer syncCoalescer,
+      WatchPartyRoomCache watchPartyRoomCache
+  ) {
+    this.thumbnailCacheService = thumbnailCacheService;
+    this.rateLimiter = rateLimiter;
+    this.uploadEventOutbox = uploadEventOutbox;
+    this.uploadEventRelay = uploadEventRelay;
+    this.uploadEventPublisher = uploadEventPublisher;
+    this.socketServer = socketServer;
+    this.roomBus = roomBus;
+    this.playbackStore = playbackStore;
+    this.syncCoalescer = syncCoalescer;
+    this.watchPartyRoomCache = watchPartyRoomCache;
+  }
+
   @GetMapping("/health")
   public Map<String, Object> health() {
     return Map.of(
@@ -16,4 +61,37 @@ public class HealthController {
         "timestamp", OffsetDateTime.now()
     );
   }
+
+  @GetMapping("/health/caches")
+  public Map<String, Object> caches() {
+    return Map.of(
+        "thumbnails", thumbnailCacheService.stats(),
+        "watchPartyRooms", watchPartyRoomCache.stats()
+    );
+  }
+
+  @GetMapping("/health/rate-limits")
+  public Map<String, Object> rateLimits() {
+    return rateLimiter.stats();
+  }
+
+  @GetMapping("/health/upload-events")
+  public Map<String, Object> uploadEvents() {
+    return Map.of(
+        "outboxBacklog", uploadEventOutbox.backlog(),
+        "relay", uploadEventRelay.stats(),
+        "publisher", uploadEventPublisher.stats()
+    );
+  }
+
+  @GetMapping("/health/sockets")
+  public Map<String, Object> sockets() {
+    return Map.of(
+        "nodeId", roomBus.nodeId(),
+        "server", socketServer.stats(),
+        "cluster", roomBus.stats(),
+        "playback", playbackStore.stats(),
+        "sync", syncCoalescer.stats()
+    );
+  }
 }
@@ -0,0 +1,128 @@
+package com.jutjubic.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jutjubic.backend.dto.InitiateUploadRequest;
+import com.jutjubic.backend.dto.UploadStatusResponse;
+import com.jutjubic.backend.dto.VideoListItem;
+import com.jutjubic.backend.exception.ApiException;
+import com.jutjubic.backend.security.JwtPrincipal;
+import com.jutjubic.backend.security.SecurityUtils;
+import com.jutjubic.backend.service.VideoService;
+import com.jutjubic.backend.upload.ResumableUploadService;
+import com.jutjubic.backend.upload.StagedFile;
+import com.jutjubic.backend.util.UploadValidator;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/videos/uploads")
+public class ResumableUploadController {
+  private final ResumableUploadService resumableUploadService;
+  private final VideoService videoService;
+  private final ObjectMapper objectMapper;
+
+  public ResumableUploadController(
+      ResumableUploadService resumableUploadService,
+      VideoService videoService,
+      ObjectMapper objectMapper
+  ) {
+    this.resumableUploadService = resumableUploadService;
+    this.videoService = videoService;
+    this.objectMapper = objectMapper;
+  }
+
+  @PostMapping
+  @ResponseStatus(HttpStatus.CREATED)
+  public UploadStatusResponse initiate(@Valid @RequestBody InitiateUploadRequest request) {
+    JwtPrincipal principal = SecurityUtils.getCurrentPrincipal();
+    return resumableUploadService.initiate(principal.userId(), request.getFilename(), request.getSize());
+  }
+
+  @PutMapping("/{uploadId}/chunks/{index}")
+  public UploadStatusResponse putChunk(
+      @PathVariable String uploadId,
+      @PathVariable int index,
+      HttpServletRequest request
+  ) throws IOException {
+    JwtPrincipal principal = SecurityUtils.getCurrentPrincipal();
+    return resumableUploadService.writeChunk(
+        uploadId,
+        principal.userId(),
+        index,
+        request.getContentLengthLong(),
+        request.getInputStream()
+    );
+  }
+
+  @GetMapping("/{uploadId}")
+  public UploadStatusResponse getStatus(@PathVariable String uploadId) {
+    JwtPrincipal principal = SecurityUtils.getCurrentPrincipal();
+    return resumableUploadService.getStatus(uploadId, principal.userId());
+  }
+
+  @PostMapping(path = "/{uploadId}/complete", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  @ResponseStatus(HttpStatus.CREATED)
+  public VideoListItem complete(
+      @PathVariable String uploadId,
+      @RequestParam String title,
+      @RequestParam String description,
+      @RequestParam(required = false) String tags,
+      @RequestParam("thumbnail") MultipartFile thumbnail,
+      @RequestParam(required = false) Double latitude,
+      @RequestParam(required = false) Double longitude
+  ) {
+    if (thumbnail == null || thumbnail.isEmpty()) {
+      throw new ApiException(400, "Video and thumbnail files are required");
+    }
+    UploadValidator.validateThumbnailFilename(thumbnail.getOriginalFilename());
+    List<String> tagsList = UploadValidator.parseTags(objectMapper, tags);
+    JwtPrincipal principal = SecurityUtils.getCurrentPrincipal();
+
+    StagedFile video = resumableUploadService.complete(uploadId, principal.userId());
+    StagedFile stagedThumbnail = null;
+    try {
+      stagedThumbnail = videoService.stage(thumbnail);
+      VideoService.StagedVideoInput input = new VideoService.StagedVideoInput(
+          title,
+          description,
+          tagsList,
+          latitude,
+          longitude,
+          principal.userId(),
+          video,
+          stagedThumbnail
+      );
+      VideoListItem created = videoService.createFromStaged(input);
+      resumableUploadService.finish(uploadId);
+      return created;
+    } catch (RuntimeException ex) {
+      // The uploaded file is still in place, so the client can fix the request and complete again.
+      videoService.discard(stagedThumbnail);
+      resumableUploadService.reopen(uploadId);
+      throw ex;
+    }
+  }
+
+  @DeleteMapping("/{uploadId}")
+  public Map<String, Object> abort(@PathVariable String uploadId) {
+    JwtPrincipal principal = SecurityUtils.getCurrentPrincipal();
+    resumableUploadService.abort(uploadId, principal.userId());
+    return Map.of("message", "Upload aborted");
+  }
+}
@@ -2,6 +2,7 @@ package com.jutjubic.backend.controller;
 
 import com.jutjubic.backend.exception.ApiException;
 import com.jutjubic.backend.service.UserService;
+import com.jutjubic.backend.util.KeysetCursor;
 import java.util.Map;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -24,15 +25,19 @@ public class UserController {
   }
 
   @GetMapping("/{id}/videos")
-  public Map<String, Object> getUserVideos(
+  public Object getUserVideos(
       @PathVariable long id,
       @RequestParam(defaultValue = "1") int page,
-      @RequestParam(defaultValue = "12") int limit
+      @RequestParam(defaultValue = "12") int limit,
+      @RequestParam(required = false) String after
   ) {
     if (page <= 0 || limit <= 0 || limit > 50) {
       throw new ApiException(400, "Invalid pagination parameters");
     }
 
+    if (after != null) {
+      return userService.getUserVideosAfter(id, KeysetCursor.parse(after), limit);
+    }
     return userService.getUserVideos(id, page, limit);
   }
 }
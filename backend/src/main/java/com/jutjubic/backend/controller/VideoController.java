@@ -1,18 +1,23 @@
 package com.jutjubic.backend.controller;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jutjubic.backend.dto.VideoListItem;
 import com.jutjubic.backend.entity.Video;
 import com.jutjubic.backend.exception.ApiException;
 import com.jutjubic.backend.security.JwtPrincipal;
 import com.jutjubic.backend.security.SecurityUtils;
 import com.jutjubic.backend.service.VideoService;
+import com.jutjubic.backend.service.VideoStreamService;
 import com.jutjubic.backend.service.ViewCounterService;
+import com.jutjubic.backend.upload.StreamingUploadService;
+import com.jutjubic.backend.util.KeysetCursor;
 import com.jutjubic.backend.util.ResponseMapper;
-import java.util.Collections;
+import com.jutjubic.backend.util.UploadValidator;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -25,37 +30,60 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 @RestController
 @RequestMapping("/api/videos")
 public class VideoController {
-  private static final Set<String> VIDEO_EXTENSIONS = Set.of(".mp4", ".webm", ".avi", ".mov", ".mkv");
-  private static final Set<String> THUMB_EXTENSIONS = Set.of(".jpg", ".jpeg", ".png", ".webp");
-
   private final VideoService videoService;
   private final ViewCounterService viewCounterService;
+  private final VideoStreamService videoStreamService;
+  private final StreamingUploadService streamingUploadService;
   private final ObjectMapper objectMapper;
 
-  public VideoController(VideoService videoService, ViewCounterService viewCounterService, ObjectMapper objectMapper) {
+  public VideoController(
+      VideoService videoService,
+      ViewCounterService viewCounterService,
+      VideoStreamService videoStreamService,
+      StreamingUploadService streamingUploadService,
+      ObjectMapper objectMapper
+  ) {
     this.videoService = videoService;
     this.viewCounterService = viewCounterService;
+    this.videoStreamService = videoStreamService;
+    this.streamingUploadService = streamingUploadService;
     this.objectMapper = objectMapper;
   }
 
   @GetMapping
-  public Map<String, Object> list(
+  public ResponseEntity<?> list(
       @RequestParam(defaultValue = "1") int page,
-      @RequestParam(defaultValue = "12") int limit
+      @RequestParam(defaultValue = "12") int limit,
+      @RequestParam(required = false) String after,
+      WebRequest webRequest
   ) {
     validatePagination(page, limit);
-    return videoService.findAll(page, limit);
+    // Any "after" parameter, even an empty one, switches to cursor mode; empty means the first page.
+    KeysetCursor cursor = after == null ? null : KeysetCursor.parse(after);
+    String position = after == null ? String.valueOf(page) : "c" + (cursor == null ? "" : cursor);
+    String version = videoService.getListVersion();
+    String etag = version == null ? null : "\"v%s-%s-%d\"".formatted(version, position, limit);
+    if (etag != null && webRequest.checkNotModified(etag)) {
+      return null;
+    }
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+    if (etag != null) {
+      response.eTag(etag);
+    }
+    return response.body(after == null ? videoService.findAll(page, limit) : videoService.findAfter(cursor, limit));
   }
 
   @GetMapping("/{id}")
   public Map<String, Object> getById(@PathVariable long id) {
     Video video = videoService.findById(id);
-    int viewCount = viewCounterService.increment(id);
+    int viewCount = viewCounterService.increment(id, video.getViewCount());
 
     Map<String, Object> body = ResponseMapper.mapVideoForDetail(video);
     body.put("viewCount", viewCount);
@@ -63,18 +91,30 @@ public class VideoController {
   }
 
   @GetMapping("/{id}/thumbnail")
-  public ResponseEntity<byte[]> getThumbnail(@PathVariable long id) {
+  public ResponseEntity<byte[]> getThumbnail(@PathVariable long id, WebRequest webRequest) {
+    String knownEtag = videoService.getThumbnailEtag(id);
+    if (knownEtag != null && webRequest.checkNotModified("\"" + knownEtag + "\"")) {
+      return null;
+    }
+
     VideoService.ThumbnailResult thumbnail = videoService.getThumbnail(id);
     return ResponseEntity.ok()
         .header(HttpHeaders.CACHE_CONTROL, CacheControl.maxAge(86400, java.util.concurrent.TimeUnit.SECONDS)
             .cachePublic().getHeaderValue())
+        .eTag("\"" + thumbnail.etag() + "\"")
         .contentType(MediaType.parseMediaType(thumbnail.contentType()))
         .body(thumbnail.buffer());
   }
 
+  @GetMapping("/{id}/stream")
+  public void stream(@PathVariable long id, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    videoStreamService.stream(id, request, response);
+  }
+
   @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
   @ResponseStatus(HttpStatus.CREATED)
-  public Map<String, Object> create(
+  public VideoListItem create(
       @RequestParam String title,
       @RequestParam String description,
       @RequestParam(required = false) String tags,
@@ -87,12 +127,10 @@ public class VideoController {
       throw new ApiException(400, "Video and thumbnail files are required");
     }
 
-    validateFileExtension(video.getOriginalFilename(), VIDEO_EXTENSIONS,
-        "Invalid video format. Allowed: mp4, webm, avi, mov, mkv");
-    validateFileExtension(thumbnail.getOriginalFilename(), THUMB_EXTENSIONS,
-        "Invalid image format. Allowed: jpg, jpeg, png, webp");
+    UploadValidator.validateVideoFilename(video.getOriginalFilename());
+    UploadValidator.validateThumbnailFilename(thumbnail.getOriginalFilename());
 
-    List<String> tagsList = parseTags(tags);
+    List<String> tagsList = UploadValidator.parseTags(objectMapper, tags);
     JwtPrincipal principal = SecurityUtils.getCurrentPrincipal();
 
     VideoService.CreateVideoInput input = new VideoService.CreateVideoInput(
@@ -109,15 +147,34 @@ public class VideoController {
     return videoService.create(input);
   }
 
-  private List<String> parseTags(String rawTags) {
-    if (rawTags == null || rawTags.isBlank()) {
-      return Collections.emptyList();
-    }
+  @PostMapping(path = "/stream-upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  @ResponseStatus(HttpStatus.CREATED)
+  public VideoListItem createStreaming(HttpServletRequest request) {
+    JwtPrincipal principal = SecurityUtils.getCurrentPrincipal();
+    StreamingUploadService.StreamedUpload upload = streamingUploadService.receive(request);
 
     try {
-      return objectMapper.readValue(rawTags, new TypeReference<>() {});
-    } catch (Exception ex) {
-      throw new ApiException(400, "Invalid tags payload");
+      Map<String, String> fields = upload.fields();
+      String title = fields.get("title");
+      String description = fields.get("description");
+      if (title == null || description == null) {
+        throw new ApiException(400, "Title and description are required");
+      }
+
+      VideoService.StagedVideoInput input = new VideoService.StagedVideoInput(
+          title,
+          description,
+          UploadValidator.parseTags(objectMapper, fields.get("tags")),
+          UploadValidator.parseCoordinate(fields.get("latitude")),
+          UploadValidator.parseCoordinate(fields.get("longitude")),
+          principal.userId(),
+          upload.video(),
+          upload.thumbnail()
+      );
+      return videoService.createFromStaged(input);
+    } catch (RuntimeException ex) {
+      streamingUploadService.discard(upload.video(), upload.thumbnail());
+      throw ex;
     }
   }
 
@@ -126,18 +183,4 @@ public class VideoController {
       throw new ApiException(400, "Invalid pagination parameters");
     }
   }
-
-  private void validateFileExtension(String filename, Set<String> allowed, String errorMessage) {
-    String ext = "";
-    if (filename != null) {
-      int idx = filename.lastIndexOf('.');
-      if (idx >= 0) {
-        ext = filename.substring(idx).toLowerCase();
-      }
-    }
-
-    if (!allowed.contains(ext)) {
-      throw new ApiException(400, errorMessage);
-    }
-  }
 }
@@ -1,5 +1,6 @@
 package com.jutjubic.backend.controller;
 
+import com.jutjubic.backend.dto.WatchPartyResponse;
 import com.jutjubic.backend.security.JwtPrincipal;
 import com.jutjubic.backend.security.SecurityUtils;
 import com.jutjubic.backend.service.WatchPartyService;
@@ -24,18 +25,18 @@ public class WatchPartyController {
 
   @PostMapping
   @ResponseStatus(HttpStatus.CREATED)
-  public Map<String, Object> create() {
+  public WatchPartyResponse create() {
     JwtPrincipal principal = SecurityUtils.getCurrentPrincipal();
     return watchPartyService.create(principal.userId());
   }
 
   @GetMapping("/{roomCode}")
-  public Map<String, Object> getRoom(@PathVariable String roomCode) {
+  public WatchPartyResponse getRoom(@PathVariable String roomCode) {
     return watchPartyService.getRoom(roomCode);
   }
 
   @PostMapping("/{roomCode}/join")
-  public Map<String, Object> join(@PathVariable String roomCode) {
+  public WatchPartyResponse join(@PathVariable String roomCode) {
     JwtPrincipal principal = SecurityUtils.getCurrentPrincipal();
     return watchPartyService.join(roomCode, principal.userId());
   }
@@ -0,0 +1,5 @@
+package com.jutjubic.backend.dto;
+
+import java.util.List;
+
+public record CommentPageResponse(List<CommentResponse> comments, PageInfo pagination) {}
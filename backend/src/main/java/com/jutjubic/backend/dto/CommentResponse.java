@@ -0,0 +1,5 @@
+package com.jutjubic.backend.dto;
+
+import java.time.OffsetDateTime;
+
+public record CommentResponse(long id, String text, OffsetDateTime createdAt, UserSummary user) {}
@@ -0,0 +1,13 @@
+package com.jutjubic.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Pagination block of {@code ?after=} lists. {@code nextCursor} is {@code null} on the last page; lists
+ * without a stored total leave {@code total} out.
+ */
+public record CursorInfo(
+    int limit,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Long total,
+    String nextCursor
+) {}
@@ -0,0 +1,30 @@
+package com.jutjubic.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public class InitiateUploadRequest {
+  @NotBlank(message = "Filename is required")
+  private String filename;
+
+  @NotNull(message = "File size is required")
+  @Positive(message = "File size must be positive")
+  private Long size;
+
+  public String getFilename() {
+    return filename;
+  }
+
+  public void setFilename(String filename) {
+    this.filename = filename;
+  }
+
+  public Long getSize() {
+    return size;
+  }
+
+  public void setSize(Long size) {
+    this.size = size;
+  }
+}
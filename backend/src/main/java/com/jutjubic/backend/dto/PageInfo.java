@@ -0,0 +1,10 @@
+package com.jutjubic.backend.dto;
+
+/**
+ * Pagination block of {@code ?page=} lists.
+ */
+public record PageInfo(int page, int limit, long total, int totalPages) {
+  public static PageInfo of(int page, int limit, long total) {
+    return new PageInfo(page, limit, total, (int) Math.ceil((double) total / limit));
+  }
+}
@@ -0,0 +1,20 @@
+package com.jutjubic.backend.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress of a resumable upload. {@code expiresAt} moves forward with every chunk the session receives.
+ */
+public record UploadStatusResponse(
+    String uploadId,
+    String filename,
+    long size,
+    int chunkSize,
+    int totalChunks,
+    List<Integer> receivedChunks,
+    List<Integer> missingChunks,
+    long receivedBytes,
+    boolean complete,
+    Instant expiresAt
+) {}
@@ -0,0 +1,3 @@
+package com.jutjubic.backend.dto;
+
+public record UserSummary(long id, String username) {}
@@ -0,0 +1,18 @@
+package com.jutjubic.backend.dto;
+
+import java.time.OffsetDateTime;
+
+public record VideoListItem(
+    Long id,
+    String title,
+    String description,
+    String[] tags,
+    String thumbnailPath,
+    String videoPath,
+    Integer viewCount,
+    Double latitude,
+    Double longitude,
+    OffsetDateTime createdAt,
+    OffsetDateTime updatedAt,
+    UserSummary user
+) {}
@@ -0,0 +1,5 @@
+package com.jutjubic.backend.dto;
+
+import java.time.OffsetDateTime;
+
+public record WatchPartyMemberResponse(long id, OffsetDateTime joinedAt, UserSummary user) {}
@@ -0,0 +1,23 @@
+package com.jutjubic.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record WatchPartyResponse(
+    long id,
+    String roomCode,
+    @JsonProperty("isActive") boolean isActive,
+    OffsetDateTime createdAt,
+    UserSummary creator,
+    List<WatchPartyMemberResponse> members,
+    Long currentVideoId
+) {
+  public WatchPartyResponse withMembers(List<WatchPartyMemberResponse> members) {
+    return new WatchPartyResponse(id, roomCode, isActive, createdAt, creator, members, currentVideoId);
+  }
+
+  public WatchPartyResponse closed() {
+    return new WatchPartyResponse(id, roomCode, false, createdAt, creator, members, currentVideoId);
+  }
+}
@@ -15,7 +15,7 @@ import org.hibernate.annotations.CreationTimestamp;
 
 @Entity
 @Table(name = "comments", indexes = {
-    @Index(name = "idx_comments_video_created_at_desc", columnList = "video_id,created_at")
+    @Index(name = "idx_comments_video_created_at_desc", columnList = "video_id, created_at DESC, id DESC")
 })
 public class Comment {
   @Id
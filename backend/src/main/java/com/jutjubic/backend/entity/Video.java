@@ -22,7 +22,8 @@ import org.hibernate.type.SqlTypes;
 
 @Entity
 @Table(name = "videos", indexes = {
-    @Index(name = "idx_videos_created_at_desc", columnList = "created_at")
+    @Index(name = "idx_videos_created_at_desc", columnList = "created_at DESC, id DESC"),
+    @Index(name = "idx_videos_user_created_at_desc", columnList = "user_id, created_at DESC, id DESC")
 })
 public class Video {
   @Id
@@ -42,12 +43,19 @@ public class Video {
   @Column(name = "thumbnail_path", nullable = false)
   private String thumbnailPath;
 
+  @Column(name = "thumbnail_sha256", length = 64)
+  private String thumbnailSha256;
+
   @Column(name = "video_path", nullable = false)
   private String videoPath;
 
   @Column(name = "view_count", nullable = false)
   private Integer viewCount = 0;
 
+  // Maintained by CommentService in SQL; never written from the entity so saves cannot clobber it.
+  @Column(name = "comment_count", nullable = false, insertable = false, updatable = false)
+  private Integer commentCount = 0;
+
   @Column(name = "latitude")
   private Double latitude;
 
@@ -110,6 +118,14 @@ public class Video {
     this.thumbnailPath = thumbnailPath;
   }
 
+  public String getThumbnailSha256() {
+    return thumbnailSha256;
+  }
+
+  public void setThumbnailSha256(String thumbnailSha256) {
+    this.thumbnailSha256 = thumbnailSha256;
+  }
+
   public String getVideoPath() {
     return videoPath;
   }
@@ -118,6 +134,10 @@ public class Video {
     this.videoPath = videoPath;
   }
 
+  public Integer getCommentCount() {
+    return commentCount;
+  }
+
   public Integer getViewCount() {
     return viewCount;
   }
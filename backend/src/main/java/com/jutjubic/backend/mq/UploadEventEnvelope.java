@@ -0,0 +1,28 @@
+package com.jutjubic.backend.mq;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+
+/**
+ * AMQP properties every upload event carries, so consumers can pick a decoder from the message itself
+ * instead of from the queue it arrived on. Bump {@link #SCHEMA_VERSION} on incompatible payload changes.
+ */
+public final class UploadEventEnvelope {
+  public static final String TYPE = "upload.event";
+  public static final String SCHEMA_VERSION_HEADER = "x-schema-version";
+  public static final int SCHEMA_VERSION = 1;
+  public static final String CONTENT_TYPE_JSON = "application/json";
+  public static final String CONTENT_TYPE_PROTOBUF = "application/x-protobuf";
+
+  private UploadEventEnvelope() {}
+
+  public static Message wrap(byte[] body, String contentType) {
+    return MessageBuilder.withBody(body)
+        .setContentType(contentType)
+        .setType(TYPE)
+        .setHeader(SCHEMA_VERSION_HEADER, SCHEMA_VERSION)
+        .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+        .build();
+  }
+}
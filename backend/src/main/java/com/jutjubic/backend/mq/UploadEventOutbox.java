@@ -0,0 +1,109 @@
+package com.jutjubic.backend.mq;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Comparator;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Upload events waiting to be published. Rows are written in the transaction that creates the video and
+ * deleted by {@link UploadEventRelay} once the broker has confirmed them. A relay claims rows by leasing
+ * them in a statement of its own, so no transaction or row lock is held while it waits for the broker.
+ */
+@Repository
+public class UploadEventOutbox {
+  private static final Logger log = LoggerFactory.getLogger(UploadEventOutbox.class);
+
+  static final String INSERT_SQL = """
+      INSERT INTO upload_event_outbox (video_id, payload)
+      VALUES (?, ?::jsonb)
+      """;
+
+  // SKIP LOCKED lets every relay node claim a different batch instead of queueing behind the first one;
+  // the locks only last for this statement, the lease keeps other relays off the rows afterwards.
+  static final String CLAIM_SQL = """
+      UPDATE upload_event_outbox o
+      SET claimed_until = NOW() + make_interval(secs => ?)
+      FROM (
+        SELECT id
+        FROM upload_event_outbox
+        WHERE claimed_until IS NULL OR claimed_until < NOW()
+        ORDER BY id
+        LIMIT ?
+        FOR UPDATE SKIP LOCKED
+      ) due
+      WHERE o.id = due.id
+      RETURNING o.id, o.payload::text AS payload, o.created_at
+      """;
+
+  static final String RELEASE_SQL = """
+      UPDATE upload_event_outbox
+      SET claimed_until = NULL
+      WHERE id = ANY(?::bigint[])
+      """;
+
+  static final String DELETE_SQL = """
+      DELETE FROM upload_event_outbox
+      WHERE id = ANY(?::bigint[])
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+
+  public UploadEventOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void append(UploadEventMessage event) {
+    try {
+      jdbcTemplate.update(INSERT_SQL, event.videoId(), objectMapper.writeValueAsString(event));
+    } catch (Exception ex) {
+      throw new IllegalStateException("Failed to write upload event for videoId=" + event.videoId(), ex);
+    }
+  }
+
+  /**
+   * Leases up to {@code limit} of the oldest unclaimed rows for {@code leaseMs}, oldest first. Rows whose
+   * payload cannot be read are returned with a {@code null} event so the caller still deletes them.
+   */
+  public List<Entry> claim(int limit, long leaseMs) {
+    List<Entry> entries = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> {
+      long id = rs.getLong("id");
+      UploadEventMessage event = null;
+      try {
+        event = objectMapper.readValue(rs.getString("payload"), UploadEventMessage.class);
+      } catch (Exception ex) {
+        log.error("Discarding unreadable upload event outbox row {}", id, ex);
+      }
+      return new Entry(id, event, rs.getTimestamp("created_at").getTime());
+    }, leaseMs / 1000.0, limit);
+    // RETURNING does not keep the subquery's order.
+    entries.sort(Comparator.comparingLong(Entry::id));
+    return entries;
+  }
+
+  public void delete(long[] ids) {
+    jdbcTemplate.update(DELETE_SQL, (Object) ids);
+  }
+
+  /**
+   * Gives claimed rows back before their lease runs out, so the next poll retries them.
+   */
+  public void release(long[] ids) {
+    jdbcTemplate.update(RELEASE_SQL, (Object) ids);
+  }
+
+  public long backlog() {
+    Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM upload_event_outbox", Long.class);
+    return count == null ? 0 : count;
+  }
+
+  public record Entry(long id, UploadEventMessage event, long createdAtMs) {}
+}
@@ -2,15 +2,24 @@ package com.jutjubic.backend.mq;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jutjubic.backend.config.AppProperties;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.Message;
-import org.springframework.amqp.core.MessageBuilder;
-import org.springframework.amqp.core.MessageDeliveryMode;
-import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
+/**
+ * Publishes upload events on one channel and waits for the broker's publisher confirms once per batch
+ * rather than once per message. {@code app.mq.publish-format} picks the encoding: {@code protobuf} or
+ * {@code json} sends one message per event to that format's routing key, {@code both} keeps the legacy
+ * behaviour of sending a copy in each format.
+ */
 @Service
 public class UploadEventPublisher {
   private static final Logger log = LoggerFactory.getLogger(UploadEventPublisher.class);
@@ -18,40 +27,128 @@ public class UploadEventPublisher {
   private final RabbitTemplate rabbitTemplate;
   private final ObjectMapper objectMapper;
   private final AppProperties appProperties;
+  private final long confirmTimeoutMs;
+  private final boolean sendJson;
+  private final boolean sendProtobuf;
+  private final LongAdder published = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder failedBatches = new LongAdder();
+  private final LongAdder confirmedBatches = new LongAdder();
+  private final LongAdder confirmLatencyTotalNs = new LongAdder();
+  private final AtomicLong lastConfirmLatencyNs = new AtomicLong();
+  private final AtomicLong maxConfirmLatencyNs = new AtomicLong();
 
   public UploadEventPublisher(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper, AppProperties appProperties) {
     this.rabbitTemplate = rabbitTemplate;
     this.objectMapper = objectMapper;
     this.appProperties = appProperties;
+    this.confirmTimeoutMs = appProperties.getMq().getConfirmTimeoutMs();
+
+    String format = appProperties.getMq().getPublishFormat();
+    switch (format) {
+      case "json" -> {
+        sendJson = true;
+        sendProtobuf = false;
+      }
+      case "protobuf" -> {
+        sendJson = false;
+        sendProtobuf = true;
+      }
+      case "both" -> {
+        sendJson = true;
+        sendProtobuf = true;
+      }
+      default -> throw new IllegalStateException("Unsupported app.mq.publish-format: " + format);
+    }
   }
 
-  public void publish(UploadEventMessage event) {
+  /**
+   * Sends every event in the configured {@code app.mq.publish-format}, each body wrapped in an
+   * {@link UploadEventEnvelope} that records its content type, and returns once the broker has confirmed
+   * all of them. With {@code both}, an event goes out as two messages, one per format.
+   * Throws if any message is nacked or the confirms do not arrive within {@code app.mq.confirm-timeout-ms};
+   * the caller must then treat the whole batch as unsent. Events that cannot be encoded are skipped.
+   */
+  public void publishBatch(List<UploadEventMessage> batch) {
+    List<Outbound> encoded = new ArrayList<>(batch.size() * 2);
+    int events = encode(batch, encoded);
+    if (events == 0) {
+      return;
+    }
+
+    long startedAt = System.nanoTime();
     try {
-      byte[] jsonBody = objectMapper.writeValueAsBytes(event);
-      Message jsonMessage = MessageBuilder.withBody(jsonBody)
-          .setContentType(MessageProperties.CONTENT_TYPE_JSON)
-          .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
-          .build();
-
-      rabbitTemplate.send(
-          appProperties.getMq().getExchange(),
-          appProperties.getMq().getJsonRoutingKey(),
-          jsonMessage
-      );
-
-      byte[] protobufBody = UploadEventMapper.toProto(event).toByteArray();
-      Message protobufMessage = MessageBuilder.withBody(protobufBody)
-          .setContentType("application/x-protobuf")
-          .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
-          .build();
-
-      rabbitTemplate.send(
-          appProperties.getMq().getExchange(),
-          appProperties.getMq().getProtobufRoutingKey(),
-          protobufMessage
-      );
-    } catch (Exception ex) {
-      log.error("Failed to publish upload event for videoId={}", event.videoId(), ex);
+      rabbitTemplate.invoke(operations -> {
+        for (Outbound outbound : encoded) {
+          operations.send(appProperties.getMq().getExchange(), outbound.routingKey(), outbound.message());
+        }
+        operations.waitForConfirmsOrDie(confirmTimeoutMs);
+        return null;
+      });
+    } catch (RuntimeException ex) {
+      failedBatches.increment();
+      throw ex;
+    }
+
+    long latencyNs = System.nanoTime() - startedAt;
+    published.add(events);
+    confirmedBatches.increment();
+    confirmLatencyTotalNs.add(latencyNs);
+    lastConfirmLatencyNs.set(latencyNs);
+    maxConfirmLatencyNs.accumulateAndGet(latencyNs, Math::max);
+  }
+
+  public Map<String, Object> stats() {
+    long batches = confirmedBatches.sum();
+
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("published", published.sum());
+    body.put("dropped", dropped.sum());
+    body.put("confirmedBatches", batches);
+    body.put("failedBatches", failedBatches.sum());
+    body.put("lastConfirmLatencyMs", lastConfirmLatencyNs.get() / 1_000_000.0);
+    body.put("avgConfirmLatencyMs", batches == 0 ? 0.0 : confirmLatencyTotalNs.sum() / 1_000_000.0 / batches);
+    body.put("maxConfirmLatencyMs", maxConfirmLatencyNs.get() / 1_000_000.0);
+    return body;
+  }
+
+  private int encode(List<UploadEventMessage> batch, List<Outbound> encoded) {
+    int events = 0;
+    for (UploadEventMessage event : batch) {
+      try {
+        Outbound json = sendJson ? toJsonMessage(event) : null;
+        Outbound protobuf = sendProtobuf ? toProtobufMessage(event) : null;
+        if (json != null) {
+          encoded.add(json);
+        }
+        if (protobuf != null) {
+          encoded.add(protobuf);
+        }
+        events++;
+      } catch (Exception ex) {
+        // Retrying cannot fix an event that does not serialize, so it must not hold up the rest.
+        dropped.increment();
+        log.error("Failed to encode upload event for videoId={}", event.videoId(), ex);
+      }
     }
+    return events;
+  }
+
+  private Outbound toJsonMessage(UploadEventMessage event) throws Exception {
+    byte[] body = objectMapper.writeValueAsBytes(event);
+    return new Outbound(
+        appProperties.getMq().getJsonRoutingKey(),
+        UploadEventEnvelope.wrap(body, UploadEventEnvelope.CONTENT_TYPE_JSON)
+    );
+  }
+
+  private Outbound toProtobufMessage(UploadEventMessage event) {
+    byte[] body = UploadEventMapper.toProto(event).toByteArray();
+    return new Outbound(
+        appProperties.getMq().getProtobufRoutingKey(),
+        UploadEventEnvelope.wrap(body, UploadEventEnvelope.CONTENT_TYPE_PROTOBUF)
+    );
   }
+
+  private record Outbound(String routingKey, Message message) {}
 }
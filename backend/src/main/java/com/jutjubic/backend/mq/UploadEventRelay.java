@@ -0,0 +1,123 @@
+package com.jutjubic.backend.mq;
+
+import com.jutjubic.backend.config.AppProperties;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves upload events from the outbox to RabbitMQ. A batch is claimed with a lease that commits right
+ * away, published without any open transaction, and deleted once the broker has confirmed it. A batch the
+ * broker did not confirm is released for the next poll; one claimed by a relay that crashed comes back
+ * when its lease runs out. A crash between the confirm and the delete sends that batch again, so delivery
+ * is at-least-once.
+ */
+@Service
+public class UploadEventRelay {
+  private static final Logger log = LoggerFactory.getLogger(UploadEventRelay.class);
+  // Bounds how long one poll can occupy a scheduler thread under sustained load.
+  private static final int MAX_BATCHES_PER_POLL = 20;
+  private static final long MIN_CLAIM_LEASE_MS = 60_000;
+
+  private final UploadEventOutbox outbox;
+  private final UploadEventPublisher publisher;
+  private final int batchSize;
+  private final long claimLeaseMs;
+  private final LongAdder relayed = new LongAdder();
+  private final LongAdder failedPolls = new LongAdder();
+  private final AtomicLong lastLagMs = new AtomicLong();
+
+  public UploadEventRelay(
+      UploadEventOutbox outbox,
+      UploadEventPublisher publisher,
+      AppProperties appProperties
+  ) {
+    this.outbox = outbox;
+    this.publisher = publisher;
+    this.batchSize = Math.max(1, appProperties.getMq().getPublishBatchSize());
+    // Far longer than a publish can take (sends plus the confirm timeout), so a live relay keeps its claim.
+    this.claimLeaseMs = Math.max(MIN_CLAIM_LEASE_MS, 4 * appProperties.getMq().getConfirmTimeoutMs());
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.mq.outbox-poll-interval-ms:1000}",
+      initialDelayString = "${app.mq.outbox-poll-interval-ms:1000}"
+  )
+  public void scheduledRelay() {
+    try {
+      relay();
+    } catch (Exception ex) {
+      failedPolls.increment();
+      log.warn("Upload event relay failed, retrying on next poll", ex);
+    }
+  }
+
+  /**
+   * Relays full batches until the outbox is drained or the per-poll limit is reached, and returns the
+   * number of events sent.
+   */
+  public int relay() {
+    int total = 0;
+    for (int i = 0; i < MAX_BATCHES_PER_POLL; i++) {
+      int claimed = relayBatch();
+      total += claimed;
+      if (claimed < batchSize) {
+        break;
+      }
+    }
+    return total;
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("relayed", relayed.sum());
+    body.put("failedPolls", failedPolls.sum());
+    body.put("lastLagMs", lastLagMs.get());
+    return body;
+  }
+
+  private int relayBatch() {
+    List<UploadEventOutbox.Entry> entries = outbox.claim(batchSize, claimLeaseMs);
+    if (entries.isEmpty()) {
+      return 0;
+    }
+
+    List<UploadEventMessage> events = new ArrayList<>(entries.size());
+    long[] ids = new long[entries.size()];
+    for (int i = 0; i < entries.size(); i++) {
+      UploadEventOutbox.Entry entry = entries.get(i);
+      ids[i] = entry.id();
+      if (entry.event() != null) {
+        events.add(entry.event());
+      }
+    }
+
+    try {
+      publisher.publishBatch(events);
+    } catch (RuntimeException ex) {
+      releaseQuietly(ids);
+      throw ex;
+    }
+    outbox.delete(ids);
+
+    relayed.add(events.size());
+    lastLagMs.set(System.currentTimeMillis() - entries.get(0).createdAtMs());
+    return entries.size();
+  }
+
+  private void releaseQuietly(long[] ids) {
+    try {
+      outbox.release(ids);
+    } catch (Exception ex) {
+      // The lease runs out on its own; the rows are retried a little later.
+      log.warn("Failed to release {} claimed upload events", ids.length, ex);
+    }
+  }
+}
@@ -1,19 +1,40 @@
 package com.jutjubic.backend.repository;
 
 import com.jutjubic.backend.entity.Comment;
+import java.time.OffsetDateTime;
 import java.util.List;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+  /**
+   * One OFFSET page without the {@code count(*)} a {@code Page} would run; the total is
+   * {@code videos.comment_count}.
+   */
   @EntityGraph(attributePaths = {"user"})
-  Page<Comment> findByVideoIdOrderByCreatedAtDesc(Long videoId, Pageable pageable);
+  List<Comment> findByVideoIdOrderByCreatedAtDescIdDesc(Long videoId, Pageable pageable);
 
-  long countByVideoId(Long videoId);
+  @EntityGraph(attributePaths = {"user"})
+  List<Comment> findByVideoIdOrderByCreatedAtDescIdDesc(Long videoId, Limit limit);
 
-  long countByUserId(Long userId);
+  @EntityGraph(attributePaths = {"user"})
+  @Query("""
+      select c from Comment c
+      where c.video.id = :videoId and (c.createdAt, c.id) < (:createdAt, :id)
+      order by c.createdAt desc, c.id desc
+      """)
+  List<Comment> findPageAfter(
+      @Param("videoId") Long videoId,
+      @Param("createdAt") OffsetDateTime createdAt,
+      @Param("id") Long id,
+      Limit limit
+  );
+
+  long countByVideoId(Long videoId);
 
   @EntityGraph(attributePaths = {"user"})
   List<Comment> findByVideoId(Long videoId);
@@ -3,6 +3,9 @@ package com.jutjubic.backend.repository;
 import com.jutjubic.backend.entity.User;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByEmail(String email);
@@ -14,4 +17,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
   boolean existsByEmail(String email);
 
   boolean existsByUsername(String username);
+
+  @Modifying
+  @Query(value = "UPDATE users SET video_count = video_count + 1 WHERE id = :id", nativeQuery = true)
+  int incrementVideoCount(@Param("id") Long id);
+
+  @Modifying
+  @Query(value = "UPDATE users SET comment_count = comment_count + 1 WHERE id = :id", nativeQuery = true)
+  int incrementCommentCount(@Param("id") Long id);
 }
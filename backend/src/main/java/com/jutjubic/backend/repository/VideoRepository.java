@@ -1,24 +1,60 @@
 package com.jutjubic.backend.repository;
 
 import com.jutjubic.backend.entity.Video;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface VideoRepository extends JpaRepository<Video, Long> {
   @EntityGraph(attributePaths = {"user"})
-  Page<Video> findAllByOrderByCreatedAtDesc(Pageable pageable);
+  Page<Video> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
 
   @EntityGraph(attributePaths = {"user"})
-  Page<Video> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+  Page<Video> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+  @EntityGraph(attributePaths = {"user"})
+  List<Video> findAllByOrderByCreatedAtDescIdDesc(Limit limit);
+
+  @EntityGraph(attributePaths = {"user"})
+  @Query("""
+      select v from Video v
+      where (v.createdAt, v.id) < (:createdAt, :id)
+      order by v.createdAt desc, v.id desc
+      """)
+  List<Video> findPageAfter(@Param("createdAt") OffsetDateTime createdAt, @Param("id") Long id, Limit limit);
+
+  @EntityGraph(attributePaths = {"user"})
+  List<Video> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Limit limit);
+
+  @EntityGraph(attributePaths = {"user"})
+  @Query("""
+      select v from Video v
+      where v.user.id = :userId and (v.createdAt, v.id) < (:createdAt, :id)
+      order by v.createdAt desc, v.id desc
+      """)
+  List<Video> findUserPageAfter(
+      @Param("userId") Long userId,
+      @Param("createdAt") OffsetDateTime createdAt,
+      @Param("id") Long id,
+      Limit limit
+  );
 
   @EntityGraph(attributePaths = {"user"})
   @Query("select v from Video v where v.id = :id")
   Optional<Video> findDetailsById(@Param("id") Long id);
 
-  long countByUserId(Long userId);
+  @Query("select v.commentCount from Video v where v.id = :id")
+  Optional<Integer> findCommentCountById(@Param("id") Long id);
+
+  @Modifying
+  @Query(value = "UPDATE videos SET comment_count = comment_count + 1 WHERE id = :id", nativeQuery = true)
+  int incrementCommentCount(@Param("id") Long id);
 }
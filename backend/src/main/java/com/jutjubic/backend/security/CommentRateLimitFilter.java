@@ -22,10 +22,10 @@ public class CommentRateLimitFilter extends OncePerRequestFilter {
   private static final int MAX_HITS = 60;
   private static final Pattern PATH_PATTERN = Pattern.compile("^/api/videos/\\d+/comments$");
 
-  private final SlidingWindowRateLimiterService rateLimiter;
+  private final LeasedRateLimiterService rateLimiter;
   private final ObjectMapper objectMapper;
 
-  public CommentRateLimitFilter(SlidingWindowRateLimiterService rateLimiter, ObjectMapper objectMapper) {
+  public CommentRateLimitFilter(LeasedRateLimiterService rateLimiter, ObjectMapper objectMapper) {
     this.rateLimiter = rateLimiter;
     this.objectMapper = objectMapper;
   }
@@ -46,7 +46,7 @@ public class CommentRateLimitFilter extends OncePerRequestFilter {
     }
 
     String key = "rl:comment:" + principal.userId();
-    RateLimitResult result = rateLimiter.checkSlidingWindow(key, WINDOW_MS, MAX_HITS);
+    RateLimitResult result = rateLimiter.check(key, WINDOW_MS, MAX_HITS);
 
     setRateLimitHeaders(response, result);
 
@@ -1,12 +1,20 @@
 package com.jutjubic.backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import javax.crypto.SecretKey;
 import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -14,13 +22,36 @@ import org.springframework.stereotype.Service;
 public class JwtService {
   private final SecretKey signingKey;
   private final long expiresInMs;
+  private final JwtParser parser;
+  private final Cache<String, VerifiedToken> verifiedTokens;
 
   public JwtService(
       @Value("${app.jwt.secret:dev-secret-key}") String secret,
-      @Value("${app.jwt.expires-in:24h}") String expiresIn
+      @Value("${app.jwt.expires-in:24h}") String expiresIn,
+      @Value("${app.jwt.verified-cache-size:10000}") long verifiedCacheSize
   ) {
     this.signingKey = Keys.hmacShaKeyFor(normalizeSecret(secret));
     this.expiresInMs = parseDurationMs(expiresIn);
+    this.parser = Jwts.parser().verifyWith(signingKey).build();
+    this.verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(verifiedCacheSize)
+        .expireAfter(new Expiry<String, VerifiedToken>() {
+          @Override
+          public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAtMs() - System.currentTimeMillis()));
+          }
+
+          @Override
+          public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+          }
+
+          @Override
+          public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .build();
   }
 
   public String generateToken(Long userId, String email) {
@@ -34,12 +65,19 @@ public class JwtService {
         .compact();
   }
 
+  /**
+   * Verifies the signature and expiry of {@code token}. Tokens that already passed are remembered under
+   * their SHA-256 until they expire, so a session's repeat requests skip the HMAC and claim parsing.
+   * Rejected tokens are never cached.
+   */
   public JwtPrincipal verifyToken(String token) {
-    Claims claims = Jwts.parser()
-        .verifyWith(signingKey)
-        .build()
-        .parseSignedClaims(token)
-        .getPayload();
+    String cacheKey = sha256(token);
+    VerifiedToken cached = verifiedTokens.getIfPresent(cacheKey);
+    if (cached != null && cached.expiresAtMs() > System.currentTimeMillis()) {
+      return cached.principal();
+    }
+
+    Claims claims = parser.parseSignedClaims(token).getPayload();
 
     Number userId = claims.get("userId", Number.class);
     String email = claims.get("email", String.class);
@@ -47,7 +85,21 @@ public class JwtService {
       throw new IllegalArgumentException("Invalid token payload");
     }
 
-    return new JwtPrincipal(userId.longValue(), email);
+    JwtPrincipal principal = new JwtPrincipal(userId.longValue(), email);
+    Date expiration = claims.getExpiration();
+    if (expiration != null) {
+      verifiedTokens.put(cacheKey, new VerifiedToken(principal, expiration.getTime()));
+    }
+    return principal;
+  }
+
+  private String sha256(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 not available", ex);
+    }
   }
 
   private byte[] normalizeSecret(String secret) {
@@ -84,4 +136,6 @@ public class JwtService {
       default -> throw new IllegalArgumentException("Unsupported JWT expiration format: " + value);
     };
   }
+
+  private record VerifiedToken(JwtPrincipal principal, long expiresAtMs) {}
 }
@@ -0,0 +1,116 @@
+package com.jutjubic.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jutjubic.backend.config.AppProperties;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Node-local token buckets in front of the shared sliding window. A bucket spends hits it has already
+ * reserved in Redis, and only goes back to Redis when its lease is used up or the window it was leased in
+ * has ended. Denials are also remembered briefly, so a client hammering a closed limit costs no I/O.
+ */
+@Service
+public class LeasedRateLimiterService {
+  // Lease a tenth of the limit at a time so one node never sits on most of the window's quota.
+  private static final int LEASE_DIVISOR = 10;
+
+  private final SlidingWindowRateLimiterService slidingWindow;
+  private final int maxLeaseSize;
+  private final long denyCacheMs;
+  private final Cache<String, Bucket> buckets;
+  private final LongAdder localDecisions = new LongAdder();
+  private final LongAdder remoteCalls = new LongAdder();
+
+  public LeasedRateLimiterService(SlidingWindowRateLimiterService slidingWindow, AppProperties appProperties) {
+    this.slidingWindow = slidingWindow;
+    this.maxLeaseSize = Math.max(1, appProperties.getRateLimit().getMaxLeaseSize());
+    this.denyCacheMs = appProperties.getRateLimit().getDenyCacheMs();
+    this.buckets = Caffeine.newBuilder()
+        .maximumSize(appProperties.getRateLimit().getMaxLocalKeys())
+        .expireAfterAccess(Duration.ofHours(1))
+        .build();
+  }
+
+  public RateLimitResult check(String key, long windowMs, int maxHits) {
+    Bucket bucket = buckets.get(key, k -> new Bucket());
+    long now = System.currentTimeMillis();
+
+    LeaseState state = bucket.state.get();
+    if (now < state.expiresAt) {
+      if (state.deniedUntil > now) {
+        localDecisions.increment();
+        return new RateLimitResult(false, state.count, maxHits, state.deniedUntil - now);
+      }
+      int remaining = state.tokens.decrementAndGet();
+      if (remaining >= 0) {
+        localDecisions.increment();
+        return new RateLimitResult(true, state.count - remaining, maxHits, 0);
+      }
+    }
+
+    // Only one thread refills a bucket; the others fall back to single-hit checks instead of waiting on it.
+    if (!bucket.refilling.compareAndSet(false, true)) {
+      remoteCalls.increment();
+      return slidingWindow.checkSlidingWindow(key, windowMs, maxHits);
+    }
+
+    try {
+      int leaseSize = Math.min(maxLeaseSize, Math.max(1, maxHits / LEASE_DIVISOR));
+      SlidingWindowRateLimiterService.Lease lease = slidingWindow.lease(key, windowMs, maxHits, leaseSize);
+      remoteCalls.increment();
+      now = System.currentTimeMillis();
+
+      if (lease.granted() == 0) {
+        long deniedUntil = now + Math.min(lease.retryAfterMs(), denyCacheMs);
+        bucket.state.set(new LeaseState(lease.count(), 0, deniedUntil, deniedUntil));
+        return new RateLimitResult(false, lease.count(), maxHits, lease.retryAfterMs());
+      }
+
+      // This request consumes the first leased hit; the rest stay valid until the window turns over.
+      int remaining = lease.granted() - 1;
+      bucket.state.set(new LeaseState(lease.count(), remaining, now + lease.windowRemainingMs(), 0));
+      return new RateLimitResult(true, lease.count() - remaining, maxHits, 0);
+    } finally {
+      bucket.refilling.set(false);
+    }
+  }
+
+  public Map<String, Object> stats() {
+    long local = localDecisions.sum();
+    long remote = remoteCalls.sum();
+
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("localDecisions", local);
+    body.put("remoteCalls", remote);
+    body.put("localRatio", local + remote == 0 ? 0.0 : (double) local / (local + remote));
+    body.put("trackedKeys", buckets.estimatedSize());
+    return body;
+  }
+
+  private static final class Bucket {
+    private final AtomicReference<LeaseState> state = new AtomicReference<>(new LeaseState(0, 0, 0, 0));
+    private final AtomicBoolean refilling = new AtomicBoolean();
+  }
+
+  private static final class LeaseState {
+    private final int count;
+    private final AtomicInteger tokens;
+    private final long expiresAt;
+    private final long deniedUntil;
+
+    private LeaseState(int count, int tokens, long expiresAt, long deniedUntil) {
+      this.count = count;
+      this.tokens = new AtomicInteger(tokens);
+      this.expiresAt = expiresAt;
+      this.deniedUntil = deniedUntil;
+    }
+  }
+}
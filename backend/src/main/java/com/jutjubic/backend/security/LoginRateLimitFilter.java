@@ -18,10 +18,10 @@ public class LoginRateLimitFilter extends OncePerRequestFilter {
   private static final long WINDOW_MS = 60 * 1000;
   private static final int MAX_HITS = 5;
 
-  private final SlidingWindowRateLimiterService rateLimiter;
+  private final LeasedRateLimiterService rateLimiter;
   private final ObjectMapper objectMapper;
 
-  public LoginRateLimitFilter(SlidingWindowRateLimiterService rateLimiter, ObjectMapper objectMapper) {
+  public LoginRateLimitFilter(LeasedRateLimiterService rateLimiter, ObjectMapper objectMapper) {
     this.rateLimiter = rateLimiter;
     this.objectMapper = objectMapper;
   }
@@ -35,7 +35,7 @@ public class LoginRateLimitFilter extends OncePerRequestFilter {
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
     String ip = request.getRemoteAddr();
-    RateLimitResult result = rateLimiter.checkSlidingWindow("rl:login:" + ip, WINDOW_MS, MAX_HITS);
+    RateLimitResult result = rateLimiter.check("rl:login:" + ip, WINDOW_MS, MAX_HITS);
 
     setRateLimitHeaders(response, result);
 
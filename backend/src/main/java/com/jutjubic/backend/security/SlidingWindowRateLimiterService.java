@@ -1,52 +1,85 @@
 package com.jutjubic.backend.security;
 
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 @Service
 public class SlidingWindowRateLimiterService {
+  private static final Logger log = LoggerFactory.getLogger(SlidingWindowRateLimiterService.class);
+
+  @SuppressWarnings("rawtypes")
+  private static final RedisScript<List> SCRIPT = loadScript();
+
   private final StringRedisTemplate redisTemplate;
 
   public SlidingWindowRateLimiterService(StringRedisTemplate redisTemplate) {
     this.redisTemplate = redisTemplate;
   }
 
-  public RateLimitResult checkSlidingWindow(String key, long windowMs, int maxHits) {
-    long now = System.currentTimeMillis();
-    long currentWindow = now / windowMs;
-    long previousWindow = currentWindow - 1;
-    long elapsedInWindow = now - currentWindow * windowMs;
-    double weight = 1.0 - (double) elapsedInWindow / windowMs;
-
-    String prevKey = key + ":" + previousWindow;
-    String currKey = key + ":" + currentWindow;
-
-    int prevCount = parseInt(redisTemplate.opsForValue().get(prevKey));
-    Long currCountLong = redisTemplate.opsForValue().increment(currKey);
-    int currCount = currCountLong == null ? 0 : currCountLong.intValue();
-    redisTemplate.expire(currKey, Duration.ofMillis(windowMs * 2));
-
-    int estimatedCount = (int) Math.floor(prevCount * weight) + currCount;
-
-    if (estimatedCount > maxHits) {
-      redisTemplate.opsForValue().decrement(currKey);
-      long retryAfterMs = windowMs - elapsedInWindow;
-      return new RateLimitResult(false, estimatedCount, maxHits, retryAfterMs);
+  /**
+   * Registers the script with Redis up front so the first checks already go through EVALSHA. If Redis is
+   * not reachable yet, the template falls back to EVAL on the first NOSCRIPT reply.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void preloadScript() {
+    try {
+      byte[] body = SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+      String sha = redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptingCommands()
+          .scriptLoad(body));
+      log.info("Loaded rate limit script {}", sha);
+    } catch (Exception ex) {
+      log.warn("Failed to preload rate limit script, it will be loaded on first use", ex);
     }
+  }
 
-    return new RateLimitResult(true, estimatedCount, maxHits, 0);
+  public RateLimitResult checkSlidingWindow(String key, long windowMs, int maxHits) {
+    Lease lease = lease(key, windowMs, maxHits, 1);
+    return new RateLimitResult(lease.granted() > 0, lease.count(), maxHits, lease.retryAfterMs());
   }
 
-  private int parseInt(String value) {
-    if (value == null || value.isBlank()) {
-      return 0;
+  /**
+   * Reserves up to {@code requested} hits in the current window in one atomic step. Fewer are granted when
+   * the window is nearly full, and none when it is exhausted.
+   */
+  public Lease lease(String key, long windowMs, int maxHits, int requested) {
+    List<?> reply = redisTemplate.execute(
+        SCRIPT,
+        List.of(key),
+        Long.toString(windowMs),
+        Integer.toString(maxHits),
+        Integer.toString(requested)
+    );
+    if (reply == null || reply.size() < 4) {
+      throw new IllegalStateException("Unexpected rate limit script reply: " + reply);
     }
 
-    try {
-      return Integer.parseInt(value);
-    } catch (NumberFormatException ex) {
-      return 0;
-    }
+    return new Lease(
+        ((Number) reply.get(0)).intValue(),
+        ((Number) reply.get(1)).intValue(),
+        ((Number) reply.get(2)).longValue(),
+        ((Number) reply.get(3)).longValue()
+    );
+  }
+
+  public record Lease(int granted, int count, long retryAfterMs, long windowRemainingMs) {}
+
+  @SuppressWarnings("rawtypes")
+  private static RedisScript<List> loadScript() {
+    DefaultRedisScript<List> script = new DefaultRedisScript<>();
+    script.setLocation(new ClassPathResource("scripts/sliding_window_rate_limit.lua"));
+    script.setResultType(List.class);
+    // Computes and caches the SHA1 once, so every call is a plain EVALSHA.
+    script.getSha1();
+    return script;
   }
 }
@@ -1,6 +1,10 @@
 package com.jutjubic.backend.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jutjubic.backend.dto.CommentPageResponse;
+import com.jutjubic.backend.dto.CommentResponse;
+import com.jutjubic.backend.dto.PageInfo;
 import com.jutjubic.backend.entity.Comment;
 import com.jutjubic.backend.entity.User;
 import com.jutjubic.backend.entity.Video;
@@ -8,10 +12,10 @@ import com.jutjubic.backend.exception.ApiException;
 import com.jutjubic.backend.repository.CommentRepository;
 import com.jutjubic.backend.repository.UserRepository;
 import com.jutjubic.backend.repository.VideoRepository;
+import com.jutjubic.backend.util.KeysetCursor;
 import com.jutjubic.backend.util.ResponseMapper;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import org.springframework.data.domain.Page;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,21 +26,27 @@ public class CommentService {
   private final VideoRepository videoRepository;
   private final UserRepository userRepository;
   private final CacheService cacheService;
+  private final ResourceVersionService resourceVersionService;
+  private final ObjectMapper objectMapper;
 
   public CommentService(
       CommentRepository commentRepository,
       VideoRepository videoRepository,
       UserRepository userRepository,
-      CacheService cacheService
+      CacheService cacheService,
+      ResourceVersionService resourceVersionService,
+      ObjectMapper objectMapper
   ) {
     this.commentRepository = commentRepository;
     this.videoRepository = videoRepository;
     this.userRepository = userRepository;
     this.cacheService = cacheService;
+    this.resourceVersionService = resourceVersionService;
+    this.objectMapper = objectMapper;
   }
 
   @Transactional
-  public Map<String, Object> create(long videoId, long userId, String text) {
+  public CommentResponse create(long videoId, long userId, String text) {
     Video video = videoRepository.findById(videoId)
         .orElseThrow(() -> new ApiException(404, "Video not found"));
     User user = userRepository.findById(userId)
@@ -48,35 +58,98 @@ public class CommentService {
     comment.setVideo(video);
 
     Comment saved = commentRepository.save(comment);
+    videoRepository.incrementCommentCount(videoId);
+    userRepository.incrementCommentCount(userId);
 
-    cacheService.delPattern("comments:" + videoId + ":*");
+    // Cached pages are keyed by generation, so moving it on is the whole invalidation.
+    resourceVersionService.bump(ResourceVersionService.comments(videoId));
 
     return ResponseMapper.mapComment(saved);
   }
 
+  public String getListVersion(long videoId) {
+    return resourceVersionService.current(ResourceVersionService.comments(videoId));
+  }
+
+  /**
+   * Returns the page as UTF-8 JSON. Pages are cached in that form, so a hit goes to the response body as
+   * stored instead of being parsed and serialized again.
+   */
   @Transactional(readOnly = true)
-  public Map<String, Object> findByVideoId(long videoId, int page, int limit) {
-    String cacheKey = "comments:%d:page:%d:limit:%d".formatted(videoId, page, limit);
-    Map<String, Object> cached = cacheService.get(cacheKey, new TypeReference<>() {});
-    if (cached != null) {
-      return cached;
+  public byte[] findByVideoId(long videoId, String generation, int page, int limit) {
+    String cacheKey = generation == null
+        ? null
+        : "comments:%d:gen:%s:page:%d:limit:%d".formatted(videoId, generation, page, limit);
+    if (cacheKey != null) {
+      byte[] cached = cacheService.getBuffer(cacheKey);
+      if (cached != null) {
+        return cached;
+      }
     }
 
-    PageRequest request = PageRequest.of(page - 1, limit);
-    Page<Comment> commentsPage = commentRepository.findByVideoIdOrderByCreatedAtDesc(videoId, request);
+    long total = commentCount(videoId);
+    List<Comment> comments = commentRepository.findByVideoIdOrderByCreatedAtDescIdDesc(
+        videoId,
+        PageRequest.of(page - 1, limit)
+    );
 
-    Map<String, Object> pagination = new LinkedHashMap<>();
-    pagination.put("page", page);
-    pagination.put("limit", limit);
-    pagination.put("total", commentsPage.getTotalElements());
-    pagination.put("totalPages", commentsPage.getTotalPages());
+    byte[] result = toJson(new CommentPageResponse(
+        comments.stream().map(ResponseMapper::mapComment).toList(),
+        PageInfo.of(page, limit, total)
+    ));
 
-    Map<String, Object> result = Map.of(
-        "comments", commentsPage.getContent().stream().map(ResponseMapper::mapComment).toList(),
-        "pagination", pagination
-    );
+    if (cacheKey != null) {
+      cachePage(cacheKey, result);
+    }
+    return result;
+  }
+
+  /**
+   * Cursor page of a thread, cached per cursor window. Every reader of a video opens the thread on the
+   * same first-page key, and deeper windows are only cached once somebody actually scrolls to them. Returns
+   * UTF-8 JSON like {@link #findByVideoId}.
+   */
+  @Transactional(readOnly = true)
+  public byte[] findByVideoIdAfter(long videoId, String generation, KeysetCursor after, int limit) {
+    String cacheKey = generation == null
+        ? null
+        : "comments:%d:gen:%s:after:%s:limit:%d".formatted(videoId, generation, after == null ? "first" : after, limit);
+    if (cacheKey != null) {
+      byte[] cached = cacheService.getBuffer(cacheKey);
+      if (cached != null) {
+        return cached;
+      }
+    }
 
-    cacheService.set(cacheKey, result, 5 * 60);
+    Limit window = Limit.of(limit + 1);
+    List<Comment> rows = after == null
+        ? commentRepository.findByVideoIdOrderByCreatedAtDescIdDesc(videoId, window)
+        : commentRepository.findPageAfter(videoId, after.createdAt(), after.id(), window);
+    byte[] result = toJson(ResponseMapper.mapCommentCursorPage(rows, limit, commentCount(videoId)));
+
+    if (cacheKey != null) {
+      cachePage(cacheKey, result);
+    }
     return result;
   }
+
+  private long commentCount(long videoId) {
+    return videoRepository.findCommentCountById(videoId).orElse(0);
+  }
+
+  private void cachePage(String cacheKey, byte[] page) {
+    try {
+      cacheService.setBuffer(cacheKey, page, 5 * 60);
+    } catch (Exception ignored) {
+      // Cache failures should not fail request handling.
+    }
+  }
+
+  private byte[] toJson(Object page) {
+    try {
+      return objectMapper.writeValueAsBytes(page);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Failed to serialize comment page", ex);
+    }
+  }
 }
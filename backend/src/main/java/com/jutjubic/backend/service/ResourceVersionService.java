@@ -0,0 +1,83 @@
+package com.jutjubic.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-collection version counters kept in Redis, used both as list ETags and as the generation part of
+ * cache keys, so invalidating a collection is a single INCR. A counter is seeded with the
+ * current time when missing, so a Redis flush can never hand out a version that a client has already
+ * seen for different content.
+ */
+@Service
+public class ResourceVersionService {
+  private static final Logger log = LoggerFactory.getLogger(ResourceVersionService.class);
+  private static final String KEY_PREFIX = "version:";
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  public ResourceVersionService(StringRedisTemplate stringRedisTemplate) {
+    this.stringRedisTemplate = stringRedisTemplate;
+  }
+
+  public static String videos() {
+    return "videos";
+  }
+
+  public static String comments(long videoId) {
+    return "comments:" + videoId;
+  }
+
+  /**
+   * Returns the current version of the scope, or {@code null} when Redis is unavailable and no
+   * validator can be issued.
+   */
+  public String current(String scope) {
+    String key = KEY_PREFIX + scope;
+    try {
+      String version = stringRedisTemplate.opsForValue().get(key);
+      if (version != null) {
+        return version;
+      }
+      stringRedisTemplate.opsForValue().setIfAbsent(key, Long.toString(System.currentTimeMillis()));
+      return stringRedisTemplate.opsForValue().get(key);
+    } catch (Exception ex) {
+      log.warn("Failed to read version for {}", scope, ex);
+      return null;
+    }
+  }
+
+  /**
+   * Advances the scope's version. Inside a transaction the bump is deferred until commit so that a
+   * concurrent reader cannot pair the new version with the old rows.
+   */
+  public void bump(String scope) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          increment(scope);
+        }
+      });
+      return;
+    }
+    increment(scope);
+  }
+
+  private void increment(String scope) {
+    String key = KEY_PREFIX + scope;
+    try {
+      Boolean seeded = stringRedisTemplate.opsForValue().setIfAbsent(key, Long.toString(System.currentTimeMillis()));
+      if (Boolean.TRUE.equals(seeded)) {
+        return;
+      }
+      stringRedisTemplate.opsForValue().increment(key);
+    } catch (Exception ex) {
+      log.warn("Failed to bump version for {}", scope, ex);
+    }
+  }
+}
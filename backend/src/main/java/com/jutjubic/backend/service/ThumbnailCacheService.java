@@ -0,0 +1,136 @@
+package com.jutjubic.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.jutjubic.backend.config.AppProperties;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Thumbnail bytes cached in two tiers: a byte-bounded in-process Caffeine cache (W-TinyLFU admission,
+ * so one-off lookups cannot flush the popular set) in front of the shared Redis buffers. A video's
+ * thumbnail never changes after upload, so entries are never invalidated and only expire.
+ */
+@Service
+public class ThumbnailCacheService {
+  private static final Logger log = LoggerFactory.getLogger(ThumbnailCacheService.class);
+  private static final String KEY_PREFIX = "thumb:";
+  private static final String ETAG_KEY_PREFIX = "thumb:etag:";
+  private static final long MAX_LOCAL_ETAGS = 100_000;
+  private static final long TTL_SECONDS = 24 * 60 * 60;
+
+  private final CacheService cacheService;
+  private final StringRedisTemplate stringRedisTemplate;
+  private final Cache<Long, byte[]> local;
+  private final Cache<Long, String> localEtags;
+  private final LongAdder remoteHits = new LongAdder();
+  private final LongAdder remoteMisses = new LongAdder();
+
+  public ThumbnailCacheService(
+      CacheService cacheService,
+      StringRedisTemplate stringRedisTemplate,
+      AppProperties appProperties
+  ) {
+    this.cacheService = cacheService;
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.local = Caffeine.newBuilder()
+        .maximumWeight(appProperties.getCache().getThumbnailL1MaxBytes())
+        .weigher((Long id, byte[] bytes) -> bytes.length)
+        .expireAfterWrite(Duration.ofSeconds(TTL_SECONDS))
+        .recordStats()
+        .build();
+    this.localEtags = Caffeine.newBuilder()
+        .maximumSize(MAX_LOCAL_ETAGS)
+        .expireAfterWrite(Duration.ofSeconds(TTL_SECONDS))
+        .build();
+  }
+
+  public byte[] get(long videoId) {
+    byte[] bytes = local.getIfPresent(videoId);
+    if (bytes != null) {
+      return bytes;
+    }
+
+    try {
+      bytes = cacheService.getBuffer(KEY_PREFIX + videoId);
+    } catch (Exception ex) {
+      log.warn("Thumbnail L2 lookup failed for video {}", videoId, ex);
+      bytes = null;
+    }
+
+    if (bytes == null) {
+      remoteMisses.increment();
+      return null;
+    }
+
+    remoteHits.increment();
+    local.put(videoId, bytes);
+    return bytes;
+  }
+
+  /**
+   * Returns the thumbnail's content hash without loading the image, or {@code null} if neither tier knows
+   * it yet.
+   */
+  public String getEtag(long videoId) {
+    String etag = localEtags.getIfPresent(videoId);
+    if (etag != null) {
+      return etag;
+    }
+
+    try {
+      etag = stringRedisTemplate.opsForValue().get(ETAG_KEY_PREFIX + videoId);
+    } catch (Exception ex) {
+      log.warn("Thumbnail ETag lookup failed for video {}", videoId, ex);
+      return null;
+    }
+    if (etag != null) {
+      localEtags.put(videoId, etag);
+    }
+    return etag;
+  }
+
+  public void put(long videoId, byte[] bytes, String etag) {
+    local.put(videoId, bytes);
+    localEtags.put(videoId, etag);
+    try {
+      cacheService.setBuffer(KEY_PREFIX + videoId, bytes, TTL_SECONDS);
+      stringRedisTemplate.opsForValue().set(ETAG_KEY_PREFIX + videoId, etag, Duration.ofSeconds(TTL_SECONDS));
+    } catch (Exception ex) {
+      log.warn("Thumbnail L2 write failed for video {}", videoId, ex);
+    }
+  }
+
+  public Map<String, Object> stats() {
+    CacheStats l1 = local.stats();
+    long l2Hits = remoteHits.sum();
+    long l2Misses = remoteMisses.sum();
+    long requests = l1.requestCount();
+
+    Map<String, Object> l1Stats = new LinkedHashMap<>();
+    l1Stats.put("hits", l1.hitCount());
+    l1Stats.put("misses", l1.missCount());
+    l1Stats.put("hitRatio", l1.hitRate());
+    l1Stats.put("evictions", l1.evictionCount());
+    l1Stats.put("entries", local.estimatedSize());
+    l1Stats.put("weightedBytes", local.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L));
+
+    Map<String, Object> l2Stats = new LinkedHashMap<>();
+    l2Stats.put("hits", l2Hits);
+    l2Stats.put("misses", l2Misses);
+    l2Stats.put("hitRatio", l2Hits + l2Misses == 0 ? 1.0 : (double) l2Hits / (l2Hits + l2Misses));
+
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("l1", l1Stats);
+    body.put("l2", l2Stats);
+    body.put("overallHitRatio", requests == 0 ? 1.0 : (double) (l1.hitCount() + l2Hits) / requests);
+    return body;
+  }
+}
@@ -1,56 +1,77 @@
 package com.jutjubic.backend.service;
 
-import com.jutjubic.backend.entity.User;
+import com.jutjubic.backend.dto.PageInfo;
+import com.jutjubic.backend.dto.VideoCursorPageResponse;
+import com.jutjubic.backend.dto.VideoPageResponse;
 import com.jutjubic.backend.entity.Video;
 import com.jutjubic.backend.exception.ApiException;
-import com.jutjubic.backend.repository.CommentRepository;
-import com.jutjubic.backend.repository.UserRepository;
 import com.jutjubic.backend.repository.VideoRepository;
+import com.jutjubic.backend.util.KeysetCursor;
 import com.jutjubic.backend.util.ResponseMapper;
-import java.util.LinkedHashMap;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Map;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserService {
-  private final UserRepository userRepository;
+  /**
+   * The whole profile in one primary-key lookup. The counters are kept by {@code UserRepository} when
+   * videos and comments are created; {@code UserProfileQueryTest} guards the plan.
+   */
+  private static final String PROFILE_SQL = """
+      SELECT id, username, first_name, last_name, created_at, video_count, comment_count
+      FROM users
+      WHERE id = ?
+      """;
+
   private final VideoRepository videoRepository;
-  private final CommentRepository commentRepository;
+  private final JdbcTemplate jdbcTemplate;
 
-  public UserService(UserRepository userRepository, VideoRepository videoRepository, CommentRepository commentRepository) {
-    this.userRepository = userRepository;
+  public UserService(VideoRepository videoRepository, JdbcTemplate jdbcTemplate) {
     this.videoRepository = videoRepository;
-    this.commentRepository = commentRepository;
+    this.jdbcTemplate = jdbcTemplate;
   }
 
-  @Transactional(readOnly = true)
   public Map<String, Object> getProfile(long userId) {
-    User user = userRepository.findById(userId)
-        .orElseThrow(() -> new ApiException(404, "User not found"));
+    List<Map<String, Object>> profiles = jdbcTemplate.query(PROFILE_SQL, (rs, rowNum) -> ResponseMapper.mapPublicUser(
+        rs.getLong("id"),
+        rs.getString("username"),
+        rs.getString("first_name"),
+        rs.getString("last_name"),
+        rs.getObject("created_at", OffsetDateTime.class),
+        rs.getLong("video_count"),
+        rs.getLong("comment_count")
+    ), userId);
 
-    long videosCount = videoRepository.countByUserId(userId);
-    long commentsCount = commentRepository.countByUserId(userId);
-
-    return ResponseMapper.mapPublicUser(user, videosCount, commentsCount);
+    if (profiles.isEmpty()) {
+      throw new ApiException(404, "User not found");
+    }
+    return profiles.get(0);
   }
 
   @Transactional(readOnly = true)
-  public Map<String, Object> getUserVideos(long userId, int page, int limit) {
+  public VideoPageResponse getUserVideos(long userId, int page, int limit) {
     PageRequest request = PageRequest.of(page - 1, limit);
-    Page<Video> videosPage = videoRepository.findByUserIdOrderByCreatedAtDesc(userId, request);
-
-    Map<String, Object> pagination = new LinkedHashMap<>();
-    pagination.put("page", page);
-    pagination.put("limit", limit);
-    pagination.put("total", videosPage.getTotalElements());
-    pagination.put("totalPages", videosPage.getTotalPages());
+    Page<Video> videosPage = videoRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, request);
 
-    return Map.of(
-        "videos", videosPage.getContent().stream().map(ResponseMapper::mapVideoForList).toList(),
-        "pagination", pagination
+    return new VideoPageResponse(
+        videosPage.getContent().stream().map(ResponseMapper::mapVideoForList).toList(),
+        new PageInfo(page, limit, videosPage.getTotalElements(), videosPage.getTotalPages())
     );
   }
+
+  @Transactional(readOnly = true)
+  public VideoCursorPageResponse getUserVideosAfter(long userId, KeysetCursor after, int limit) {
+    Limit window = Limit.of(limit + 1);
+    List<Video> rows = after == null
+        ? videoRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, window)
+        : videoRepository.findUserPageAfter(userId, after.createdAt(), after.id(), window);
+    return ResponseMapper.mapVideoCursorPage(rows, limit);
+  }
 }
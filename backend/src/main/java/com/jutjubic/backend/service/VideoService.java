@@ -1,39 +1,47 @@
 package com.jutjubic.backend.service;
 
 import com.jutjubic.backend.config.AppProperties;
+import com.jutjubic.backend.dto.PageInfo;
+import com.jutjubic.backend.dto.VideoCursorPageResponse;
+import com.jutjubic.backend.dto.VideoListItem;
+import com.jutjubic.backend.dto.VideoPageResponse;
 import com.jutjubic.backend.entity.User;
 import com.jutjubic.backend.entity.Video;
 import com.jutjubic.backend.exception.ApiException;
 import com.jutjubic.backend.mq.UploadEventMessage;
-import com.jutjubic.backend.mq.UploadEventPublisher;
+import com.jutjubic.backend.mq.UploadEventOutbox;
 import com.jutjubic.backend.repository.UserRepository;
 import com.jutjubic.backend.repository.VideoRepository;
+import com.jutjubic.backend.upload.StagedFile;
+import com.jutjubic.backend.util.KeysetCursor;
 import com.jutjubic.backend.util.ResponseMapper;
+import com.jutjubic.backend.util.UploadValidator;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
-import java.util.LinkedHashMap;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
 public class VideoService {
-  private static final Logger log = LoggerFactory.getLogger(VideoService.class);
-
   private final VideoRepository videoRepository;
   private final UserRepository userRepository;
-  private final CacheService cacheService;
-  private final UploadEventPublisher uploadEventPublisher;
+  private final ThumbnailCacheService thumbnailCacheService;
+  private final ResourceVersionService resourceVersionService;
+  private final UploadEventOutbox uploadEventOutbox;
   private final Path uploadRoot;
   private final Path videosDir;
   private final Path thumbnailsDir;
@@ -42,14 +50,16 @@ public class VideoService {
   public VideoService(
       VideoRepository videoRepository,
       UserRepository userRepository,
-      CacheService cacheService,
-      UploadEventPublisher uploadEventPublisher,
+      ThumbnailCacheService thumbnailCacheService,
+      ResourceVersionService resourceVersionService,
+      UploadEventOutbox uploadEventOutbox,
       AppProperties appProperties
   ) {
     this.videoRepository = videoRepository;
     this.userRepository = userRepository;
-    this.cacheService = cacheService;
-    this.uploadEventPublisher = uploadEventPublisher;
+    this.thumbnailCacheService = thumbnailCacheService;
+    this.resourceVersionService = resourceVersionService;
+    this.uploadEventOutbox = uploadEventOutbox;
 
     this.uploadRoot = Path.of(appProperties.getUploadDir()).toAbsolutePath().normalize();
     this.videosDir = uploadRoot.resolve("videos");
@@ -60,84 +70,109 @@ public class VideoService {
   }
 
   @Transactional
-  public Map<String, Object> create(CreateVideoInput input) {
+  public VideoListItem create(CreateVideoInput input) {
     User user = userRepository.findById(input.userId())
         .orElseThrow(() -> new ApiException(404, "User not found"));
 
-    String videoFilename = UUID.randomUUID() + getExtension(input.videoFile().getOriginalFilename());
-    String thumbnailFilename = UUID.randomUUID() + getExtension(input.thumbnailFile().getOriginalFilename());
-
-    Path tmpVideoPath = tmpDir.resolve(videoFilename);
-    Path tmpThumbPath = tmpDir.resolve(thumbnailFilename);
-    Path finalVideoPath = videosDir.resolve(videoFilename);
-    Path finalThumbPath = thumbnailsDir.resolve(thumbnailFilename);
-
+    StagedFile video = stage(input.videoFile());
+    StagedFile thumbnail;
     try {
-      input.videoFile().transferTo(tmpVideoPath);
-      input.thumbnailFile().transferTo(tmpThumbPath);
-
-      Files.move(tmpVideoPath, finalVideoPath, StandardCopyOption.REPLACE_EXISTING);
-      Files.move(tmpThumbPath, finalThumbPath, StandardCopyOption.REPLACE_EXISTING);
-
-      Video video = new Video();
-      video.setTitle(input.title());
-      video.setDescription(input.description());
-      video.setTags(input.tags().toArray(String[]::new));
-      video.setVideoPath("videos/" + videoFilename);
-      video.setThumbnailPath("thumbnails/" + thumbnailFilename);
-      video.setLatitude(input.latitude());
-      video.setLongitude(input.longitude());
-      video.setUser(user);
+      thumbnail = stage(input.thumbnailFile());
+    } catch (ApiException ex) {
+      cleanupFile(video.path());
+      throw ex;
+    }
 
-      Video saved = videoRepository.save(video);
+    StagedVideoInput staged = new StagedVideoInput(
+        input.title(),
+        input.description(),
+        input.tags(),
+        input.latitude(),
+        input.longitude(),
+        input.userId(),
+        video,
+        thumbnail
+    );
+    return persistStaged(user, staged, false);
+  }
 
-      try {
-        byte[] thumbnailBytes = Files.readAllBytes(finalThumbPath);
-        cacheService.setBuffer("thumb:" + saved.getId(), thumbnailBytes, 24 * 60 * 60);
-      } catch (Exception ignored) {
-        // Non-critical cache write.
-      }
+  /**
+   * Persists files staged by the caller. If this fails, the files are back at their staged paths when the
+   * exception reaches the caller, who decides whether to keep them for a retry or discard them.
+   */
+  @Transactional
+  public VideoListItem createFromStaged(StagedVideoInput input) {
+    User user = userRepository.findById(input.userId())
+        .orElseThrow(() -> new ApiException(404, "User not found"));
 
-      publishUploadEvent(saved, user, input, finalVideoPath, finalThumbPath);
+    return persistStaged(user, input, true);
+  }
 
-      return ResponseMapper.mapVideoForList(saved);
+  public StagedFile stage(MultipartFile file) {
+    Path tmpPath = tmpDir.resolve(UUID.randomUUID() + UploadValidator.getExtension(file.getOriginalFilename()));
+    try {
+      file.transferTo(tmpPath);
     } catch (IOException ex) {
-      cleanupFile(finalVideoPath);
-      cleanupFile(finalThumbPath);
-      cleanupFile(tmpVideoPath);
-      cleanupFile(tmpThumbPath);
+      cleanupFile(tmpPath);
       throw new ApiException(500, "Failed to store uploaded files");
     }
+    return new StagedFile(tmpPath, file.getOriginalFilename(), file.getSize(), null);
+  }
+
+  public void discard(StagedFile file) {
+    if (file != null) {
+      cleanupFile(file.path());
+    }
   }
 
   @Transactional(readOnly = true)
-  public Map<String, Object> findAll(int page, int limit) {
+  public VideoPageResponse findAll(int page, int limit) {
     PageRequest request = PageRequest.of(page - 1, limit);
-    Page<Video> videosPage = videoRepository.findAllByOrderByCreatedAtDesc(request);
-
-    Map<String, Object> pagination = new LinkedHashMap<>();
-    pagination.put("page", page);
-    pagination.put("limit", limit);
-    pagination.put("total", videosPage.getTotalElements());
-    pagination.put("totalPages", videosPage.getTotalPages());
+    Page<Video> videosPage = videoRepository.findAllByOrderByCreatedAtDescIdDesc(request);
 
-    return Map.of(
-        "videos", videosPage.getContent().stream().map(ResponseMapper::mapVideoForList).toList(),
-        "pagination", pagination
+    return new VideoPageResponse(
+        videosPage.getContent().stream().map(ResponseMapper::mapVideoForList).toList(),
+        new PageInfo(page, limit, videosPage.getTotalElements(), videosPage.getTotalPages())
     );
   }
 
+  /**
+   * Feed page that starts right after {@code after} ({@code null} for the newest videos). Seeks on
+   * {@code idx_videos_created_at_desc} instead of scanning past an offset, and skips the total count.
+   */
+  @Transactional(readOnly = true)
+  public VideoCursorPageResponse findAfter(KeysetCursor after, int limit) {
+    Limit window = Limit.of(limit + 1);
+    List<Video> rows = after == null
+        ? videoRepository.findAllByOrderByCreatedAtDescIdDesc(window)
+        : videoRepository.findPageAfter(after.createdAt(), after.id(), window);
+    return ResponseMapper.mapVideoCursorPage(rows, limit);
+  }
+
   @Transactional(readOnly = true)
   public Video findById(long id) {
     return videoRepository.findDetailsById(id)
         .orElseThrow(() -> new ApiException(404, "Video not found"));
   }
 
+  public String getThumbnailEtag(long id) {
+    return thumbnailCacheService.getEtag(id);
+  }
+
+  public String getListVersion() {
+    return resourceVersionService.current(ResourceVersionService.videos());
+  }
+
   @Transactional(readOnly = true)
   public ThumbnailResult getThumbnail(long id) {
-    byte[] cached = cacheService.getBuffer("thumb:" + id);
+    byte[] cached = thumbnailCacheService.get(id);
     if (cached != null) {
-      return new ThumbnailResult(cached, "image/jpeg");
+      String etag = thumbnailCacheService.getEtag(id);
+      if (etag == null) {
+        etag = sha256Hex(cached);
+        thumbnailCacheService.put(id, cached, etag);
+      }
+      return new ThumbnailResult(cached, sniffContentType(cached), etag);
     }
 
     Video video = videoRepository.findById(id)
@@ -150,8 +185,9 @@ public class VideoService {
 
     try {
       byte[] bytes = Files.readAllBytes(thumbnailPath);
-      cacheService.setBuffer("thumb:" + id, bytes, 24 * 60 * 60);
-      return new ThumbnailResult(bytes, detectContentType(video.getThumbnailPath()));
+      String etag = video.getThumbnailSha256() != null ? video.getThumbnailSha256() : sha256Hex(bytes);
+      thumbnailCacheService.put(id, bytes, etag);
+      return new ThumbnailResult(bytes, detectContentType(video.getThumbnailPath()), etag);
     } catch (IOException ex) {
       throw new ApiException(404, "Thumbnail not found");
     }
@@ -168,15 +204,82 @@ public class VideoService {
       MultipartFile thumbnailFile
   ) {}
 
-  public record ThumbnailResult(byte[] buffer, String contentType) {}
+  public record StagedVideoInput(
+      String title,
+      String description,
+      List<String> tags,
+      Double latitude,
+      Double longitude,
+      Long userId,
+      StagedFile video,
+      StagedFile thumbnail
+  ) {}
+
+  public record ThumbnailResult(byte[] buffer, String contentType, String etag) {}
 
-  private String getExtension(String originalName) {
-    if (originalName == null) {
-      return "";
-    }
+  private VideoListItem persistStaged(User user, StagedVideoInput input, boolean keepStagedOnFailure) {
+    String videoFilename = input.video().path().getFileName().toString();
+    String thumbnailFilename = input.thumbnail().path().getFileName().toString();
+    Path finalVideoPath = videosDir.resolve(videoFilename);
+    Path finalThumbPath = thumbnailsDir.resolve(thumbnailFilename);
+
+    // Covers failures up to and including the commit itself, not just the ones thrown from here.
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_ROLLED_BACK) {
+          return;
+        }
+        if (keepStagedOnFailure) {
+          moveBack(finalVideoPath, input.video().path());
+          moveBack(finalThumbPath, input.thumbnail().path());
+        } else {
+          cleanupFile(finalVideoPath);
+          cleanupFile(finalThumbPath);
+          cleanupFile(input.video().path());
+          cleanupFile(input.thumbnail().path());
+        }
+      }
+    });
+
+    try {
+      Files.move(input.video().path(), finalVideoPath, StandardCopyOption.REPLACE_EXISTING);
+      Files.move(input.thumbnail().path(), finalThumbPath, StandardCopyOption.REPLACE_EXISTING);
+      byte[] thumbnailBytes = Files.readAllBytes(finalThumbPath);
+      String thumbnailSha256 = input.thumbnail().sha256() != null
+          ? input.thumbnail().sha256()
+          : sha256Hex(thumbnailBytes);
+
+      Video video = new Video();
+      video.setTitle(input.title());
+      video.setDescription(input.description());
+      video.setTags(input.tags().toArray(String[]::new));
+      video.setVideoPath("videos/" + videoFilename);
+      video.setThumbnailPath("thumbnails/" + thumbnailFilename);
+      video.setThumbnailSha256(thumbnailSha256);
+      video.setLatitude(input.latitude());
+      video.setLongitude(input.longitude());
+      video.setUser(user);
+
+      Video saved = videoRepository.save(video);
+      userRepository.incrementVideoCount(user.getId());
 
-    int idx = originalName.lastIndexOf('.');
-    return idx >= 0 ? originalName.substring(idx) : "";
+      // Cached only once the row is committed, so a rolled-back upload never leaves a thumbnail behind.
+      long videoId = saved.getId();
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          thumbnailCacheService.put(videoId, thumbnailBytes, thumbnailSha256);
+        }
+      });
+      resourceVersionService.bump(ResourceVersionService.videos());
+
+      publishUploadEvent(saved, user, input);
+
+      return ResponseMapper.mapVideoForList(saved);
+    } catch (IOException ex) {
+      throw new ApiException(500, "Failed to store uploaded files");
+    }
   }
 
   private String detectContentType(String filePath) {
@@ -190,6 +293,25 @@ public class VideoService {
     return "image/jpeg";
   }
 
+  private String sniffContentType(byte[] bytes) {
+    if (bytes.length >= 8 && (bytes[0] & 0xFF) == 0x89 && bytes[1] == 'P' && bytes[2] == 'N' && bytes[3] == 'G') {
+      return "image/png";
+    }
+    if (bytes.length >= 12 && bytes[0] == 'R' && bytes[1] == 'I' && bytes[2] == 'F' && bytes[3] == 'F'
+        && bytes[8] == 'W' && bytes[9] == 'E' && bytes[10] == 'B' && bytes[11] == 'P') {
+      return "image/webp";
+    }
+    return "image/jpeg";
+  }
+
+  private String sha256Hex(byte[] bytes) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 not available", ex);
+    }
+  }
+
   private void ensureDirectories() {
     try {
       Files.createDirectories(videosDir);
@@ -208,34 +330,30 @@ public class VideoService {
     }
   }
 
-  private void publishUploadEvent(
-      Video video,
-      User author,
-      CreateVideoInput input,
-      Path videoPath,
-      Path thumbnailPath
-  ) {
+  private void moveBack(Path from, Path to) {
     try {
-      long videoSize = Files.size(videoPath);
-      long thumbnailSize = Files.size(thumbnailPath);
-
-      UploadEventMessage event = new UploadEventMessage(
-          video.getId(),
-          video.getTitle(),
-          videoSize,
-          thumbnailSize,
-          author.getId(),
-          author.getUsername(),
-          input.description(),
-          input.tags(),
-          video.getVideoPath(),
-          video.getThumbnailPath(),
-          OffsetDateTime.now()
-      );
-
-      uploadEventPublisher.publish(event);
-    } catch (Exception ex) {
-      log.warn("Upload event dispatch failed for videoId={}", video.getId(), ex);
+      if (Files.exists(from) && !Files.exists(to)) {
+        Files.move(from, to);
+      }
+    } catch (IOException ex) {
+      cleanupFile(from);
     }
   }
+
+  private void publishUploadEvent(Video video, User author, StagedVideoInput input) {
+    // Written in the upload's transaction, so the event exists exactly when the video row does.
+    uploadEventOutbox.append(new UploadEventMessage(
+        video.getId(),
+        video.getTitle(),
+        input.video().size(),
+        input.thumbnail().size(),
+        author.getId(),
+        author.getUsername(),
+        input.description(),
+        input.tags(),
+        video.getVideoPath(),
+        video.getThumbnailPath(),
+        OffsetDateTime.now()
+    ));
+  }
 }
@@ -0,0 +1,299 @@
+package com.jutjubic.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jutjubic.backend.config.AppProperties;
+import com.jutjubic.backend.entity.Video;
+import com.jutjubic.backend.exception.ApiException;
+import com.jutjubic.backend.repository.VideoRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves video files with HTTP range support. A single range goes out through Tomcat's sendfile support
+ * when the connector offers it, so the bytes never pass through the Java heap. Otherwise, and always for
+ * multipart ranges, the file is copied through a heap buffer into the response stream.
+ */
+@Service
+public class VideoStreamService {
+  private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+  private static final String CACHE_CONTROL = "public, max-age=86400";
+  private static final int COPY_BUFFER_BYTES = 64 * 1024;
+  private static final long MAX_CACHED_PATHS = 10_000;
+
+  private final VideoRepository videoRepository;
+  private final Path uploadRoot;
+  // A player sends many range requests per video, and a video's file never changes after upload.
+  private final Cache<Long, Path> videoPaths = Caffeine.newBuilder()
+      .maximumSize(MAX_CACHED_PATHS)
+      .expireAfterAccess(Duration.ofMinutes(30))
+      .build();
+
+  public VideoStreamService(VideoRepository videoRepository, AppProperties appProperties) {
+    this.videoRepository = videoRepository;
+    this.uploadRoot = Path.of(appProperties.getUploadDir()).toAbsolutePath().normalize();
+  }
+
+  public void stream(long videoId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+    VideoFile file = resolve(videoId);
+    boolean headOnly = "HEAD".equalsIgnoreCase(request.getMethod());
+
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setHeader(HttpHeaders.ETAG, file.etag());
+    response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.lastModified());
+    response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+
+    if (isNotModified(request, file)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+
+    List<HttpRange> ranges = parseRanges(request, file);
+    if (ranges == null) {
+      response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+      response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.size());
+      return;
+    }
+
+    if (ranges.isEmpty()) {
+      response.setStatus(HttpServletResponse.SC_OK);
+      response.setContentType(file.contentType());
+      sendSingle(request, response, file, 0, file.size() - 1, headOnly);
+      return;
+    }
+
+    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+    if (ranges.size() == 1) {
+      long start = ranges.get(0).getRangeStart(file.size());
+      long end = ranges.get(0).getRangeEnd(file.size());
+      response.setContentType(file.contentType());
+      response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes %d-%d/%d".formatted(start, end, file.size()));
+      sendSingle(request, response, file, start, end, headOnly);
+      return;
+    }
+
+    sendMultipart(response, file, ranges, headOnly);
+  }
+
+  private VideoFile resolve(long videoId) {
+    Path path = videoPaths.get(videoId, this::lookupPath);
+    if (!Files.isRegularFile(path)) {
+      throw new ApiException(404, "Video file not found");
+    }
+
+    try {
+      long size = Files.size(path);
+      long lastModified = Files.getLastModifiedTime(path).toMillis();
+      String etag = "\"%s-%s\"".formatted(Long.toHexString(size), Long.toHexString(lastModified));
+      return new VideoFile(path, size, lastModified / 1000 * 1000, etag, detectContentType(path));
+    } catch (IOException ex) {
+      throw new ApiException(404, "Video file not found");
+    }
+  }
+
+  private Path lookupPath(long videoId) {
+    Video video = videoRepository.findById(videoId)
+        .orElseThrow(() -> new ApiException(404, "Video not found"));
+
+    Path path = uploadRoot.resolve(video.getVideoPath()).normalize();
+    if (!path.startsWith(uploadRoot)) {
+      throw new ApiException(404, "Video file not found");
+    }
+    return path;
+  }
+
+  private boolean isNotModified(HttpServletRequest request, VideoFile file) {
+    String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+    if (ifNoneMatch != null) {
+      return matchesEtag(ifNoneMatch, file.etag());
+    }
+
+    long ifModifiedSince = readDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+    return ifModifiedSince >= 0 && file.lastModified() <= ifModifiedSince;
+  }
+
+  // Returns an empty list for "send the whole file" and null when the Range header is unsatisfiable.
+  private List<HttpRange> parseRanges(HttpServletRequest request, VideoFile file) {
+    String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+    if (rangeHeader == null || !rangeHeader.startsWith("bytes=") || !ifRangeMatches(request, file)) {
+      return List.of();
+    }
+
+    List<HttpRange> ranges;
+    try {
+      ranges = HttpRange.parseRanges(rangeHeader);
+    } catch (IllegalArgumentException ex) {
+      return List.of();
+    }
+
+    List<HttpRange> satisfiable = new ArrayList<>(ranges.size());
+    long total = 0;
+    for (HttpRange range : ranges) {
+      try {
+        long start = range.getRangeStart(file.size());
+        long end = range.getRangeEnd(file.size());
+        // "bytes=-0" asks for no bytes at all and comes back as start = size, end = size - 1.
+        if (end < start) {
+          continue;
+        }
+        total += end - start + 1;
+        satisfiable.add(range);
+      } catch (IllegalArgumentException ignored) {
+        // Ranges starting past EOF are dropped; if none are left the request is unsatisfiable.
+      }
+    }
+
+    if (satisfiable.isEmpty()) {
+      return null;
+    }
+    // Overlapping ranges that add up to more than the file are served as a plain 200.
+    return total > file.size() ? List.of() : satisfiable;
+  }
+
+  private boolean ifRangeMatches(HttpServletRequest request, VideoFile file) {
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange == null) {
+      return true;
+    }
+    if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+      return ifRange.equals(file.etag());
+    }
+
+    long date = readDateHeader(request, HttpHeaders.IF_RANGE);
+    return date >= 0 && file.lastModified() <= date;
+  }
+
+  private void sendSingle(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      VideoFile file,
+      long start,
+      long end,
+      boolean headOnly
+  ) throws IOException {
+    long length = end - start + 1;
+    response.setContentLengthLong(length);
+    if (headOnly || length == 0) {
+      return;
+    }
+
+    // Tomcat's NIO connector hands the region to sendfile(2) after the servlet returns.
+    if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+      request.setAttribute(SENDFILE_FILENAME_ATTR, file.path().toString());
+      request.setAttribute(SENDFILE_START_ATTR, start);
+      request.setAttribute(SENDFILE_END_ATTR, end + 1);
+      return;
+    }
+
+    try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+      copyRange(channel, start, length, response.getOutputStream(), ByteBuffer.allocate(COPY_BUFFER_BYTES));
+    }
+  }
+
+  private void sendMultipart(HttpServletResponse response, VideoFile file, List<HttpRange> ranges, boolean headOnly)
+      throws IOException {
+    String boundary = UUID.randomUUID().toString();
+    List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+    long contentLength = 0;
+    for (HttpRange range : ranges) {
+      long start = range.getRangeStart(file.size());
+      long end = range.getRangeEnd(file.size());
+      byte[] header = ("\r\n--%s\r\nContent-Type: %s\r\nContent-Range: bytes %d-%d/%d\r\n\r\n")
+          .formatted(boundary, file.contentType(), start, end, file.size())
+          .getBytes(StandardCharsets.US_ASCII);
+      partHeaders.add(header);
+      contentLength += header.length + (end - start + 1);
+    }
+    byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+    contentLength += closing.length;
+
+    response.setContentType("multipart/byteranges; boundary=" + boundary);
+    response.setContentLengthLong(contentLength);
+    if (headOnly) {
+      return;
+    }
+
+    OutputStream out = response.getOutputStream();
+    ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_BYTES);
+    try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+      for (int i = 0; i < ranges.size(); i++) {
+        long start = ranges.get(i).getRangeStart(file.size());
+        long end = ranges.get(i).getRangeEnd(file.size());
+        out.write(partHeaders.get(i));
+        copyRange(channel, start, end - start + 1, out, buffer);
+      }
+    }
+    out.write(closing);
+  }
+
+  // The servlet stream is not a socket channel, so transferTo would only copy through its own buffers.
+  private void copyRange(FileChannel channel, long position, long length, OutputStream out, ByteBuffer buffer)
+      throws IOException {
+    long remaining = length;
+    while (remaining > 0) {
+      buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+      int read = channel.read(buffer, position);
+      if (read <= 0) {
+        throw new IOException("Video file truncated while streaming");
+      }
+      out.write(buffer.array(), 0, read);
+      position += read;
+      remaining -= read;
+    }
+  }
+
+  private boolean matchesEtag(String headerValue, String etag) {
+    for (String candidate : headerValue.split(",")) {
+      String trimmed = candidate.trim();
+      if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private long readDateHeader(HttpServletRequest request, String name) {
+    try {
+      return request.getDateHeader(name);
+    } catch (IllegalArgumentException ex) {
+      return -1;
+    }
+  }
+
+  private String detectContentType(Path path) {
+    String lower = path.getFileName().toString().toLowerCase();
+    if (lower.endsWith(".webm")) {
+      return "video/webm";
+    }
+    if (lower.endsWith(".avi")) {
+      return "video/x-msvideo";
+    }
+    if (lower.endsWith(".mov")) {
+      return "video/quicktime";
+    }
+    if (lower.endsWith(".mkv")) {
+      return "video/x-matroska";
+    }
+    return "video/mp4";
+  }
+
+  private record VideoFile(Path path, long size, long lastModified, String etag, String contentType) {}
+}
@@ -1,23 +1,179 @@
 package com.jutjubic.backend.service;
 
+import com.jutjubic.backend.config.AppProperties;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ViewCounterService {
+  private static final Logger log = LoggerFactory.getLogger(ViewCounterService.class);
+
+  static final String FLUSH_SQL = """
+      UPDATE videos AS v
+      SET view_count = v.view_count + d.delta
+      FROM unnest(?::bigint[], ?::bigint[]) AS d(id, delta)
+      WHERE v.id = d.id
+      """;
+
   private final JdbcTemplate jdbcTemplate;
+  private final ResourceVersionService resourceVersionService;
+  private final int maxBatchSize;
+  private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+  private final ReentrantLock flushLock = new ReentrantLock();
 
-  public ViewCounterService(JdbcTemplate jdbcTemplate) {
+  public ViewCounterService(
+      JdbcTemplate jdbcTemplate,
+      ResourceVersionService resourceVersionService,
+      AppProperties appProperties
+  ) {
     this.jdbcTemplate = jdbcTemplate;
+    this.resourceVersionService = resourceVersionService;
+    this.maxBatchSize = Math.max(1, appProperties.getViews().getMaxBatchSize());
+  }
+
+  /**
+   * Records a view in the local accumulator and returns the estimated count: the persisted value the
+   * caller already loaded plus every view this node has not yet seen committed, including the ones a flush
+   * is writing right now. Unflushed views are lost on a hard crash, so the loss window is bounded by
+   * {@code app.views.flush-interval-ms}.
+   */
+  public int increment(long videoId, int persistedViewCount) {
+    Counter counter = counters.computeIfAbsent(videoId, id -> new Counter());
+    counter.pending.increment();
+    counter.unpersisted.increment();
+    if (counter.retired) {
+      // The flush detached this counter as idle; carry the view, and any other late one, to the live one.
+      counter = moveLateViews(videoId, counter);
+    }
+    return (int) Math.min(Integer.MAX_VALUE, persistedViewCount + counter.unpersisted.sum());
+  }
+
+  public long pendingViews(long videoId) {
+    Counter counter = counters.get(videoId);
+    return counter == null ? 0 : counter.unpersisted.sum();
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.views.flush-interval-ms:5000}",
+      initialDelayString = "${app.views.flush-interval-ms:5000}"
+  )
+  public void scheduledFlush() {
+    flush();
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    flush();
+  }
+
+  public int flush() {
+    flushLock.lock();
+    try {
+      List<Drained> drained = drain();
+      int flushed = 0;
+      for (int from = 0; from < drained.size(); from += maxBatchSize) {
+        List<Drained> batch = drained.subList(from, Math.min(drained.size(), from + maxBatchSize));
+        if (writeBatch(batch)) {
+          flushed += batch.size();
+        }
+      }
+      if (flushed > 0) {
+        // Video lists embed view counts, so their ETags must move with every flush.
+        resourceVersionService.bump(ResourceVersionService.videos());
+      }
+      return flushed;
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private List<Drained> drain() {
+    List<Drained> drained = new ArrayList<>();
+    for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+      Counter counter = entry.getValue();
+      long delta = counter.pending.sumThenReset();
+      if (delta != 0) {
+        drained.add(new Drained(entry.getKey(), counter, delta));
+      } else if (counter.unpersisted.sum() == 0) {
+        retire(entry.getKey(), counter);
+      }
+    }
+
+    // Stable id order keeps row locks acquired in the same order across backend nodes.
+    drained.sort(Comparator.comparingLong(Drained::videoId));
+    return drained;
+  }
+
+  /**
+   * Detaches a counter that has been idle since the last flush. A view can still land on it after the
+   * check; whichever of this thread and that view's thread resets the counter afterwards moves the view to
+   * the live counter, and {@code sumThenReset} hands each view to exactly one of them.
+   */
+  private void retire(long videoId, Counter counter) {
+    counter.retired = true;
+    if (counters.remove(videoId, counter)) {
+      moveLateViews(videoId, counter);
+    }
+  }
+
+  private Counter moveLateViews(long videoId, Counter retired) {
+    Counter live = counters.computeIfAbsent(videoId, id -> new Counter());
+    if (live == retired) {
+      // Not removed yet; the flush moves everything on it once it is.
+      return live;
+    }
+    long pending = retired.pending.sumThenReset();
+    long unpersisted = retired.unpersisted.sumThenReset();
+    live.pending.add(pending);
+    live.unpersisted.add(unpersisted);
+    return live;
+  }
+
+  private boolean writeBatch(List<Drained> batch) {
+    long[] ids = new long[batch.size()];
+    long[] deltas = new long[batch.size()];
+    for (int i = 0; i < batch.size(); i++) {
+      ids[i] = batch.get(i).videoId();
+      deltas[i] = batch.get(i).delta();
+    }
+
+    try {
+      jdbcTemplate.update(FLUSH_SQL, ids, deltas);
+    } catch (Exception ex) {
+      log.warn("View count flush failed for {} videos, retrying on next flush", batch.size(), ex);
+      for (Drained entry : batch) {
+        entry.counter().pending.add(entry.delta());
+      }
+      return false;
+    }
+
+    // Only now are the views part of the persisted count readers load.
+    for (Drained entry : batch) {
+      entry.counter().unpersisted.add(-entry.delta());
+    }
+    return true;
   }
 
-  public int increment(long videoId) {
-    Integer result = jdbcTemplate.queryForObject(
-        "UPDATE videos SET view_count = view_count + 1 WHERE id = ? RETURNING view_count",
-        Integer.class,
-        videoId
-    );
+  private record Drained(long videoId, Counter counter, long delta) {}
 
-    return result == null ? 0 : result;
+  /**
+   * Views of one video: {@code pending} is what the next flush writes, {@code unpersisted} also keeps the
+   * views a flush has taken until their UPDATE has committed.
+   */
+  private static final class Counter {
+    private final LongAdder pending = new LongAdder();
+    private final LongAdder unpersisted = new LongAdder();
+    private volatile boolean retired;
   }
 }
@@ -0,0 +1,180 @@
+package com.jutjubic.backend.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.jutjubic.backend.dto.WatchPartyMemberResponse;
+import com.jutjubic.backend.dto.WatchPartyResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Watch-party rooms as served by the API, kept in one Redis hash per room: the {@code party} field holds
+ * the room without its members and each member has a field of its own. A join is then a single HSET instead
+ * of a read-modify-write of the whole room, and concurrent joins on different nodes cannot overwrite each
+ * other. A hash without the {@code party} field is incomplete and counts as a miss.
+ *
+ * <p>Closing sets a {@code closed} field whether or not the room is cached. A reader that loaded the room
+ * before the close committed can still write its active snapshot afterwards, but the field outlives that
+ * write, so the room is served as closed.
+ */
+@Service
+public class WatchPartyRoomCache {
+  private static final Logger log = LoggerFactory.getLogger(WatchPartyRoomCache.class);
+  private static final String KEY_PREFIX = "watch-party:view:";
+  private static final String PARTY_FIELD = "party";
+  private static final String MEMBER_FIELD_PREFIX = "member:";
+  private static final String CLOSED_FIELD = "closed";
+  private static final Duration TTL = Duration.ofMinutes(10);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final ObjectMapper objectMapper;
+  private final ObjectReader partyReader;
+  private final ObjectReader memberReader;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public WatchPartyRoomCache(StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper) {
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.objectMapper = objectMapper;
+    // Timestamps keep the offset they were written with, so a cached room serializes like a fresh one.
+    this.partyReader = objectMapper.readerFor(WatchPartyResponse.class)
+        .without(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE);
+    this.memberReader = objectMapper.readerFor(WatchPartyMemberResponse.class)
+        .without(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE);
+  }
+
+  /**
+   * Returns the room with its members ordered by id, or {@code null} on a miss.
+   */
+  public WatchPartyResponse get(String roomCode) {
+    try {
+      Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(KEY_PREFIX + roomCode);
+      Object party = fields.get(PARTY_FIELD);
+      if (party == null) {
+        misses.increment();
+        return null;
+      }
+
+      List<WatchPartyMemberResponse> members = new ArrayList<>(fields.size() - 1);
+      for (Map.Entry<Object, Object> field : fields.entrySet()) {
+        if (field.getKey().toString().startsWith(MEMBER_FIELD_PREFIX)) {
+          members.add(memberReader.readValue(field.getValue().toString()));
+        }
+      }
+      hits.increment();
+      WatchPartyResponse room = withMembers(partyReader.readValue(party.toString()), members);
+      return fields.containsKey(CLOSED_FIELD) ? room.closed() : room;
+    } catch (Exception ex) {
+      log.warn("Failed to read cached watch party {}", roomCode, ex);
+      misses.increment();
+      return null;
+    }
+  }
+
+  /**
+   * Caches a room loaded from the database. Inside a transaction the write waits for the commit.
+   */
+  public void put(String roomCode, WatchPartyResponse room) {
+    afterCommit(() -> {
+      Map<String, String> fields = new HashMap<>();
+      fields.put(PARTY_FIELD, write(room.withMembers(List.of())));
+      for (WatchPartyMemberResponse member : room.members()) {
+        fields.put(memberField(member), write(member));
+      }
+      stringRedisTemplate.opsForHash().putAll(KEY_PREFIX + roomCode, fields);
+      stringRedisTemplate.expire(KEY_PREFIX + roomCode, TTL);
+    });
+  }
+
+  /**
+   * Adds a member who has just joined and returns the room with them in it.
+   */
+  public WatchPartyResponse addMember(String roomCode, WatchPartyResponse room, WatchPartyMemberResponse member) {
+    afterCommit(() -> {
+      stringRedisTemplate.opsForHash().put(KEY_PREFIX + roomCode, memberField(member), write(member));
+      // Also bounds the lifetime of a partial hash, created when the room itself was not cached.
+      stringRedisTemplate.expire(KEY_PREFIX + roomCode, TTL);
+    });
+
+    List<WatchPartyMemberResponse> members = new ArrayList<>(room.members());
+    members.add(member);
+    return withMembers(room, members);
+  }
+
+  /**
+   * Marks the room closed, so polls of a closed party are answered without the database.
+   */
+  public void markClosed(String roomCode) {
+    afterCommit(() -> {
+      stringRedisTemplate.opsForHash().put(KEY_PREFIX + roomCode, CLOSED_FIELD, "1");
+      stringRedisTemplate.expire(KEY_PREFIX + roomCode, TTL);
+    });
+  }
+
+  public Map<String, Object> stats() {
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("hits", hitCount);
+    body.put("misses", missCount);
+    body.put("hitRatio", hitCount + missCount == 0 ? 1.0 : (double) hitCount / (hitCount + missCount));
+    return body;
+  }
+
+  private WatchPartyResponse withMembers(WatchPartyResponse room, List<WatchPartyMemberResponse> members) {
+    List<WatchPartyMemberResponse> sorted = new ArrayList<>(members);
+    sorted.sort(Comparator.comparingLong(WatchPartyMemberResponse::id));
+    return room.withMembers(sorted);
+  }
+
+  private String memberField(WatchPartyMemberResponse member) {
+    return MEMBER_FIELD_PREFIX + member.user().id();
+  }
+
+  private String write(Object value) {
+    try {
+      return objectMapper.writeValueAsString(value);
+    } catch (Exception ex) {
+      throw new IllegalStateException("Failed to serialize watch party", ex);
+    }
+  }
+
+  private void afterCommit(RedisWrite write) {
+    Runnable guarded = () -> {
+      try {
+        write.run();
+      } catch (Exception ex) {
+        log.warn("Failed to update cached watch party", ex);
+      }
+    };
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          guarded.run();
+        }
+      });
+      return;
+    }
+    guarded.run();
+  }
+
+  @FunctionalInterface
+  private interface RedisWrite {
+    void run() throws Exception;
+  }
+}
@@ -1,5 +1,7 @@
 package com.jutjubic.backend.service;
 
+import com.jutjubic.backend.dto.WatchPartyMemberResponse;
+import com.jutjubic.backend.dto.WatchPartyResponse;
 import com.jutjubic.backend.entity.User;
 import com.jutjubic.backend.entity.WatchParty;
 import com.jutjubic.backend.entity.WatchPartyMember;
@@ -9,30 +11,58 @@ import com.jutjubic.backend.repository.WatchPartyMemberRepository;
 import com.jutjubic.backend.repository.WatchPartyRepository;
 import com.jutjubic.backend.util.ResponseMapper;
 import java.security.SecureRandom;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class WatchPartyService {
+  /**
+   * Joins in one round trip: a repeated join hits the unique constraint and a closed party matches no row,
+   * both return nothing; a new member comes back together with the username the response needs. The
+   * party's own {@code is_active} is checked here because the cached room may not have seen the close yet.
+   */
+  static final String JOIN_SQL = """
+      WITH inserted AS (
+        INSERT INTO watch_party_members (user_id, watch_party_id)
+        SELECT ?, wp.id
+        FROM watch_parties wp
+        WHERE wp.id = ? AND wp.is_active
+        ON CONFLICT ON CONSTRAINT uq_watch_party_member DO NOTHING
+        RETURNING id, joined_at, user_id
+      )
+      SELECT i.id, i.joined_at, u.username
+      FROM inserted i
+      JOIN users u ON u.id = i.user_id
+      """;
+
   private final WatchPartyRepository watchPartyRepository;
   private final WatchPartyMemberRepository watchPartyMemberRepository;
   private final UserRepository userRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final WatchPartyRoomCache roomCache;
   private final SecureRandom random = new SecureRandom();
 
   public WatchPartyService(
       WatchPartyRepository watchPartyRepository,
       WatchPartyMemberRepository watchPartyMemberRepository,
-      UserRepository userRepository
+      UserRepository userRepository,
+      JdbcTemplate jdbcTemplate,
+      WatchPartyRoomCache roomCache
   ) {
     this.watchPartyRepository = watchPartyRepository;
     this.watchPartyMemberRepository = watchPartyMemberRepository;
     this.userRepository = userRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.roomCache = roomCache;
   }
 
   @Transactional
-  public Map<String, Object> create(long userId) {
+  public WatchPartyResponse create(long userId) {
     User creator = userRepository.findById(userId)
         .orElseThrow(() -> new ApiException(404, "User not found"));
 
@@ -48,43 +78,47 @@ public class WatchPartyService {
     member.setWatchParty(savedParty);
     watchPartyMemberRepository.save(member);
 
-    return buildPartyResponse(savedParty.getRoomCode());
+    WatchPartyResponse room = ResponseMapper.mapWatchParty(savedParty, List.of(member));
+    roomCache.put(savedParty.getRoomCode(), room);
+    return room;
   }
 
-  @Transactional(readOnly = true)
-  public Map<String, Object> getRoom(String roomCode) {
-    WatchParty party = watchPartyRepository.findWithCreatorByRoomCode(roomCode)
-        .orElseThrow(() -> new ApiException(404, "Watch party not found or inactive"));
-
-    if (!party.isActive()) {
-      throw new ApiException(404, "Watch party not found or inactive");
-    }
-
-    List<WatchPartyMember> members = watchPartyMemberRepository.findByWatchPartyId(party.getId());
-    return ResponseMapper.mapWatchParty(party, members);
+  public WatchPartyResponse getRoom(String roomCode) {
+    return loadActiveRoom(roomCode);
   }
 
-  @Transactional
-  public Map<String, Object> join(String roomCode, long userId) {
-    WatchParty party = watchPartyRepository.findWithCreatorByRoomCode(roomCode)
-        .orElseThrow(() -> new ApiException(404, "Watch party not found or inactive"));
-
-    if (!party.isActive()) {
-      throw new ApiException(404, "Watch party not found or inactive");
+  /**
+   * Joining a room the user is already in is answered from the cached room alone; a new member costs one
+   * insert and is added to the cached room instead of reloading it.
+   */
+  public WatchPartyResponse join(String roomCode, long userId) {
+    WatchPartyResponse room = loadActiveRoom(roomCode);
+    if (hasMember(room, userId)) {
+      return room;
     }
 
-    WatchPartyMember existing = watchPartyMemberRepository.findByUserIdAndWatchPartyId(userId, party.getId()).orElse(null);
-    if (existing == null) {
-      User user = userRepository.findById(userId)
-          .orElseThrow(() -> new ApiException(404, "User not found"));
-
-      WatchPartyMember member = new WatchPartyMember();
-      member.setUser(user);
-      member.setWatchParty(party);
-      watchPartyMemberRepository.save(member);
+    List<WatchPartyMemberResponse> inserted;
+    try {
+      inserted = jdbcTemplate.query(JOIN_SQL, (rs, rowNum) -> ResponseMapper.mapWatchPartyMember(
+          rs.getLong("id"),
+          rs.getObject("joined_at", OffsetDateTime.class),
+          userId,
+          rs.getString("username")
+      ), userId, room.id());
+    } catch (DataIntegrityViolationException ex) {
+      throw new ApiException(404, "User not found");
     }
 
-    return buildPartyResponse(roomCode);
+    if (inserted.isEmpty()) {
+      // Already a member or closed in the meantime, and the cached room missed it: refresh from the database.
+      WatchPartyResponse fresh = loadRoomFromDatabase(roomCode);
+      roomCache.put(roomCode, fresh);
+      if (!fresh.isActive()) {
+        throw new ApiException(404, "Watch party not found or inactive");
+      }
+      return fresh;
+    }
+    return roomCache.addMember(roomCode, room, inserted.get(0));
   }
 
   @Transactional
@@ -98,15 +132,33 @@ public class WatchPartyService {
 
     party.setActive(false);
     watchPartyRepository.save(party);
+    roomCache.markClosed(roomCode);
 
     return Map.of("message", "Watch party closed");
   }
 
-  private Map<String, Object> buildPartyResponse(String roomCode) {
-    WatchParty updatedParty = watchPartyRepository.findWithCreatorByRoomCode(roomCode)
+  private WatchPartyResponse loadActiveRoom(String roomCode) {
+    WatchPartyResponse room = roomCache.get(roomCode);
+    if (room == null) {
+      room = loadRoomFromDatabase(roomCode);
+      roomCache.put(roomCode, room);
+    }
+
+    if (!room.isActive()) {
+      throw new ApiException(404, "Watch party not found or inactive");
+    }
+    return room;
+  }
+
+  private WatchPartyResponse loadRoomFromDatabase(String roomCode) {
+    WatchParty party = watchPartyRepository.findWithCreatorByRoomCode(roomCode)
         .orElseThrow(() -> new ApiException(404, "Watch party not found or inactive"));
-    List<WatchPartyMember> members = watchPartyMemberRepository.findByWatchPartyId(updatedParty.getId());
-    return ResponseMapper.mapWatchParty(updatedParty, members);
+    List<WatchPartyMember> members = watchPartyMemberRepository.findByWatchPartyId(party.getId());
+    return ResponseMapper.mapWatchParty(party, members);
+  }
+
+  private boolean hasMember(WatchPartyResponse room, long userId) {
+    return room.members().stream().anyMatch(member -> member.user().id() == userId);
   }
 
   private String generateUniqueRoomCode() {
@@ -0,0 +1,214 @@
+package com.jutjubic.backend.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.http.ContentDisposition;
+
+/**
+ * Incremental multipart/form-data reader. Only one buffer of the request body is held in memory at a
+ * time, so part bodies can be copied to their destination while the client is still sending them.
+ */
+public class MultipartStreamReader {
+  private static final byte[] HEADER_TERMINATOR = {'\r', '\n', '\r', '\n'};
+  private static final int MIN_BUFFER_SIZE = 8 * 1024;
+
+  private final InputStream in;
+  private final byte[] delimiter;
+  private final byte[] buf;
+  private int head;
+  private int tail;
+  private boolean started;
+  private boolean partOpen;
+  private boolean finished;
+
+  public MultipartStreamReader(InputStream in, String boundary, int bufferSize) {
+    this.in = in;
+    this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.US_ASCII);
+    this.buf = new byte[Math.max(MIN_BUFFER_SIZE, bufferSize)];
+    // The first boundary has no leading CRLF; seeding one lets every boundary use the same delimiter.
+    this.buf[0] = '\r';
+    this.buf[1] = '\n';
+    this.tail = 2;
+  }
+
+  public PartHeader nextPart() throws IOException {
+    if (finished) {
+      return null;
+    }
+
+    if (partOpen) {
+      skipBody();
+    }
+    if (!started) {
+      skipPreamble();
+      started = true;
+    }
+
+    ensureAvailable(2);
+    if (buf[head] == '-' && buf[head + 1] == '-') {
+      finished = true;
+      return null;
+    }
+    if (buf[head] != '\r' || buf[head + 1] != '\n') {
+      throw new MalformedMultipartException("Malformed multipart boundary");
+    }
+    head += 2;
+
+    PartHeader header = readHeaders();
+    partOpen = true;
+    return header;
+  }
+
+  /**
+   * Copies up to {@code len} bytes of the current part body into {@code dst}. Returns -1 once the part's
+   * closing boundary has been reached.
+   */
+  public int readBody(byte[] dst, int off, int len) throws IOException {
+    if (!partOpen) {
+      return -1;
+    }
+
+    while (true) {
+      int idx = indexOf(delimiter, head, tail);
+      if (idx == head) {
+        head += delimiter.length;
+        partOpen = false;
+        return -1;
+      }
+
+      int available = idx > head ? idx - head : tail - head - (delimiter.length - 1);
+      if (available > 0) {
+        int count = Math.min(available, len);
+        System.arraycopy(buf, head, dst, off, count);
+        head += count;
+        return count;
+      }
+
+      if (!fill()) {
+        throw new MalformedMultipartException("Unexpected end of multipart body");
+      }
+    }
+  }
+
+  private void skipBody() throws IOException {
+    byte[] scratch = new byte[4096];
+    while (readBody(scratch, 0, scratch.length) != -1) {
+      // Discard the rest of a part the caller did not consume.
+    }
+  }
+
+  private void skipPreamble() throws IOException {
+    while (true) {
+      int idx = indexOf(delimiter, head, tail);
+      if (idx >= 0) {
+        head = idx + delimiter.length;
+        return;
+      }
+
+      head = Math.max(head, tail - (delimiter.length - 1));
+      if (!fill()) {
+        throw new MalformedMultipartException("Multipart boundary not found");
+      }
+    }
+  }
+
+  private PartHeader readHeaders() throws IOException {
+    ensureAvailable(2);
+    if (buf[head] == '\r' && buf[head + 1] == '\n') {
+      throw new MalformedMultipartException("Multipart part is missing Content-Disposition");
+    }
+
+    int end;
+    while ((end = indexOf(HEADER_TERMINATOR, head, tail)) < 0) {
+      if (head == 0 && tail == buf.length) {
+        throw new MalformedMultipartException("Multipart part headers too large");
+      }
+      if (!fill()) {
+        throw new MalformedMultipartException("Unexpected end of multipart headers");
+      }
+    }
+
+    String block = new String(buf, head, end - head, StandardCharsets.UTF_8);
+    head = end + HEADER_TERMINATOR.length;
+
+    Map<String, String> headers = new LinkedHashMap<>();
+    for (String line : block.split("\r\n")) {
+      int colon = line.indexOf(':');
+      if (colon > 0) {
+        headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+      }
+    }
+
+    String disposition = headers.get("content-disposition");
+    if (disposition == null) {
+      throw new MalformedMultipartException("Multipart part is missing Content-Disposition");
+    }
+
+    ContentDisposition parsed;
+    try {
+      parsed = ContentDisposition.parse(disposition);
+    } catch (IllegalArgumentException ex) {
+      throw new MalformedMultipartException("Invalid Content-Disposition header");
+    }
+    return new PartHeader(parsed.getName(), parsed.getFilename(), headers.get("content-type"));
+  }
+
+  private void ensureAvailable(int count) throws IOException {
+    while (tail - head < count) {
+      if (!fill()) {
+        throw new MalformedMultipartException("Unexpected end of multipart body");
+      }
+    }
+  }
+
+  private boolean fill() throws IOException {
+    if (head > 0) {
+      System.arraycopy(buf, head, buf, 0, tail - head);
+      tail -= head;
+      head = 0;
+    }
+    if (tail == buf.length) {
+      return true;
+    }
+
+    int read = in.read(buf, tail, buf.length - tail);
+    if (read < 0) {
+      return false;
+    }
+    tail += read;
+    return true;
+  }
+
+  private int indexOf(byte[] pattern, int from, int to) {
+    int last = to - pattern.length;
+    outer:
+    for (int i = from; i <= last; i++) {
+      if (buf[i] != pattern[0]) {
+        continue;
+      }
+      for (int j = 1; j < pattern.length; j++) {
+        if (buf[i + j] != pattern[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+
+  public record PartHeader(String name, String filename, String contentType) {
+    public boolean isFile() {
+      return filename != null;
+    }
+  }
+
+  public static class MalformedMultipartException extends IOException {
+    public MalformedMultipartException(String message) {
+      super(message);
+    }
+  }
+}
@@ -0,0 +1,360 @@
+package com.jutjubic.backend.upload;
+
+import com.jutjubic.backend.config.AppProperties;
+import com.jutjubic.backend.dto.UploadStatusResponse;
+import com.jutjubic.backend.exception.ApiException;
+import com.jutjubic.backend.util.UploadValidator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ResumableUploadService {
+  private static final Logger log = LoggerFactory.getLogger(ResumableUploadService.class);
+  private static final int MAX_SESSIONS_PER_USER = 5;
+
+  private final Path tmpDir;
+  private final long maxVideoSize;
+  private final int chunkSize;
+  private final int bufferSize;
+  private final long sessionTtlMs;
+  private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+  public ResumableUploadService(AppProperties appProperties) {
+    this.tmpDir = Path.of(appProperties.getUploadDir()).toAbsolutePath().normalize().resolve("tmp");
+    this.maxVideoSize = appProperties.getUpload().getMaxVideoSize();
+    this.chunkSize = appProperties.getUpload().getChunkSize();
+    if (chunkSize <= 0) {
+      throw new IllegalStateException("app.upload.chunk-size must be positive");
+    }
+    this.bufferSize = appProperties.getUpload().getStreamBufferSize();
+    this.sessionTtlMs = appProperties.getUpload().getSessionTtlMs();
+  }
+
+  public UploadStatusResponse initiate(long userId, String filename, long size) {
+    UploadValidator.validateVideoFilename(filename);
+    if (size > maxVideoSize) {
+      throw new ApiException(400, "File too large: " + filename);
+    }
+
+    long activeForUser = sessions.values().stream().filter(s -> s.userId == userId).count();
+    if (activeForUser >= MAX_SESSIONS_PER_USER) {
+      throw new ApiException(429, "Too many active uploads");
+    }
+
+    String uploadId = UUID.randomUUID().toString();
+    Path path = tmpDir.resolve(uploadId + UploadValidator.getExtension(filename));
+    try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+      file.setLength(size);
+    } catch (IOException ex) {
+      deleteQuietly(path);
+      throw new ApiException(500, "Failed to allocate upload");
+    }
+
+    int totalChunks = (int) ((size + chunkSize - 1) / chunkSize);
+    UploadSession session = new UploadSession(uploadId, userId, filename, path, size, chunkSize, totalChunks);
+    sessions.put(uploadId, session);
+    return mapStatus(session);
+  }
+
+  public UploadStatusResponse writeChunk(String uploadId, long userId, int index, long contentLength, InputStream body) {
+    UploadSession session = getOwnedSession(uploadId, userId);
+    if (index < 0 || index >= session.totalChunks) {
+      throw new ApiException(400, "Chunk index out of range");
+    }
+
+    long offset = (long) index * session.chunkSize;
+    long expectedLength = Math.min(session.chunkSize, session.size - offset);
+    if (contentLength >= 0 && contentLength != expectedLength) {
+      throw new ApiException(400, "Chunk %d must be %d bytes".formatted(index, expectedLength));
+    }
+
+    session.lock.readLock().lock();
+    try {
+      if (session.closed || session.finalizing) {
+        throw new ApiException(409, "Upload is already finalized");
+      }
+
+      long written = writeAt(session.path, offset, expectedLength, body);
+      if (written != expectedLength) {
+        throw new ApiException(400, "Chunk %d must be %d bytes".formatted(index, expectedLength));
+      }
+
+      synchronized (session.received) {
+        session.received.set(index);
+      }
+      session.touch();
+    } finally {
+      session.lock.readLock().unlock();
+    }
+
+    return mapStatus(session);
+  }
+
+  public UploadStatusResponse getStatus(String uploadId, long userId) {
+    return mapStatus(getOwnedSession(uploadId, userId));
+  }
+
+  /**
+   * Hands the assembled file to the caller while the video is persisted. The session stays registered
+   * until {@link #finish} confirms the video was saved; {@link #reopen} gives the file back to the session
+   * if persisting failed, so the client can retry {@code complete} instead of uploading again.
+   */
+  public StagedFile complete(String uploadId, long userId) {
+    UploadSession session = getOwnedSession(uploadId, userId);
+    session.lock.writeLock().lock();
+    try {
+      if (session.closed) {
+        throw new ApiException(409, "Upload is already finalized");
+      }
+      if (session.finalizing) {
+        throw new ApiException(409, "Upload is being finalized");
+      }
+
+      int receivedCount;
+      synchronized (session.received) {
+        receivedCount = session.received.cardinality();
+      }
+      if (receivedCount != session.totalChunks) {
+        throw new ApiException(409, "Upload is incomplete: %d of %d chunks received"
+            .formatted(receivedCount, session.totalChunks));
+      }
+
+      session.finalizing = true;
+      session.touch();
+      return new StagedFile(session.path, session.filename, session.size, null);
+    } finally {
+      session.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Drops a session whose file now belongs to a saved video.
+   */
+  public void finish(String uploadId) {
+    UploadSession session = sessions.remove(uploadId);
+    if (session != null) {
+      session.closed = true;
+    }
+  }
+
+  /**
+   * Returns a session to the uploaded state after persisting its file failed.
+   */
+  public void reopen(String uploadId) {
+    UploadSession session = sessions.get(uploadId);
+    if (session == null) {
+      return;
+    }
+    session.lock.writeLock().lock();
+    try {
+      if (!Files.exists(session.path)) {
+        // Nothing left to retry with.
+        session.closed = true;
+        sessions.remove(uploadId);
+        return;
+      }
+      session.finalizing = false;
+      session.touch();
+    } finally {
+      session.lock.writeLock().unlock();
+    }
+  }
+
+  public void abort(String uploadId, long userId) {
+    UploadSession session = getOwnedSession(uploadId, userId);
+    if (session.finalizing) {
+      throw new ApiException(409, "Upload is being finalized");
+    }
+    expire(session);
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.upload.janitor-interval-ms:300000}",
+      initialDelayString = "${app.upload.janitor-interval-ms:300000}"
+  )
+  public void reclaimAbandoned() {
+    long cutoff = System.currentTimeMillis() - sessionTtlMs;
+    int expired = 0;
+    for (UploadSession session : sessions.values()) {
+      // A session whose lock is busy is receiving a chunk right now, so it is not abandoned.
+      if (session.lastActivityAt < cutoff && !session.finalizing && session.lock.writeLock().tryLock()) {
+        try {
+          expire(session);
+          expired++;
+        } finally {
+          session.lock.writeLock().unlock();
+        }
+      }
+    }
+
+    // Anything left in tmp past the TTL belongs to no live request or session (e.g. from before a restart).
+    int orphans = 0;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(tmpDir)) {
+      for (Path file : files) {
+        if (Files.isRegularFile(file)
+            && !file.getFileName().toString().startsWith(".")
+            && Files.getLastModifiedTime(file).toMillis() < cutoff
+            && !isSessionFile(file)
+            && Files.deleteIfExists(file)) {
+          orphans++;
+        }
+      }
+    } catch (IOException ex) {
+      log.warn("Failed to sweep upload tmp directory {}", tmpDir, ex);
+    }
+
+    if (expired > 0 || orphans > 0) {
+      log.info("Upload janitor reclaimed {} abandoned sessions and {} orphaned tmp files", expired, orphans);
+    }
+  }
+
+  private void expire(UploadSession session) {
+    session.lock.writeLock().lock();
+    try {
+      // A finalizing session's file is being persisted; finish or reopen decides what happens to it.
+      if (session.closed || session.finalizing) {
+        return;
+      }
+      session.closed = true;
+      sessions.remove(session.id);
+      deleteQuietly(session.path);
+    } finally {
+      session.lock.writeLock().unlock();
+    }
+  }
+
+  private long writeAt(Path path, long offset, long expectedLength, InputStream body) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+    byte[] chunk = new byte[bufferSize];
+    long written = 0;
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      int read;
+      while ((read = body.read(chunk)) != -1) {
+        if (written + read > expectedLength) {
+          return written + read;
+        }
+
+        buffer.clear();
+        buffer.put(chunk, 0, read).flip();
+        while (buffer.hasRemaining()) {
+          written += channel.write(buffer, offset + written);
+        }
+      }
+      return written;
+    } catch (IOException ex) {
+      throw new ApiException(400, "Failed to read chunk");
+    }
+  }
+
+  private UploadSession getOwnedSession(String uploadId, long userId) {
+    UploadSession session = sessions.get(uploadId);
+    if (session == null || session.userId != userId) {
+      throw new ApiException(404, "Upload not found");
+    }
+    return session;
+  }
+
+  private boolean isSessionFile(Path file) {
+    for (UploadSession session : sessions.values()) {
+      if (session.path.equals(file)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private UploadStatusResponse mapStatus(UploadSession session) {
+    List<Integer> received = new ArrayList<>();
+    List<Integer> missing = new ArrayList<>();
+    synchronized (session.received) {
+      for (int i = 0; i < session.totalChunks; i++) {
+        (session.received.get(i) ? received : missing).add(i);
+      }
+    }
+
+    long receivedBytes = 0;
+    for (int index : received) {
+      receivedBytes += Math.min(session.chunkSize, session.size - (long) index * session.chunkSize);
+    }
+
+    return new UploadStatusResponse(
+        session.id,
+        session.filename,
+        session.size,
+        session.chunkSize,
+        session.totalChunks,
+        received,
+        missing,
+        receivedBytes,
+        missing.isEmpty(),
+        Instant.ofEpochMilli(session.lastActivityAt + sessionTtlMs)
+    );
+  }
+
+  private void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException ignored) {
+      // Best-effort cleanup.
+    }
+  }
+
+  private static final class UploadSession {
+    private final String id;
+    private final long userId;
+    private final String filename;
+    private final Path path;
+    private final long size;
+    private final int chunkSize;
+    private final int totalChunks;
+    private final BitSet received;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long lastActivityAt = System.currentTimeMillis();
+    private volatile boolean closed;
+    private volatile boolean finalizing;
+
+    private UploadSession(
+        String id,
+        long userId,
+        String filename,
+        Path path,
+        long size,
+        int chunkSize,
+        int totalChunks
+    ) {
+      this.id = id;
+      this.userId = userId;
+      this.filename = filename;
+      this.path = path;
+      this.size = size;
+      this.chunkSize = chunkSize;
+      this.totalChunks = totalChunks;
+      this.received = new BitSet(totalChunks);
+    }
+
+    private void touch() {
+      lastActivityAt = System.currentTimeMillis();
+    }
+  }
+}
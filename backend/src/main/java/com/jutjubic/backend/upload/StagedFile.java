@@ -0,0 +1,5 @@
+package com.jutjubic.backend.upload;
+
+import java.nio.file.Path;
+
+public record StagedFile(Path path, String originalFilename, long size, String sha256) {}
@@ -0,0 +1,185 @@
+package com.jutjubic.backend.upload;
+
+import com.jutjubic.backend.config.AppProperties;
+import com.jutjubic.backend.exception.ApiException;
+import com.jutjubic.backend.util.UploadValidator;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+@Service
+public class StreamingUploadService {
+  private static final int MAX_FIELD_BYTES = 64 * 1024;
+  private static final long FORM_OVERHEAD_BYTES = 1024 * 1024;
+
+  private final Path tmpDir;
+  private final long maxVideoSize;
+  private final long maxThumbnailSize;
+  private final int bufferSize;
+
+  public StreamingUploadService(AppProperties appProperties) {
+    this.tmpDir = Path.of(appProperties.getUploadDir()).toAbsolutePath().normalize().resolve("tmp");
+    this.maxVideoSize = appProperties.getUpload().getMaxVideoSize();
+    this.maxThumbnailSize = appProperties.getUpload().getMaxThumbnailSize();
+    this.bufferSize = appProperties.getUpload().getStreamBufferSize();
+  }
+
+  /**
+   * Parses a multipart/form-data upload straight off the request stream. File parts are validated from
+   * their headers before any bytes are written and then copied into {@code uploads/tmp} while their size
+   * and SHA-256 are computed.
+   */
+  public StreamedUpload receive(HttpServletRequest request) {
+    String boundary = extractBoundary(request.getContentType());
+    long contentLength = request.getContentLengthLong();
+    if (contentLength > maxVideoSize + maxThumbnailSize + FORM_OVERHEAD_BYTES) {
+      throw new ApiException(400, "Upload exceeds maximum allowed size");
+    }
+
+    Map<String, String> fields = new LinkedHashMap<>();
+    StagedFile video = null;
+    StagedFile thumbnail = null;
+    byte[] chunk = new byte[bufferSize];
+    ByteBuffer direct = ByteBuffer.allocateDirect(bufferSize);
+
+    try {
+      MultipartStreamReader reader = new MultipartStreamReader(request.getInputStream(), boundary, bufferSize);
+      MultipartStreamReader.PartHeader part;
+      while ((part = reader.nextPart()) != null) {
+        if ("video".equals(part.name()) && part.isFile()) {
+          if (video != null) {
+            throw new ApiException(400, "Only one video file is allowed");
+          }
+          UploadValidator.validateVideoFilename(part.filename());
+          video = stage(reader, part, maxVideoSize, chunk, direct);
+        } else if ("thumbnail".equals(part.name()) && part.isFile()) {
+          if (thumbnail != null) {
+            throw new ApiException(400, "Only one thumbnail file is allowed");
+          }
+          UploadValidator.validateThumbnailFilename(part.filename());
+          thumbnail = stage(reader, part, maxThumbnailSize, chunk, direct);
+        } else if (!part.isFile() && part.name() != null) {
+          fields.put(part.name(), readField(reader, chunk));
+        }
+      }
+    } catch (MultipartStreamReader.MalformedMultipartException ex) {
+      discard(video, thumbnail);
+      throw new ApiException(400, ex.getMessage());
+    } catch (IOException ex) {
+      discard(video, thumbnail);
+      throw new ApiException(400, "Failed to read upload stream");
+    } catch (RuntimeException ex) {
+      discard(video, thumbnail);
+      throw ex;
+    }
+
+    if (video == null || video.size() == 0 || thumbnail == null || thumbnail.size() == 0) {
+      discard(video, thumbnail);
+      throw new ApiException(400, "Video and thumbnail files are required");
+    }
+
+    return new StreamedUpload(fields, video, thumbnail);
+  }
+
+  public void discard(StagedFile... files) {
+    for (StagedFile file : files) {
+      if (file != null) {
+        deleteQuietly(file.path());
+      }
+    }
+  }
+
+  private StagedFile stage(
+      MultipartStreamReader reader,
+      MultipartStreamReader.PartHeader part,
+      long maxSize,
+      byte[] chunk,
+      ByteBuffer direct
+  ) throws IOException {
+    Path target = tmpDir.resolve(UUID.randomUUID() + UploadValidator.getExtension(part.filename()));
+    MessageDigest digest = sha256();
+    long size = 0;
+
+    try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      int read;
+      while ((read = reader.readBody(chunk, 0, chunk.length)) != -1) {
+        size += read;
+        if (size > maxSize) {
+          throw new ApiException(400, "File too large: " + part.filename());
+        }
+
+        digest.update(chunk, 0, read);
+        direct.clear();
+        direct.put(chunk, 0, read).flip();
+        while (direct.hasRemaining()) {
+          channel.write(direct);
+        }
+      }
+    } catch (IOException | RuntimeException ex) {
+      deleteQuietly(target);
+      throw ex;
+    }
+
+    return new StagedFile(target, part.filename(), size, HexFormat.of().formatHex(digest.digest()));
+  }
+
+  private String readField(MultipartStreamReader reader, byte[] chunk) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    int read;
+    while ((read = reader.readBody(chunk, 0, chunk.length)) != -1) {
+      if (out.size() + read > MAX_FIELD_BYTES) {
+        throw new ApiException(400, "Form field too large");
+      }
+      out.write(chunk, 0, read);
+    }
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  private String extractBoundary(String contentType) {
+    try {
+      MediaType mediaType = contentType == null ? null : MediaType.parseMediaType(contentType);
+      String boundary = mediaType == null ? null : mediaType.getParameter("boundary");
+      if (mediaType == null || !MediaType.MULTIPART_FORM_DATA.includes(mediaType) || boundary == null) {
+        throw new ApiException(400, "Expected multipart/form-data upload");
+      }
+      return boundary.startsWith("\"") && boundary.endsWith("\"") && boundary.length() > 1
+          ? boundary.substring(1, boundary.length() - 1)
+          : boundary;
+    } catch (InvalidMediaTypeException ex) {
+      throw new ApiException(400, "Expected multipart/form-data upload");
+    }
+  }
+
+  private MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 not available", ex);
+    }
+  }
+
+  private void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException ignored) {
+      // Best-effort cleanup.
+    }
+  }
+
+  public record StreamedUpload(Map<String, String> fields, StagedFile video, StagedFile thumbnail) {}
+}
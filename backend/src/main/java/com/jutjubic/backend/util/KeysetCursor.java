@@ -0,0 +1,43 @@
+package com.jutjubic.backend.util;
+
+import com.jutjubic.backend.exception.ApiException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in a list ordered by {@code created_at DESC, id DESC}: the sort key of the last row a client has
+ * seen, written as {@code <createdAt>,<id>} with the timestamp in ISO-8601 UTC.
+ */
+public record KeysetCursor(OffsetDateTime createdAt, long id) {
+  public static KeysetCursor of(OffsetDateTime createdAt, long id) {
+    return new KeysetCursor(createdAt.withOffsetSameInstant(ZoneOffset.UTC), id);
+  }
+
+  /**
+   * Parses a cursor from a request. A blank value asks for the first page.
+   */
+  public static KeysetCursor parse(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+
+    int comma = value.lastIndexOf(',');
+    if (comma <= 0) {
+      throw new ApiException(400, "Invalid cursor");
+    }
+    try {
+      Instant createdAt = Instant.parse(value.substring(0, comma).trim());
+      long id = Long.parseLong(value.substring(comma + 1).trim());
+      return new KeysetCursor(createdAt.atOffset(ZoneOffset.UTC), id);
+    } catch (DateTimeParseException | NumberFormatException ex) {
+      throw new ApiException(400, "Invalid cursor");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return createdAt.toInstant() + "," + id;
+  }
+}
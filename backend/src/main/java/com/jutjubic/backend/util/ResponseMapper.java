@@ -1,24 +1,73 @@
 package com.jutjubic.backend.util;
 
+import com.jutjubic.backend.dto.CommentCursorPageResponse;
+import com.jutjubic.backend.dto.CommentResponse;
+import com.jutjubic.backend.dto.CursorInfo;
+import com.jutjubic.backend.dto.UserSummary;
+import com.jutjubic.backend.dto.VideoCursorPageResponse;
+import com.jutjubic.backend.dto.VideoListItem;
+import com.jutjubic.backend.dto.WatchPartyMemberResponse;
+import com.jutjubic.backend.dto.WatchPartyResponse;
 import com.jutjubic.backend.entity.Comment;
-import com.jutjubic.backend.entity.User;
 import com.jutjubic.backend.entity.Video;
 import com.jutjubic.backend.entity.WatchParty;
 import com.jutjubic.backend.entity.WatchPartyMember;
+import java.time.OffsetDateTime;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Builds response bodies. The hot list shapes are typed records, so Jackson serializes them from property
+ * writers resolved once per type instead of walking a fresh map tree per item; the rest stay maps.
+ */
 public final class ResponseMapper {
   private ResponseMapper() {}
 
-  public static Map<String, Object> mapVideoForList(Video video) {
-    Map<String, Object> body = mapVideoCommon(video);
-    body.put("user", Map.of(
-        "id", video.getUser().getId(),
-        "username", video.getUser().getUsername()
-    ));
-    return body;
+  public static VideoListItem mapVideoForList(Video video) {
+    return new VideoListItem(
+        video.getId(),
+        video.getTitle(),
+        video.getDescription(),
+        video.getTags(),
+        video.getThumbnailPath(),
+        video.getVideoPath(),
+        video.getViewCount(),
+        video.getLatitude(),
+        video.getLongitude(),
+        video.getCreatedAt(),
+        video.getUpdatedAt(),
+        new UserSummary(video.getUser().getId(), video.getUser().getUsername())
+    );
+  }
+
+  /**
+   * One page of a keyset-paginated video list. {@code rows} holds up to {@code limit + 1} videos; the extra
+   * one only tells that there is a next page and is not returned.
+   */
+  public static VideoCursorPageResponse mapVideoCursorPage(List<Video> rows, int limit) {
+    List<Video> videos = rows.size() > limit ? rows.subList(0, limit) : rows;
+    String nextCursor = rows.size() > limit
+        ? KeysetCursor.of(videos.get(limit - 1).getCreatedAt(), videos.get(limit - 1).getId()).toString()
+        : null;
+    return new VideoCursorPageResponse(
+        videos.stream().map(ResponseMapper::mapVideoForList).toList(),
+        new CursorInfo(limit, null, nextCursor)
+    );
+  }
+
+  /**
+   * Same as {@link #mapVideoCursorPage} for a comment thread, with the thread's stored comment count.
+   */
+  public static CommentCursorPageResponse mapCommentCursorPage(List<Comment> rows, int limit, long total) {
+    List<Comment> comments = rows.size() > limit ? rows.subList(0, limit) : rows;
+    String nextCursor = rows.size() > limit
+        ? KeysetCursor.of(comments.get(limit - 1).getCreatedAt(), comments.get(limit - 1).getId()).toString()
+        : null;
+    return new CommentCursorPageResponse(
+        comments.stream().map(ResponseMapper::mapComment).toList(),
+        new CursorInfo(limit, total, nextCursor)
+    );
   }
 
   public static Map<String, Object> mapVideoForDetail(Video video) {
@@ -32,51 +81,55 @@ public final class ResponseMapper {
     return body;
   }
 
-  public static Map<String, Object> mapComment(Comment comment) {
-    return Map.of(
-        "id", comment.getId(),
-        "text", comment.getText(),
-        "createdAt", comment.getCreatedAt(),
-        "user", Map.of(
-            "id", comment.getUser().getId(),
-            "username", comment.getUser().getUsername()
-        )
+  public static CommentResponse mapComment(Comment comment) {
+    return new CommentResponse(
+        comment.getId(),
+        comment.getText(),
+        comment.getCreatedAt(),
+        new UserSummary(comment.getUser().getId(), comment.getUser().getUsername())
     );
   }
 
-  public static Map<String, Object> mapWatchParty(WatchParty party, List<WatchPartyMember> members) {
-    Map<String, Object> body = new LinkedHashMap<>();
-    body.put("id", party.getId());
-    body.put("roomCode", party.getRoomCode());
-    body.put("isActive", party.isActive());
-    body.put("createdAt", party.getCreatedAt());
-    body.put("creator", Map.of(
-        "id", party.getCreator().getId(),
-        "username", party.getCreator().getUsername()
-    ));
-    body.put("members", members.stream().map(ResponseMapper::mapWatchPartyMember).toList());
-    body.put("currentVideoId", party.getCurrentVideoId());
-    return body;
+  public static WatchPartyResponse mapWatchParty(WatchParty party, List<WatchPartyMember> members) {
+    return new WatchPartyResponse(
+        party.getId(),
+        party.getRoomCode(),
+        party.isActive(),
+        party.getCreatedAt(),
+        new UserSummary(party.getCreator().getId(), party.getCreator().getUsername()),
+        members.stream().map(ResponseMapper::mapWatchPartyMember).toList(),
+        party.getCurrentVideoId()
+    );
   }
 
-  public static Map<String, Object> mapWatchPartyMember(WatchPartyMember member) {
-    return Map.of(
-        "id", member.getId(),
-        "joinedAt", member.getJoinedAt(),
-        "user", Map.of(
-            "id", member.getUser().getId(),
-            "username", member.getUser().getUsername()
-        )
+  public static WatchPartyMemberResponse mapWatchPartyMember(WatchPartyMember member) {
+    return mapWatchPartyMember(
+        member.getId(),
+        member.getJoinedAt(),
+        member.getUser().getId(),
+        member.getUser().getUsername()
     );
   }
 
-  public static Map<String, Object> mapPublicUser(User user, long videosCount, long commentsCount) {
+  public static WatchPartyMemberResponse mapWatchPartyMember(long id, OffsetDateTime joinedAt, long userId, String username) {
+    return new WatchPartyMemberResponse(id, joinedAt, new UserSummary(userId, username));
+  }
+
+  public static Map<String, Object> mapPublicUser(
+      long id,
+      String username,
+      String firstName,
+      String lastName,
+      OffsetDateTime createdAt,
+      long videosCount,
+      long commentsCount
+  ) {
     return Map.of(
-        "id", user.getId(),
-        "username", user.getUsername(),
-        "firstName", user.getFirstName(),
-        "lastName", user.getLastName(),
-        "createdAt", user.getCreatedAt(),
+        "id", id,
+        "username", username,
+        "firstName", firstName,
+        "lastName", lastName,
+        "createdAt", createdAt,
         "_count", Map.of(
             "videos", videosCount,
             "comments", commentsCount
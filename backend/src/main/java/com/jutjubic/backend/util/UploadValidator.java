@@ -0,0 +1,62 @@
+package com.jutjubic.backend.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jutjubic.backend.exception.ApiException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public final class UploadValidator {
+  private static final Set<String> VIDEO_EXTENSIONS = Set.of(".mp4", ".webm", ".avi", ".mov", ".mkv");
+  private static final Set<String> THUMB_EXTENSIONS = Set.of(".jpg", ".jpeg", ".png", ".webp");
+
+  private UploadValidator() {}
+
+  public static void validateVideoFilename(String filename) {
+    validateFileExtension(filename, VIDEO_EXTENSIONS, "Invalid video format. Allowed: mp4, webm, avi, mov, mkv");
+  }
+
+  public static void validateThumbnailFilename(String filename) {
+    validateFileExtension(filename, THUMB_EXTENSIONS, "Invalid image format. Allowed: jpg, jpeg, png, webp");
+  }
+
+  public static String getExtension(String originalName) {
+    if (originalName == null) {
+      return "";
+    }
+
+    int idx = originalName.lastIndexOf('.');
+    return idx >= 0 ? originalName.substring(idx) : "";
+  }
+
+  public static List<String> parseTags(ObjectMapper objectMapper, String rawTags) {
+    if (rawTags == null || rawTags.isBlank()) {
+      return Collections.emptyList();
+    }
+
+    try {
+      return objectMapper.readValue(rawTags, new TypeReference<>() {});
+    } catch (Exception ex) {
+      throw new ApiException(400, "Invalid tags payload");
+    }
+  }
+
+  public static Double parseCoordinate(String raw) {
+    if (raw == null || raw.isBlank()) {
+      return null;
+    }
+
+    try {
+      return Double.valueOf(raw.trim());
+    } catch (NumberFormatException ex) {
+      throw new ApiException(400, "Validation error");
+    }
+  }
+
+  private static void validateFileExtension(String filename, Set<String> allowed, String errorMessage) {
+    if (!allowed.contains(getExtension(filename).toLowerCase())) {
+      throw new ApiException(400, errorMessage);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.jutjubic.backend.websocket;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What a watch party is playing, as of {@code anchorTime} (server epoch millis): while {@code playing}, the
+ * position advances in real time from {@code position} seconds at the anchor. A {@code play-video} anchors
+ * position 0 at its countdown's {@code startAt}, so the anchor can lie in the future.
+ */
+public record PlaybackState(
+    Long videoId,
+    String videoTitle,
+    boolean playing,
+    double position,
+    long anchorTime,
+    Long updatedBy
+) {
+  /**
+   * State of a room nobody has started a video in yet.
+   */
+  public static PlaybackState idle() {
+    return new PlaybackState(null, null, false, 0, 0, null);
+  }
+
+  public static PlaybackState started(long videoId, String videoTitle, long startAt, Long startedBy) {
+    return new PlaybackState(videoId, videoTitle, true, 0, startAt, startedBy);
+  }
+
+  /**
+   * Applies a {@code sync-video} action. Play and pause take the sender's position when it has one, and
+   * otherwise continue from where the server thinks playback is; unknown actions leave the state alone.
+   */
+  public PlaybackState apply(String action, Double currentTime, long serverTime, Long triggeredBy) {
+    double reached = currentTime != null ? currentTime : positionAt(serverTime);
+    return switch (action) {
+      case "play" -> new PlaybackState(videoId, videoTitle, true, reached, serverTime, triggeredBy);
+      case "pause" -> new PlaybackState(videoId, videoTitle, false, reached, serverTime, triggeredBy);
+      case "seek" -> currentTime == null
+          ? this
+          : new PlaybackState(videoId, videoTitle, playing, currentTime, serverTime, triggeredBy);
+      default -> this;
+    };
+  }
+
+  public double positionAt(long serverTime) {
+    if (!playing || serverTime <= anchorTime) {
+      return position;
+    }
+    return position + (serverTime - anchorTime) / 1000.0;
+  }
+
+  /**
+   * State for a client joining at {@code serverTime}, with the position advanced to that moment. A pending
+   * countdown is reported as {@code startAt} so the client can start together with everyone else.
+   */
+  public Map<String, Object> snapshot(long serverTime) {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("videoId", videoId);
+    body.put("videoTitle", videoTitle);
+    body.put("playing", playing);
+    body.put("position", positionAt(serverTime));
+    body.put("serverTime", serverTime);
+    if (playing && anchorTime > serverTime) {
+      body.put("startAt", anchorTime);
+    }
+    return body;
+  }
+}
@@ -0,0 +1,22 @@
+package com.jutjubic.backend.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+/**
+ * Serializes a room event payload once for all of its recipients. netty-socketio still frames a packet per
+ * socket, but with a pre-encoded payload that costs a copy of the same UTF-8 bytes instead of another pass
+ * of Jackson over the payload.
+ */
+public final class PreEncodedPayload {
+  private PreEncodedPayload() {}
+
+  public static RawValue encode(ObjectMapper objectMapper, Object payload) throws JsonProcessingException {
+    SerializedString json = new SerializedString(objectMapper.writeValueAsString(payload));
+    // Cache the UTF-8 bytes now rather than letting the first socket writes race to encode them.
+    json.asUnquotedUTF8();
+    return new RawValue(json);
+  }
+}
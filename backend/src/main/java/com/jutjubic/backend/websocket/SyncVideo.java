@@ -0,0 +1,9 @@
+package com.jutjubic.backend.websocket;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A {@code sync-video} action as relayed to the room, stamped with the server time it was received at.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SyncVideo(String action, Double currentTime, long serverTime, Long triggeredBy) {}
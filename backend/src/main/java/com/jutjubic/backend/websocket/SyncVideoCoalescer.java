@@ -0,0 +1,230 @@
+package com.jutjubic.backend.websocket;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jutjubic.backend.config.AppProperties;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Thins out {@code sync-video} before it reaches the room. The first seek in a quiet room goes out at once;
+ * seeks arriving within {@code app.socket.sync-coalesce-window-ms} after it collapse into the latest one,
+ * which is sent when the window closes. Play and pause are never coalesced, and a seek still waiting goes
+ * out ahead of them so the room sees the actions in order. Every room is also capped at
+ * {@code app.socket.sync-max-events-per-second}: play and pause use up that budget but are never held
+ * back by it, pending seeks wait for it.
+ *
+ * <p>Decisions are made under the room's lock, but events are handed to the sink after it is released:
+ * each room queues what it let through, and whichever thread finds the queue idle drains it in order.
+ */
+@Component
+public class SyncVideoCoalescer {
+  private static final Logger log = LoggerFactory.getLogger(SyncVideoCoalescer.class);
+  private static final Duration ROOM_IDLE_TTL = Duration.ofMinutes(10);
+
+  private final long windowMs;
+  private final int maxEventsPerSecond;
+  private final Cache<String, RoomWindow> rooms;
+  private final ScheduledExecutorService scheduler;
+  private final LongAdder received = new LongAdder();
+  private final LongAdder delivered = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder throttled = new LongAdder();
+  private volatile Sink sink = (roomCode, excludedSessionId, event) -> {};
+
+  public SyncVideoCoalescer(AppProperties appProperties) {
+    this.windowMs = Math.max(0, appProperties.getSocket().getSyncCoalesceWindowMs());
+    this.maxEventsPerSecond = Math.max(1, appProperties.getSocket().getSyncMaxEventsPerSecond());
+    this.rooms = Caffeine.newBuilder()
+        .expireAfterAccess(ROOM_IDLE_TTL)
+        .build();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "sync-video-coalescer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  public void stop() {
+    scheduler.shutdownNow();
+  }
+
+  /**
+   * Registers where events that made it through go: the caller applies them and broadcasts to the room.
+   */
+  public void onFlush(Sink sink) {
+    this.sink = sink;
+  }
+
+  public void submit(String roomCode, UUID senderSessionId, SyncVideo event) {
+    received.increment();
+    RoomWindow room = rooms.get(roomCode, code -> new RoomWindow());
+    long now = System.currentTimeMillis();
+
+    synchronized (room) {
+      if (!"seek".equals(event.action())) {
+        if (room.pending != null) {
+          room.release(room.pendingSender, room.pending);
+          room.pending = null;
+        }
+        room.spendToken(now);
+        room.release(senderSessionId, event);
+      } else if (room.pending != null) {
+        coalesced.increment();
+        room.pending = event;
+        room.pendingSender = senderSessionId;
+      } else if (now >= room.windowEndsAt && room.tryTakeToken(now)) {
+        room.windowEndsAt = now + windowMs;
+        room.release(senderSessionId, event);
+      } else {
+        room.pending = event;
+        room.pendingSender = senderSessionId;
+        scheduleFlush(roomCode, room, now);
+      }
+    }
+    drain(roomCode, room);
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("windowMs", windowMs);
+    body.put("maxEventsPerSecond", maxEventsPerSecond);
+    body.put("rooms", rooms.estimatedSize());
+    body.put("received", received.sum());
+    body.put("delivered", delivered.sum());
+    body.put("coalesced", coalesced.sum());
+    body.put("throttled", throttled.sum());
+    return body;
+  }
+
+  private void flush(String roomCode, RoomWindow room) {
+    synchronized (room) {
+      room.flushScheduled = false;
+      if (room.pending == null) {
+        return;
+      }
+
+      long now = System.currentTimeMillis();
+      if (now < room.windowEndsAt || !room.tryTakeToken(now)) {
+        scheduleFlush(roomCode, room, now);
+        return;
+      }
+
+      room.windowEndsAt = now + windowMs;
+      room.release(room.pendingSender, room.pending);
+      room.pending = null;
+    }
+    drain(roomCode, room);
+  }
+
+  /**
+   * Hands the room's released events to the sink outside the room's lock. Only one thread drains a room at
+   * a time, so events still reach the sink in the order they were released.
+   */
+  private void drain(String roomCode, RoomWindow room) {
+    synchronized (room) {
+      if (room.draining) {
+        return;
+      }
+      room.draining = true;
+    }
+
+    while (true) {
+      Released next;
+      synchronized (room) {
+        next = room.released.poll();
+        if (next == null) {
+          room.draining = false;
+          return;
+        }
+      }
+      deliver(roomCode, next.sender(), next.event());
+    }
+  }
+
+  private void scheduleFlush(String roomCode, RoomWindow room, long now) {
+    if (room.flushScheduled) {
+      return;
+    }
+
+    long untilWindowEnds = room.windowEndsAt - now;
+    long untilToken = room.msUntilToken(now);
+    if (untilToken > untilWindowEnds) {
+      throttled.increment();
+    }
+    room.flushScheduled = true;
+    scheduler.schedule(() -> flush(roomCode, room), Math.max(1, Math.max(untilWindowEnds, untilToken)), TimeUnit.MILLISECONDS);
+  }
+
+  private void deliver(String roomCode, UUID excludedSessionId, SyncVideo event) {
+    try {
+      sink.deliver(roomCode, excludedSessionId, event);
+      delivered.increment();
+    } catch (Exception ex) {
+      log.warn("Failed to deliver sync-video to room {}", roomCode, ex);
+    }
+  }
+
+  @FunctionalInterface
+  public interface Sink {
+    void deliver(String roomCode, UUID excludedSessionId, SyncVideo event);
+  }
+
+  private record Released(UUID sender, SyncVideo event) {}
+
+  /**
+   * Per-room coalescing window plus a token bucket holding up to one second's worth of events.
+   */
+  private final class RoomWindow {
+    private SyncVideo pending;
+    private UUID pendingSender;
+    private boolean flushScheduled;
+    private long windowEndsAt;
+    private double tokens = maxEventsPerSecond;
+    private long refilledAt = System.currentTimeMillis();
+    private final ArrayDeque<Released> released = new ArrayDeque<>();
+    private boolean draining;
+
+    void release(UUID sender, SyncVideo event) {
+      released.add(new Released(sender, event));
+    }
+
+    boolean tryTakeToken(long now) {
+      refill(now);
+      if (tokens < 1) {
+        return false;
+      }
+      tokens -= 1;
+      return true;
+    }
+
+    void spendToken(long now) {
+      refill(now);
+      tokens = Math.max(0, tokens - 1);
+    }
+
+    long msUntilToken(long now) {
+      refill(now);
+      return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * 1000.0 / maxEventsPerSecond);
+    }
+
+    private void refill(long now) {
+      if (now > refilledAt) {
+        tokens = Math.min(maxEventsPerSecond, tokens + (now - refilledAt) * maxEventsPerSecond / 1000.0);
+        refilledAt = now;
+      }
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.jutjubic.backend.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authoritative playback state per watch party. Transitions run against the in-process copy and are written
+ * through to Redis, so a restarted node, or another node a late joiner lands on, recovers the room's state
+ * from there.
+ *
+ * <p>Callers are socket event-loop and coalescer threads, so nothing here touches Redis on the caller's
+ * thread: reads, transitions and writes all run in order on one dedicated thread, and a slow Redis delays
+ * playback state instead of socket I/O.
+ */
+@Component
+public class WatchPartyPlaybackStore {
+  private static final Logger log = LoggerFactory.getLogger(WatchPartyPlaybackStore.class);
+  private static final String KEY_PREFIX = "watch-party:playback:";
+  private static final Duration REDIS_TTL = Duration.ofHours(6);
+  private static final Duration LOCAL_IDLE_TTL = Duration.ofHours(1);
+  private static final long MAX_LOCAL_ROOMS = 10_000;
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final ObjectMapper objectMapper;
+  private final Cache<String, PlaybackState> local;
+  private final LongAdder snapshots = new LongAdder();
+  private final LongAdder transitions = new LongAdder();
+  private final LongAdder recovered = new LongAdder();
+  private final LongAdder mirrorFailures = new LongAdder();
+  private final ExecutorService executor;
+
+  public WatchPartyPlaybackStore(StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper) {
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.objectMapper = objectMapper;
+    this.local = Caffeine.newBuilder()
+        .maximumSize(MAX_LOCAL_ROOMS)
+        .expireAfterAccess(LOCAL_IDLE_TTL)
+        .build();
+    this.executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "watch-party-playback");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  public void stop() {
+    executor.shutdown();
+  }
+
+  /**
+   * Applies a transition to the room's current state and mirrors the result. Transitions run one at a
+   * time in submission order, so the copy in Redis is always the latest one. The returned future completes
+   * after the write to Redis, so other nodes told about the change from then on read the new state.
+   */
+  public CompletableFuture<PlaybackState> update(String roomCode, UnaryOperator<PlaybackState> transition) {
+    transitions.increment();
+    return CompletableFuture.supplyAsync(() -> {
+      PlaybackState next = transition.apply(current(roomCode));
+      local.put(roomCode, next);
+      mirror(roomCode, next);
+      return next;
+    }, executor);
+  }
+
+  /**
+   * The room's state as of the moment the returned future completes, for a client that has just joined.
+   * It reflects every update submitted before it.
+   */
+  public CompletableFuture<Map<String, Object>> snapshot(String roomCode) {
+    snapshots.increment();
+    return CompletableFuture.supplyAsync(() -> current(roomCode).snapshot(System.currentTimeMillis()), executor);
+  }
+
+  /**
+   * Drops this node's copy after another node changed the room, so the next read comes from Redis.
+   */
+  public void evictLocal(String roomCode) {
+    executor.execute(() -> local.invalidate(roomCode));
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("localRooms", local.estimatedSize());
+    body.put("transitions", transitions.sum());
+    body.put("snapshots", snapshots.sum());
+    body.put("recoveredFromRedis", recovered.sum());
+    body.put("mirrorFailures", mirrorFailures.sum());
+    return body;
+  }
+
+  private PlaybackState current(String roomCode) {
+    PlaybackState state = local.getIfPresent(roomCode);
+    if (state == null) {
+      state = load(roomCode);
+      if (state != null) {
+        local.put(roomCode, state);
+      }
+    }
+    return state != null ? state : PlaybackState.idle();
+  }
+
+  private PlaybackState load(String roomCode) {
+    try {
+      String raw = stringRedisTemplate.opsForValue().get(KEY_PREFIX + roomCode);
+      if (raw == null) {
+        return null;
+      }
+      PlaybackState state = objectMapper.readValue(raw, PlaybackState.class);
+      recovered.increment();
+      return state;
+    } catch (Exception ex) {
+      log.warn("Failed to load playback state for room {}", roomCode, ex);
+      return null;
+    }
+  }
+
+  private void mirror(String roomCode, PlaybackState state) {
+    try {
+      stringRedisTemplate.opsForValue().set(KEY_PREFIX + roomCode, objectMapper.writeValueAsString(state), REDIS_TTL);
+    } catch (Exception ex) {
+      mirrorFailures.increment();
+      log.warn("Failed to mirror playback state for room {}", roomCode, ex);
+    }
+  }
+}
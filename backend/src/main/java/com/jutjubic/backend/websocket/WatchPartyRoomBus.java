@@ -0,0 +1,205 @@
+package com.jutjubic.backend.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jutjubic.backend.config.AppProperties;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fans watch-party room broadcasts out to the other socket nodes. With {@code app.socket.cluster-mode=redis}
+ * every room has its own pub/sub channel, and a node subscribes to it only while at least one of its own
+ * sockets is in the room, so Redis routes each broadcast to exactly the nodes that have members there.
+ * In {@code local} mode (the default) nothing leaves the process.
+ */
+@Component
+public class WatchPartyRoomBus implements MessageListener {
+  private static final Logger log = LoggerFactory.getLogger(WatchPartyRoomBus.class);
+  private static final String CHANNEL_PREFIX = "watch-party:room:";
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final RedisMessageListenerContainer listenerContainer;
+  private final ObjectMapper objectMapper;
+  private final String nodeId;
+  private final boolean clustered;
+  private final Map<String, Integer> localMembers = new ConcurrentHashMap<>();
+  private final Map<UUID, Set<String>> sessionRooms = new ConcurrentHashMap<>();
+  private final LongAdder published = new LongAdder();
+  private final LongAdder publishFailures = new LongAdder();
+  private final LongAdder received = new LongAdder();
+  private volatile Consumer<RoomBroadcast> localDelivery = broadcast -> {};
+
+  public WatchPartyRoomBus(
+      StringRedisTemplate stringRedisTemplate,
+      RedisMessageListenerContainer listenerContainer,
+      ObjectMapper objectMapper,
+      AppProperties appProperties
+  ) {
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.listenerContainer = listenerContainer;
+    this.objectMapper = objectMapper;
+
+    String configuredNodeId = appProperties.getSocket().getNodeId();
+    this.nodeId = configuredNodeId == null || configuredNodeId.isBlank()
+        ? UUID.randomUUID().toString().substring(0, 8)
+        : configuredNodeId;
+
+    String mode = appProperties.getSocket().getClusterMode();
+    this.clustered = switch (mode) {
+      case "local" -> false;
+      case "redis" -> true;
+      default -> throw new IllegalStateException("Unsupported app.socket.cluster-mode: " + mode);
+    };
+  }
+
+  /**
+   * Registers the callback that writes broadcasts arriving from other nodes to this node's sockets.
+   */
+  public void onRemoteBroadcast(Consumer<RoomBroadcast> localDelivery) {
+    this.localDelivery = localDelivery;
+  }
+
+  /**
+   * Records that a socket on this node entered the room; the first one subscribes the node to it. Returns
+   * false when the socket was already in the room.
+   */
+  public boolean joined(UUID sessionId, String roomCode) {
+    boolean[] added = {false};
+    sessionRooms.compute(sessionId, (id, rooms) -> {
+      Set<String> next = rooms == null ? new HashSet<>() : rooms;
+      if (next.add(roomCode)) {
+        acquire(roomCode);
+        added[0] = true;
+      }
+      return next;
+    });
+    return added[0];
+  }
+
+  /**
+   * Records that a socket on this node left the room; the last one unsubscribes the node from it. Returns
+   * false when the socket was not in the room.
+   */
+  public boolean left(UUID sessionId, String roomCode) {
+    boolean[] removed = {false};
+    sessionRooms.computeIfPresent(sessionId, (id, rooms) -> {
+      if (rooms.remove(roomCode)) {
+        release(roomCode);
+        removed[0] = true;
+      }
+      return rooms.isEmpty() ? null : rooms;
+    });
+    return removed[0];
+  }
+
+  /**
+   * Releases every room the socket was still in and returns them. Socket.IO has already emptied the
+   * client's own room list by the time its disconnect listeners run, so this is the only record left.
+   */
+  public Set<String> disconnected(UUID sessionId) {
+    Set<String> rooms = sessionRooms.remove(sessionId);
+    if (rooms == null) {
+      return Set.of();
+    }
+    rooms.forEach(this::release);
+    return rooms;
+  }
+
+  /**
+   * Sends a broadcast the caller has already delivered locally to the room's members on other nodes.
+   */
+  public void publish(String roomCode, String event, Object payload) {
+    if (!clustered) {
+      return;
+    }
+
+    try {
+      String body = objectMapper.writeValueAsString(new RoomBroadcast(nodeId, roomCode, event, payload));
+      stringRedisTemplate.convertAndSend(CHANNEL_PREFIX + roomCode, body);
+      published.increment();
+    } catch (Exception ex) {
+      publishFailures.increment();
+      log.warn("Failed to publish {} for room {} to other socket nodes", event, roomCode, ex);
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    RoomBroadcast broadcast;
+    try {
+      broadcast = objectMapper.readValue(message.getBody(), RoomBroadcast.class);
+    } catch (Exception ex) {
+      log.warn("Ignoring malformed watch party broadcast");
+      return;
+    }
+
+    // Our own broadcasts come back on the channel too, but they were already delivered before publishing.
+    if (nodeId.equals(broadcast.node())) {
+      return;
+    }
+    received.increment();
+    localDelivery.accept(broadcast);
+  }
+
+  public String nodeId() {
+    return nodeId;
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("mode", clustered ? "redis" : "local");
+    body.put("localRooms", localMembers.size());
+    body.put("localMembers", localMembers.values().stream().mapToInt(Integer::intValue).sum());
+    body.put("published", published.sum());
+    body.put("publishFailures", publishFailures.sum());
+    body.put("received", received.sum());
+    return body;
+  }
+
+  private void acquire(String roomCode) {
+    localMembers.compute(roomCode, (room, count) -> {
+      if (count == null) {
+        subscribe(room);
+        return 1;
+      }
+      return count + 1;
+    });
+  }
+
+  private void release(String roomCode) {
+    localMembers.computeIfPresent(roomCode, (room, count) -> {
+      if (count > 1) {
+        return count - 1;
+      }
+      unsubscribe(room);
+      return null;
+    });
+  }
+
+  private void subscribe(String roomCode) {
+    if (clustered) {
+      listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL_PREFIX + roomCode));
+    }
+  }
+
+  private void unsubscribe(String roomCode) {
+    if (clustered) {
+      listenerContainer.removeMessageListener(this, new ChannelTopic(CHANNEL_PREFIX + roomCode));
+    }
+  }
+
+  public record RoomBroadcast(String node, String room, String event, Object payload) {}
+}
@@ -3,14 +3,22 @@ package com.jutjubic.backend.websocket;
 import com.corundumstudio.socketio.Configuration;
 import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIOServer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.jutjubic.backend.config.AppProperties;
 import com.jutjubic.backend.security.JwtPrincipal;
 import com.jutjubic.backend.security.JwtService;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -19,14 +27,35 @@ import org.springframework.stereotype.Component;
 public class WatchPartySocketServer {
   private static final Logger log = LoggerFactory.getLogger(WatchPartySocketServer.class);
   private static final String USER_ATTR = "user";
+  private static final Set<String> PLAYBACK_EVENTS = Set.of("play-video", "sync-video");
 
   private final AppProperties appProperties;
   private final JwtService jwtService;
+  private final WatchPartyRoomBus roomBus;
+  private final WatchPartyPlaybackStore playbackStore;
+  private final SyncVideoCoalescer syncCoalescer;
+  private final ObjectMapper objectMapper;
+  private final AtomicInteger connections = new AtomicInteger();
+  private final LongAdder connectionsTotal = new LongAdder();
+  private final LongAdder broadcasts = new LongAdder();
+  private final LongAdder remoteBroadcasts = new LongAdder();
+  private final LongAdder deliveries = new LongAdder();
   private SocketIOServer server;
 
-  public WatchPartySocketServer(AppProperties appProperties, JwtService jwtService) {
+  public WatchPartySocketServer(
+      AppProperties appProperties,
+      JwtService jwtService,
+      WatchPartyRoomBus roomBus,
+      WatchPartyPlaybackStore playbackStore,
+      SyncVideoCoalescer syncCoalescer,
+      ObjectMapper objectMapper
+  ) {
     this.appProperties = appProperties;
     this.jwtService = jwtService;
+    this.roomBus = roomBus;
+    this.playbackStore = playbackStore;
+    this.syncCoalescer = syncCoalescer;
+    this.objectMapper = objectMapper;
   }
 
   @PostConstruct
@@ -39,9 +68,31 @@ public class WatchPartySocketServer {
     server = new SocketIOServer(config);
 
     registerListeners();
+    syncCoalescer.onFlush((roomCode, excludedSessionId, event) -> {
+      CompletableFuture<PlaybackState> stored = playbackStore.update(
+          roomCode,
+          current -> current.apply(event.action(), event.currentTime(), event.serverTime(), event.triggeredBy())
+      );
+      emitPlayback(roomCode, excludedSessionId, "sync-video", event, stored);
+    });
+    roomBus.onRemoteBroadcast(broadcast -> {
+      remoteBroadcasts.increment();
+      if (PLAYBACK_EVENTS.contains(broadcast.event())) {
+        playbackStore.evictLocal(broadcast.room());
+      }
+      RawValue encoded = encode(broadcast.event(), broadcast.payload());
+      if (encoded != null) {
+        deliverLocally(broadcast.room(), null, broadcast.event(), encoded);
+      }
+    });
     server.start();
 
-    log.info("Socket.IO server started on {}:{}", appProperties.getSocket().getHost(), appProperties.getSocket().getPort());
+    log.info(
+        "Socket.IO server started on {}:{} as node {}",
+        appProperties.getSocket().getHost(),
+        appProperties.getSocket().getPort(),
+        roomBus.nodeId()
+    );
   }
 
   @PreDestroy
@@ -61,6 +112,8 @@ public class WatchPartySocketServer {
       }
 
       client.set(USER_ATTR, principal);
+      connections.incrementAndGet();
+      connectionsTotal.increment();
       log.info("Socket connected: {}", principal.userId());
     });
 
@@ -68,6 +121,7 @@ public class WatchPartySocketServer {
       JwtPrincipal principal = client.get(USER_ATTR);
       if (principal != null) {
         notifyDisconnectingRooms(client, principal);
+        connections.decrementAndGet();
         log.info("Socket disconnected: {}", principal.userId());
       }
     });
@@ -84,8 +138,13 @@ public class WatchPartySocketServer {
         return;
       }
 
-      client.joinRoom(roomCode);
-      emitToRoomExceptSender(roomCode, client, "user-joined", Map.of(
+      if (roomBus.joined(client.getSessionId(), roomCode)) {
+        client.joinRoom(roomCode);
+      }
+      if (ackRequest.isAckRequested()) {
+        playbackStore.snapshot(roomCode).thenAccept(ackRequest::sendAckData);
+      }
+      emitToRoom(roomCode, client.getSessionId(), "user-joined", Map.of(
           "userId", principal.userId(),
           "email", principal.email()
       ));
@@ -109,6 +168,10 @@ public class WatchPartySocketServer {
 
       long serverTime = System.currentTimeMillis();
       long startAt = serverTime + 5000;
+      CompletableFuture<PlaybackState> stored = playbackStore.update(
+          roomCode,
+          current -> PlaybackState.started(videoId.longValue(), videoTitle, startAt, principal.userId())
+      );
 
       Map<String, Object> payload = new HashMap<>();
       payload.put("videoId", videoId.longValue());
@@ -117,7 +180,7 @@ public class WatchPartySocketServer {
       payload.put("serverTime", serverTime);
       payload.put("startAt", startAt);
 
-      server.getRoomOperations(roomCode).sendEvent("play-video", payload);
+      emitPlayback(roomCode, null, "play-video", payload, stored);
       log.info("User {} played video {} in room {}, startAt={}", principal.userId(), videoId.longValue(), roomCode, startAt);
     });
 
@@ -135,16 +198,13 @@ public class WatchPartySocketServer {
         return;
       }
 
-      long serverTime = System.currentTimeMillis();
-      Map<String, Object> payload = new HashMap<>();
-      payload.put("action", action);
-      if (currentTime != null) {
-        payload.put("currentTime", currentTime.doubleValue());
-      }
-      payload.put("serverTime", serverTime);
-      payload.put("triggeredBy", principal.userId());
-
-      emitToRoomExceptSender(roomCode, client, "sync-video", payload);
+      SyncVideo event = new SyncVideo(
+          action,
+          currentTime == null ? null : currentTime.doubleValue(),
+          System.currentTimeMillis(),
+          principal.userId()
+      );
+      syncCoalescer.submit(roomCode, client.getSessionId(), event);
     });
 
     server.addEventListener("leave-room", String.class, (client, roomCode, ackRequest) -> {
@@ -153,8 +213,10 @@ public class WatchPartySocketServer {
         return;
       }
 
-      client.leaveRoom(roomCode);
-      emitToRoomExceptSender(roomCode, client, "user-left", Map.of(
+      if (roomBus.left(client.getSessionId(), roomCode)) {
+        client.leaveRoom(roomCode);
+      }
+      emitToRoom(roomCode, client.getSessionId(), "user-left", Map.of(
           "userId", principal.userId(),
           "email", principal.email()
       ));
@@ -177,18 +239,75 @@ public class WatchPartySocketServer {
     }
   }
 
-  private void emitToRoomExceptSender(String roomCode, SocketIOClient sender, String event, Object payload) {
+  public Map<String, Object> stats() {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("connections", connections.get());
+    body.put("connectionsTotal", connectionsTotal.sum());
+    body.put("broadcasts", broadcasts.sum());
+    body.put("remoteBroadcasts", remoteBroadcasts.sum());
+    body.put("deliveries", deliveries.sum());
+    return body;
+  }
+
+  /**
+   * Encodes the payload once, delivers it to this node's members of the room, then hands it to the room bus
+   * for members connected to other nodes. The sender, if any, is always local, so only the local pass
+   * excludes it.
+   */
+  private void emitToRoom(String roomCode, UUID excludedSessionId, String event, Object payload) {
+    RawValue encoded = encode(event, payload);
+    if (encoded == null) {
+      return;
+    }
+
+    broadcasts.increment();
+    deliverLocally(roomCode, excludedSessionId, event, encoded);
+    roomBus.publish(roomCode, event, encoded);
+  }
+
+  /**
+   * Like {@link #emitToRoom}, but other nodes only hear about the change once it has been written to Redis.
+   * They drop their copy of the room's state on a playback broadcast and reload it from there, so
+   * publishing any earlier would let them cache the state from before the change.
+   */
+  private void emitPlayback(
+      String roomCode,
+      UUID excludedSessionId,
+      String event,
+      Object payload,
+      CompletableFuture<PlaybackState> stored
+  ) {
+    RawValue encoded = encode(event, payload);
+    if (encoded == null) {
+      return;
+    }
+
+    broadcasts.increment();
+    deliverLocally(roomCode, excludedSessionId, event, encoded);
+    stored.whenComplete((state, ex) -> roomBus.publish(roomCode, event, encoded));
+  }
+
+  private RawValue encode(String event, Object payload) {
+    try {
+      return PreEncodedPayload.encode(objectMapper, payload);
+    } catch (JsonProcessingException ex) {
+      log.warn("Failed to encode {} payload", event, ex);
+      return null;
+    }
+  }
+
+  private void deliverLocally(String roomCode, UUID excludedSessionId, String event, RawValue payload) {
     for (SocketIOClient client : server.getRoomOperations(roomCode).getClients()) {
-      if (!client.getSessionId().equals(sender.getSessionId())) {
+      if (!client.getSessionId().equals(excludedSessionId)) {
         client.sendEvent(event, payload);
+        deliveries.increment();
       }
     }
   }
 
   private void notifyDisconnectingRooms(SocketIOClient client, JwtPrincipal principal) {
-    Set<String> rooms = client.getAllRooms();
-    for (String room : rooms) {
-      emitToRoomExceptSender(room, client, "user-left", Map.of(
+    for (String room : roomBus.disconnected(client.getSessionId())) {
+      emitToRoom(room, client.getSessionId(), "user-left", Map.of(
           "userId", principal.userId(),
           "email", principal.email()
       ));
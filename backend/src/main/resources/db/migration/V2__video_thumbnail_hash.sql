@@ -0,0 +1 @@
+ALTER TABLE videos ADD COLUMN IF NOT EXISTS thumbnail_sha256 VARCHAR(64);
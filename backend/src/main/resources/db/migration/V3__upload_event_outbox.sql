@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS upload_event_outbox (
+  id BIGSERIAL PRIMARY KEY,
+  video_id INTEGER NOT NULL,
+  payload JSONB NOT NULL,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,3 @@
+DROP INDEX IF EXISTS idx_videos_created_at_desc;
+CREATE INDEX IF NOT EXISTS idx_videos_created_at_desc ON videos (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_videos_user_created_at_desc ON videos (user_id, created_at DESC, id DESC);
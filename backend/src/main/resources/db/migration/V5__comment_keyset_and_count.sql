@@ -0,0 +1,9 @@
+DROP INDEX IF EXISTS idx_comments_video_created_at_desc;
+CREATE INDEX IF NOT EXISTS idx_comments_video_created_at_desc ON comments (video_id, created_at DESC, id DESC);
+
+ALTER TABLE videos ADD COLUMN IF NOT EXISTS comment_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE videos AS v
+SET comment_count = c.total
+FROM (SELECT video_id, COUNT(*) AS total FROM comments GROUP BY video_id) AS c
+WHERE v.id = c.video_id;
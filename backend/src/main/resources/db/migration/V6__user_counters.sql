@@ -0,0 +1,12 @@
+ALTER TABLE users ADD COLUMN IF NOT EXISTS video_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS comment_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE users AS u
+SET video_count = v.total
+FROM (SELECT user_id, COUNT(*) AS total FROM videos GROUP BY user_id) AS v
+WHERE u.id = v.user_id;
+
+UPDATE users AS u
+SET comment_count = c.total
+FROM (SELECT user_id, COUNT(*) AS total FROM comments GROUP BY user_id) AS c
+WHERE u.id = c.user_id;
@@ -0,0 +1,2 @@
+-- Relays claim rows by leasing them instead of holding row locks while they wait for broker confirms.
+ALTER TABLE upload_event_outbox ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMPTZ;
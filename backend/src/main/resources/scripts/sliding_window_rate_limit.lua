@@ -0,0 +1,36 @@
+-- Sliding-window rate limit check, executed atomically on the Redis server.
+-- KEYS[1]: limiter hash, one field per fixed window index holding that window's hit count
+-- ARGV[1]: window length in ms
+-- ARGV[2]: max hits per window
+-- ARGV[3]: hits to reserve (a node leasing a batch asks for more than one)
+-- Returns {granted, estimated count including granted hits, retry-after ms, ms left in the current window}
+
+local key = KEYS[1]
+local window = tonumber(ARGV[1])
+local max_hits = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3] or '1')
+
+-- Server time keeps every backend node on the same window boundaries.
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local current = math.floor(now / window)
+local elapsed = now - current * window
+
+local previous_count = tonumber(redis.call('HGET', key, tostring(current - 1)) or '0')
+local current_count = tonumber(redis.call('HGET', key, tostring(current)) or '0')
+local estimated = math.floor(previous_count * (1 - elapsed / window)) + current_count
+local granted = math.min(requested, max_hits - estimated)
+
+if granted <= 0 then
+  return {0, estimated + 1, window - elapsed, window - elapsed}
+end
+
+redis.call('HINCRBY', key, tostring(current), granted)
+for _, field in ipairs(redis.call('HKEYS', key)) do
+  if tonumber(field) < current - 1 then
+    redis.call('HDEL', key, field)
+  end
+end
+redis.call('PEXPIRE', key, window * 2)
+
+return {granted, estimated + granted, 0, window - elapsed}
@@ -0,0 +1,193 @@
+package com.jutjubic.backend.mq;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jutjubic.backend.config.AppProperties;
+import com.jutjubic.backend.proto.UploadEventProto;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * What {@code app.mq.publish-format} puts on the wire: how many messages an upload costs, to which routing
+ * key, and in which envelope. The broker is replaced by a template that records what would be sent.
+ */
+class UploadEventPublisherTest {
+  private static final int UPLOADS = 250;
+  private static final int BATCH_SIZE = 100;
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .registerModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  @Test
+  void bothSendsAJsonAndAProtobufCopyOfEveryUpload() throws Exception {
+    RecordingBroker broker = publishAll("both");
+
+    assertEquals(2 * UPLOADS, broker.sent.size());
+    for (int i = 0; i < UPLOADS; i++) {
+      Sent json = broker.sent.get(2 * i);
+      Sent protobuf = broker.sent.get(2 * i + 1);
+      assertJson(json, event(i));
+      assertProtobuf(protobuf, event(i));
+    }
+    assertEquals(3, broker.confirmWaits);
+  }
+
+  @Test
+  void singleFormatSendsOneMessagePerUpload() throws Exception {
+    RecordingBroker json = publishAll("json");
+    RecordingBroker protobuf = publishAll("protobuf");
+
+    assertEquals(UPLOADS, json.sent.size());
+    assertEquals(UPLOADS, protobuf.sent.size());
+    for (int i = 0; i < UPLOADS; i++) {
+      assertJson(json.sent.get(i), event(i));
+      assertProtobuf(protobuf.sent.get(i), event(i));
+    }
+  }
+
+  @Test
+  void protobufOnlyCostsLessThanHalfTheBytesOfBoth() {
+    long both = publishAll("both").bodyBytes();
+    long json = publishAll("json").bodyBytes();
+    long protobuf = publishAll("protobuf").bodyBytes();
+
+    assertEquals(both, json + protobuf);
+    assertTrue(protobuf < both / 2, "protobuf " + protobuf + " B vs both " + both + " B");
+  }
+
+  @Test
+  void failedConfirmIsRethrownAndCounted() {
+    RecordingBroker broker = new RecordingBroker();
+    broker.failConfirms = true;
+    UploadEventPublisher publisher = new UploadEventPublisher(broker, objectMapper, properties("protobuf"));
+
+    assertThrows(AmqpException.class, () -> publisher.publishBatch(List.of(event(1), event(2))));
+
+    assertEquals(1L, publisher.stats().get("failedBatches"));
+    assertEquals(0L, publisher.stats().get("published"));
+  }
+
+  @Test
+  void unknownFormatIsRejectedAtStartup() {
+    IllegalStateException ex = assertThrows(
+        IllegalStateException.class,
+        () -> new UploadEventPublisher(new RecordingBroker(), objectMapper, properties("xml"))
+    );
+
+    assertEquals("Unsupported app.mq.publish-format: xml", ex.getMessage());
+  }
+
+  private RecordingBroker publishAll(String format) {
+    RecordingBroker broker = new RecordingBroker();
+    UploadEventPublisher publisher = new UploadEventPublisher(broker, objectMapper, properties(format));
+    List<UploadEventMessage> batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < UPLOADS; i++) {
+      batch.add(event(i));
+      if (batch.size() == BATCH_SIZE || i == UPLOADS - 1) {
+        publisher.publishBatch(batch);
+        batch = new ArrayList<>(BATCH_SIZE);
+      }
+    }
+    assertEquals((long) UPLOADS, publisher.stats().get("published"));
+    return broker;
+  }
+
+  private void assertJson(Sent sent, UploadEventMessage event) throws Exception {
+    assertEquals("upload.json", sent.routingKey());
+    assertEnvelope(sent.message(), UploadEventEnvelope.CONTENT_TYPE_JSON);
+    assertEquals(
+        objectMapper.readTree(objectMapper.writeValueAsBytes(event)),
+        objectMapper.readTree(sent.message().getBody())
+    );
+  }
+
+  private static void assertProtobuf(Sent sent, UploadEventMessage event) throws Exception {
+    assertEquals("upload.protobuf", sent.routingKey());
+    assertEnvelope(sent.message(), UploadEventEnvelope.CONTENT_TYPE_PROTOBUF);
+    assertEquals(UploadEventMapper.toProto(event), UploadEventProto.UploadEvent.parseFrom(sent.message().getBody()));
+  }
+
+  private static void assertEnvelope(Message message, String contentType) {
+    MessageProperties properties = message.getMessageProperties();
+    assertEquals(contentType, properties.getContentType());
+    assertEquals(UploadEventEnvelope.TYPE, properties.getType());
+    assertEquals(
+        UploadEventEnvelope.SCHEMA_VERSION,
+        properties.<Integer>getHeader(UploadEventEnvelope.SCHEMA_VERSION_HEADER)
+    );
+    assertEquals(MessageDeliveryMode.PERSISTENT, properties.getDeliveryMode());
+  }
+
+  private static AppProperties properties(String format) {
+    AppProperties properties = new AppProperties();
+    properties.getMq().setPublishFormat(format);
+    properties.getMq().setExchange("upload.events");
+    properties.getMq().setJsonRoutingKey("upload.json");
+    properties.getMq().setProtobufRoutingKey("upload.protobuf");
+    return properties;
+  }
+
+  private static UploadEventMessage event(long id) {
+    return new UploadEventMessage(
+        id,
+        "Video " + id + " - weekend highlights",
+        52_428_800 + id,
+        48_000,
+        1 + id % 50,
+        "user_" + (1 + id % 50),
+        "Description for upload " + id + " with a couple of sentences of text.",
+        List.of("music", "live", "tag-" + id % 7),
+        "videos/video-" + id + ".mp4",
+        "thumbnails/video-" + id + ".jpg",
+        OffsetDateTime.parse("2026-01-01T12:00:00Z").plusSeconds(id)
+    );
+  }
+
+  private record Sent(String routingKey, Message message) {}
+
+  private static final class RecordingBroker extends RabbitTemplate {
+    private final List<Sent> sent = new ArrayList<>();
+    private int confirmWaits;
+    private boolean failConfirms;
+
+    @Override
+    public <T> T invoke(
+        OperationsCallback<T> action,
+        com.rabbitmq.client.ConfirmCallback acks,
+        com.rabbitmq.client.ConfirmCallback nacks
+    ) {
+      return action.doInRabbit(this);
+    }
+
+    @Override
+    public void send(String exchange, String routingKey, Message message) {
+      assertEquals("upload.events", exchange);
+      sent.add(new Sent(routingKey, message));
+    }
+
+    @Override
+    public void waitForConfirmsOrDie(long timeout) {
+      confirmWaits++;
+      if (failConfirms) {
+        throw new AmqpException("Publisher confirm timed out");
+      }
+    }
+
+    long bodyBytes() {
+      return sent.stream().mapToLong(s -> s.message().getBody().length).sum();
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package com.jutjubic.backend.mq;
+
+import com.jutjubic.backend.config.AppProperties;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The relay deletes a batch only after the broker confirmed it, hands an unconfirmed batch back to the
+ * outbox, and keeps the claim lease well beyond the confirm timeout.
+ */
+class UploadEventRelayTest {
+  private static final int BATCH_SIZE = 3;
+
+  private final FakeOutbox outbox = new FakeOutbox();
+  private final FakePublisher publisher = new FakePublisher(properties());
+  private final UploadEventRelay relay = new UploadEventRelay(outbox, publisher, properties());
+
+  @Test
+  void confirmedBatchesAreDeletedInOrderUntilTheOutboxIsDrained() {
+    for (long id = 1; id <= 7; id++) {
+      outbox.add(id);
+    }
+
+    assertEquals(7, relay.relay());
+
+    assertEquals(List.of(List.of(1L, 2L, 3L), List.of(4L, 5L, 6L), List.of(7L)), publisher.sent);
+    assertEquals(0, outbox.rows.size());
+    assertTrue(outbox.released.isEmpty());
+    assertEquals(7L, relay.stats().get("relayed"));
+  }
+
+  @Test
+  void unconfirmedBatchIsReleasedAndSentOnTheNextPoll() {
+    for (long id = 1; id <= 2; id++) {
+      outbox.add(id);
+    }
+    publisher.failNext = true;
+
+    assertThrows(AmqpException.class, relay::relay);
+    assertEquals(List.of(1L, 2L), outbox.released);
+    assertEquals(2, outbox.rows.size());
+
+    relay.scheduledRelay();
+    assertEquals(List.of(List.of(1L, 2L)), publisher.sent);
+    assertEquals(0, outbox.rows.size());
+    assertEquals(0L, relay.stats().get("failedPolls"));
+  }
+
+  @Test
+  void failedPollIsCountedAndLeavesTheRowsInTheOutbox() {
+    outbox.add(1);
+    publisher.failNext = true;
+
+    relay.scheduledRelay();
+
+    assertEquals(1L, relay.stats().get("failedPolls"));
+    assertEquals(1, outbox.rows.size());
+  }
+
+  @Test
+  void claimLeaseOutlastsTheConfirmTimeout() {
+    outbox.add(1);
+    relay.relay();
+
+    assertTrue(outbox.lastLeaseMs >= 4 * properties().getMq().getConfirmTimeoutMs());
+  }
+
+  private static AppProperties properties() {
+    AppProperties properties = new AppProperties();
+    properties.getMq().setPublishFormat("protobuf");
+    properties.getMq().setPublishBatchSize(BATCH_SIZE);
+    properties.getMq().setConfirmTimeoutMs(30_000);
+    return properties;
+  }
+
+  private static UploadEventMessage event(long id) {
+    return new UploadEventMessage(
+        id,
+        "Video " + id,
+        1_048_576,
+        4_096,
+        7,
+        "author",
+        null,
+        List.of("music"),
+        "videos/" + id + ".mp4",
+        "thumbnails/" + id + ".jpg",
+        OffsetDateTime.parse("2026-01-01T12:00:00Z")
+    );
+  }
+
+  /** Claimed rows stay in the table until deleted, as with the lease column. */
+  private static final class FakeOutbox extends UploadEventOutbox {
+    private final TreeMap<Long, Entry> rows = new TreeMap<>();
+    private final Set<Long> claimed = new HashSet<>();
+    private final List<Long> released = new ArrayList<>();
+    private long lastLeaseMs;
+
+    FakeOutbox() {
+      super(null, null);
+    }
+
+    void add(long id) {
+      rows.put(id, new Entry(id, event(id), System.currentTimeMillis()));
+    }
+
+    @Override
+    public List<Entry> claim(int limit, long leaseMs) {
+      lastLeaseMs = leaseMs;
+      List<Entry> batch = new ArrayList<>();
+      for (Entry entry : rows.values()) {
+        if (batch.size() == limit) {
+          break;
+        }
+        if (claimed.add(entry.id())) {
+          batch.add(entry);
+        }
+      }
+      return batch;
+    }
+
+    @Override
+    public void delete(long[] ids) {
+      for (long id : ids) {
+        rows.remove(id);
+        claimed.remove(id);
+      }
+    }
+
+    @Override
+    public void release(long[] ids) {
+      for (long id : ids) {
+        released.add(id);
+        claimed.remove(id);
+      }
+    }
+  }
+
+  private static final class FakePublisher extends UploadEventPublisher {
+    private final List<List<Long>> sent = new ArrayList<>();
+    private boolean failNext;
+
+    FakePublisher(AppProperties properties) {
+      super(null, null, properties);
+    }
+
+    @Override
+    public void publishBatch(List<UploadEventMessage> batch) {
+      if (failNext) {
+        failNext = false;
+        throw new AmqpException("Publisher confirms timed out");
+      }
+      sent.add(batch.stream().map(UploadEventMessage::videoId).toList());
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.jutjubic.backend.security;
+
+import com.jutjubic.backend.config.AppProperties;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeasedRateLimiterServiceTest {
+  private static final long WINDOW_MS = 60 * 60 * 1000;
+
+  private final InMemoryWindow window = new InMemoryWindow();
+
+  @Test
+  void nodesSharingAWindowNeverAdmitMoreThanTheLimit() throws Exception {
+    int nodes = 3;
+    int threadsPerNode = 6;
+    int checksPerThread = 600;
+    int keys = 12;
+    int maxHits = 300;
+
+    AtomicLongArray allowedPerKey = new AtomicLongArray(keys);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int n = 0; n < nodes; n++) {
+      LeasedRateLimiterService node = new LeasedRateLimiterService(window, properties());
+      for (int t = 0; t < threadsPerNode; t++) {
+        int offset = n * threadsPerNode + t;
+        Thread thread = new Thread(() -> {
+          try {
+            start.await();
+          } catch (InterruptedException ex) {
+            return;
+          }
+          for (int i = 0; i < checksPerThread; i++) {
+            int key = (offset + i) % keys;
+            if (node.check("rl:comment:" + key, WINDOW_MS, maxHits).allowed()) {
+              allowedPerKey.incrementAndGet(key);
+            }
+          }
+        });
+        thread.start();
+        threads.add(thread);
+      }
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    for (int key = 0; key < keys; key++) {
+      long allowed = allowedPerKey.get(key);
+      assertTrue(allowed <= maxHits, "Key " + key + " admitted " + allowed + " hits");
+      assertTrue(allowed <= window.count("rl:comment:" + key), "Key " + key + " admitted hits it never reserved");
+    }
+    assertTrue(window.calls.get() < nodes * threadsPerNode * checksPerThread / 2);
+  }
+
+  @Test
+  void leasedHitsAndRepeatedDenialsAreAnsweredLocally() {
+    LeasedRateLimiterService node = new LeasedRateLimiterService(window, properties());
+
+    int allowed = 0;
+    for (int i = 0; i < 80; i++) {
+      if (node.check("rl:upload:7", WINDOW_MS, 50).allowed()) {
+        allowed++;
+      }
+    }
+
+    assertEquals(50, allowed);
+    // Ten leases of five hits, then one denial that is remembered for the rest.
+    assertEquals(11, window.calls.get());
+    assertEquals(69L, node.stats().get("localDecisions"));
+  }
+
+  private static AppProperties properties() {
+    AppProperties properties = new AppProperties();
+    properties.getRateLimit().setMaxLeaseSize(10);
+    properties.getRateLimit().setDenyCacheMs(60_000);
+    return properties;
+  }
+
+  /**
+   * Single-window stand-in for the Lua script, atomic per call like the script is.
+   */
+  private static final class InMemoryWindow extends SlidingWindowRateLimiterService {
+    private final Map<String, Integer> counts = new HashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+
+    InMemoryWindow() {
+      super(null);
+    }
+
+    @Override
+    public Lease lease(String key, long windowMs, int maxHits, int requested) {
+      calls.incrementAndGet();
+      synchronized (counts) {
+        int count = counts.getOrDefault(key, 0);
+        int granted = Math.max(0, Math.min(requested, maxHits - count));
+        counts.put(key, count + granted);
+        return granted == 0
+            ? new Lease(0, count + 1, windowMs / 2, windowMs / 2)
+            : new Lease(granted, count + granted, 0, windowMs / 2);
+      }
+    }
+
+    int count(String key) {
+      synchronized (counts) {
+        return counts.getOrDefault(key, 0);
+      }
+    }
+  }
+}
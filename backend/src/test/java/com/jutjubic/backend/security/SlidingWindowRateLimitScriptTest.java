@@ -0,0 +1,197 @@
+package com.jutjubic.backend.security;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.VarArgFunction;
+import org.luaj.vm2.lib.jse.JsePlatform;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the production Lua script against an in-memory stand-in for Redis. Like Redis, the stand-in runs one
+ * script at a time, which is the atomicity guarantee the limiter relies on.
+ */
+class SlidingWindowRateLimitScriptTest {
+  private static final long WINDOW_MS = 60_000;
+  private static final int MAX_HITS = 100;
+  private static final int THREADS = 32;
+  private static final int ATTEMPTS_PER_THREAD = 40;
+  private static final long WINDOW_START = 1_700_000_040_000L;
+
+  @Test
+  void allowsExactlyMaxHitsUnderContention() throws Exception {
+    ScriptedRedis redis = new ScriptedRedis(WINDOW_START + WINDOW_MS / 2);
+
+    List<long[]> replies = hammer(redis, "rl:login:10.0.0.1");
+
+    long allowed = replies.stream().filter(reply -> reply[0] == 1).count();
+    assertEquals(MAX_HITS, allowed);
+    assertEquals(MAX_HITS, redis.hashField("rl:login:10.0.0.1", Long.toString(WINDOW_START / WINDOW_MS)));
+    for (long[] reply : replies) {
+      if (reply[0] == 0) {
+        assertTrue(reply[1] > MAX_HITS);
+        assertEquals(WINDOW_MS / 2, reply[2]);
+      }
+    }
+  }
+
+  @Test
+  void carriesWeightedPreviousWindowIntoTheNextOne() throws Exception {
+    ScriptedRedis redis = new ScriptedRedis(WINDOW_START + 1);
+    hammer(redis, "rl:comment:7");
+
+    // A quarter into the next window, 75% of the previous window's hits still count.
+    redis.now = WINDOW_START + WINDOW_MS + WINDOW_MS / 4;
+    List<long[]> replies = hammer(redis, "rl:comment:7");
+
+    long allowed = replies.stream().filter(reply -> reply[0] == 1).count();
+    assertEquals(MAX_HITS / 4, allowed);
+  }
+
+  @Test
+  void keepsOnlyCurrentAndPreviousWindows() throws Exception {
+    ScriptedRedis redis = new ScriptedRedis(WINDOW_START);
+    for (int window = 0; window < 5; window++) {
+      redis.now = WINDOW_START + window * WINDOW_MS;
+      redis.eval("rl:login:10.0.0.2", WINDOW_MS, MAX_HITS);
+    }
+
+    assertEquals(2, redis.hashSize("rl:login:10.0.0.2"));
+  }
+
+  @Test
+  void leasesNeverExceedTheRemainingQuota() throws Exception {
+    ScriptedRedis redis = new ScriptedRedis(WINDOW_START + WINDOW_MS / 2);
+
+    long granted = 0;
+    long[] reply;
+    do {
+      reply = redis.eval("rl:comment:9", WINDOW_MS, MAX_HITS, 30);
+      granted += reply[0];
+    } while (reply[0] > 0);
+
+    assertEquals(MAX_HITS, granted);
+    assertEquals(WINDOW_MS / 2, reply[2]);
+    assertEquals(WINDOW_MS / 2, reply[3]);
+  }
+
+  private List<long[]> hammer(ScriptedRedis redis, String key) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<List<long[]>>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        List<long[]> replies = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+          replies.add(redis.eval(key, WINDOW_MS, MAX_HITS));
+        }
+        return replies;
+      }));
+    }
+
+    start.countDown();
+    List<long[]> all = new ArrayList<>();
+    for (Future<List<long[]>> future : futures) {
+      all.addAll(future.get());
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    return all;
+  }
+
+  private static final class ScriptedRedis {
+    private final Globals globals = JsePlatform.standardGlobals();
+    private final LuaValue chunk;
+    private final Map<String, Map<String, String>> hashes = new HashMap<>();
+    private volatile long now;
+
+    ScriptedRedis(long now) throws IOException {
+      this.now = now;
+      LuaTable redis = new LuaTable();
+      redis.set("call", new VarArgFunction() {
+        @Override
+        public Varargs invoke(Varargs args) {
+          return command(args);
+        }
+      });
+      globals.set("redis", redis);
+
+      try (InputStream in = new ClassPathResource("scripts/sliding_window_rate_limit.lua").getInputStream()) {
+        chunk = globals.load(new String(in.readAllBytes(), StandardCharsets.UTF_8), "sliding_window_rate_limit");
+      }
+    }
+
+    long[] eval(String key, long windowMs, int maxHits) {
+      return eval(key, windowMs, maxHits, 1);
+    }
+
+    synchronized long[] eval(String key, long windowMs, int maxHits, int requested) {
+      globals.set("KEYS", LuaValue.listOf(new LuaValue[] {LuaValue.valueOf(key)}));
+      globals.set("ARGV", LuaValue.listOf(new LuaValue[] {
+          LuaValue.valueOf(Long.toString(windowMs)),
+          LuaValue.valueOf(Integer.toString(maxHits)),
+          LuaValue.valueOf(Integer.toString(requested))
+      }));
+      LuaValue reply = chunk.call();
+      return new long[] {reply.get(1).tolong(), reply.get(2).tolong(), reply.get(3).tolong(), reply.get(4).tolong()};
+    }
+
+    synchronized long hashField(String key, String field) {
+      return Long.parseLong(hashes.getOrDefault(key, Map.of()).getOrDefault(field, "0"));
+    }
+
+    synchronized int hashSize(String key) {
+      return hashes.getOrDefault(key, Map.of()).size();
+    }
+
+    private LuaValue command(Varargs args) {
+      String name = args.checkjstring(1).toUpperCase();
+      return switch (name) {
+        case "TIME" -> LuaValue.listOf(new LuaValue[] {
+            LuaValue.valueOf(Long.toString(now / 1000)),
+            LuaValue.valueOf(Long.toString((now % 1000) * 1000))
+        });
+        case "HGET" -> {
+          String value = hashes.getOrDefault(args.checkjstring(2), Map.of()).get(args.checkjstring(3));
+          yield value == null ? LuaValue.FALSE : LuaValue.valueOf(value);
+        }
+        case "HINCRBY" -> {
+          Map<String, String> hash = hashes.computeIfAbsent(args.checkjstring(2), k -> new HashMap<>());
+          long next = Long.parseLong(hash.getOrDefault(args.checkjstring(3), "0")) + args.checklong(4);
+          hash.put(args.checkjstring(3), Long.toString(next));
+          yield LuaValue.valueOf(next);
+        }
+        case "HKEYS" -> {
+          List<LuaValue> fields = new ArrayList<>();
+          hashes.getOrDefault(args.checkjstring(2), Map.of()).keySet()
+              .forEach(field -> fields.add(LuaValue.valueOf(field)));
+          yield LuaValue.listOf(fields.toArray(LuaValue[]::new));
+        }
+        case "HDEL" -> {
+          Map<String, String> hash = hashes.get(args.checkjstring(2));
+          yield LuaValue.valueOf(hash != null && hash.remove(args.checkjstring(3)) != null ? 1 : 0);
+        }
+        case "PEXPIRE" -> LuaValue.valueOf(hashes.containsKey(args.checkjstring(2)) ? 1 : 0);
+        default -> throw new IllegalArgumentException("Unsupported command " + name);
+      };
+    }
+  }
+}
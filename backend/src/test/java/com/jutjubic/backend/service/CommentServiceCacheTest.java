@@ -0,0 +1,149 @@
+package com.jutjubic.backend.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.jutjubic.backend.dto.CommentCursorPageResponse;
+import com.jutjubic.backend.entity.Comment;
+import com.jutjubic.backend.entity.User;
+import com.jutjubic.backend.repository.CommentRepository;
+import com.jutjubic.backend.repository.VideoRepository;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Comment pages are cached as the JSON bytes of the response and written out as they are on a hit, so the
+ * stored bytes must be exactly what the JSON converter would send for the parsed page.
+ */
+class CommentServiceCacheTest {
+  private static final OffsetDateTime NOW = OffsetDateTime.parse("2026-01-01T12:00:00.123456+02:00");
+  private static final long VIDEO_ID = 3;
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+      .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .modulesToInstall(new BlackbirdModule())
+      .build();
+  private final Map<String, byte[]> redis = new HashMap<>();
+  private final AtomicInteger queries = new AtomicInteger();
+  private final CommentService service = new CommentService(
+      commentRepository(comments(21)),
+      videoRepository(),
+      null,
+      new CacheService(null) {
+        @Override
+        public byte[] getBuffer(String key) {
+          return redis.get(key);
+        }
+
+        @Override
+        public void setBuffer(String key, byte[] data, long ttlSeconds) {
+          redis.put(key, data);
+        }
+      },
+      null,
+      objectMapper
+  );
+
+  @Test
+  void cachedPageIsWhatTheJsonConverterWouldSend() throws Exception {
+    for (int limit : new int[] {5, 20}) {
+      byte[] stored = service.findByVideoIdAfter(VIDEO_ID, "7", null, limit);
+
+      CommentCursorPageResponse page = objectMapper.readerFor(CommentCursorPageResponse.class)
+          .without(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE)
+          .readValue(stored);
+      MockHttpOutputMessage reparsed = new MockHttpOutputMessage();
+      new MappingJackson2HttpMessageConverter(objectMapper).write(page, MediaType.APPLICATION_JSON, reparsed);
+      MockHttpOutputMessage raw = new MockHttpOutputMessage();
+      new ByteArrayHttpMessageConverter().write(stored, MediaType.APPLICATION_JSON, raw);
+
+      assertArrayEquals(reparsed.getBodyAsBytes(), raw.getBodyAsBytes());
+    }
+  }
+
+  @Test
+  void hitReturnsTheStoredBytesWithoutQuerying() {
+    byte[] miss = service.findByVideoIdAfter(VIDEO_ID, "7", null, 20);
+    byte[] hit = service.findByVideoIdAfter(VIDEO_ID, "7", null, 20);
+
+    assertArrayEquals(miss, hit);
+    assertEquals(1, queries.get());
+    assertArrayEquals(miss, redis.get("comments:3:gen:7:after:first:limit:20"));
+
+    service.findByVideoIdAfter(VIDEO_ID, "8", null, 20);
+    assertEquals(2, queries.get());
+  }
+
+  private CommentRepository commentRepository(List<Comment> rows) {
+    return (CommentRepository) Proxy.newProxyInstance(
+        CommentRepository.class.getClassLoader(),
+        new Class<?>[] {CommentRepository.class},
+        (proxy, method, args) -> {
+          if (!method.getName().equals("findByVideoIdOrderByCreatedAtDescIdDesc") || !(args[1] instanceof Limit limit)) {
+            throw new UnsupportedOperationException(method.getName());
+          }
+          queries.incrementAndGet();
+          return rows.subList(0, Math.min(rows.size(), limit.max()));
+        }
+    );
+  }
+
+  private static VideoRepository videoRepository() {
+    return (VideoRepository) Proxy.newProxyInstance(
+        VideoRepository.class.getClassLoader(),
+        new Class<?>[] {VideoRepository.class},
+        (proxy, method, args) -> {
+          if (!method.getName().equals("findCommentCountById")) {
+            throw new UnsupportedOperationException(method.getName());
+          }
+          return Optional.of(21);
+        }
+    );
+  }
+
+  private static List<Comment> comments(int count) {
+    User user = new User();
+    user.setId(7L);
+    user.setUsername("user_7");
+
+    List<Comment> comments = new ArrayList<>(count);
+    for (long id = count; id >= 1; id--) {
+      Comment comment = new Comment();
+      comment.setId(id);
+      comment.setText("Komentar " + id + " sa \"navodnicima\" i ćirilicom: ћао");
+      comment.setUser(user);
+      setCreatedAt(comment, NOW.minusSeconds(count - id));
+      comments.add(comment);
+    }
+    return comments;
+  }
+
+  // Comments only get a timestamp from the database, so the test sets it directly.
+  private static void setCreatedAt(Comment comment, OffsetDateTime value) {
+    try {
+      Field field = Comment.class.getDeclaredField("createdAt");
+      field.setAccessible(true);
+      field.set(comment, value);
+    } catch (ReflectiveOperationException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
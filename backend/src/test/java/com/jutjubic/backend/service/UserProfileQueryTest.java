@@ -0,0 +1,152 @@
+package com.jutjubic.backend.service;
+
+import com.jutjubic.backend.exception.ApiException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link UserService#getProfile} against a real PostgreSQL and counts the statements it sends. Only
+ * runs when {@code TEST_POSTGRES_URL} points at a database set aside for tests; the application's
+ * {@code JDBC_DATABASE_*} settings are never read. Each test migrates a fresh schema of its own and drops
+ * it afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = "jdbc:postgresql:.+")
+class UserProfileQueryTest {
+  private final String schema = "profile_test_" + UUID.randomUUID().toString().replace("-", "");
+  private final List<String> statements = new ArrayList<>();
+
+  private DriverManagerDataSource dataSource;
+  private JdbcTemplate setup;
+  private UserService userService;
+
+  @BeforeEach
+  void createSchema() {
+    dataSource = new DriverManagerDataSource(
+        System.getenv("TEST_POSTGRES_URL"),
+        System.getenv().getOrDefault("TEST_POSTGRES_USERNAME", "jutjubic"),
+        System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", "jutjubic123")
+    );
+    Flyway.configure()
+        .dataSource(dataSource)
+        .schemas(schema)
+        .defaultSchema(schema)
+        .createSchemas(true)
+        .load()
+        .migrate();
+    dataSource.setSchema(schema);
+
+    setup = new JdbcTemplate(dataSource);
+    userService = new UserService(null, new JdbcTemplate(new CountingDataSource(dataSource)));
+  }
+
+  @AfterEach
+  void dropSchema() {
+    if (setup != null) {
+      setup.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+    }
+  }
+
+  @Test
+  void profileIsOneStatementServedByThePrimaryKey() {
+    long id = setup.queryForObject("""
+        INSERT INTO users (email, username, password_hash, first_name, last_name, address, video_count, comment_count)
+        VALUES ('ana@example.com', 'ana', 'x', 'Ana', 'Anić', 'Novi Sad', 3, 5)
+        RETURNING id
+        """, Long.class);
+
+    Map<String, Object> profile = userService.getProfile(id);
+
+    assertEquals(1, statements.size(), "getProfile should send one statement, sent: " + statements);
+    assertEquals(id, profile.get("id"));
+    assertEquals("ana", profile.get("username"));
+    assertEquals("Anić", profile.get("lastName"));
+    assertEquals(Map.of("videos", 3L, "comments", 5L), profile.get("_count"));
+
+    String plan = explain(statements.get(0), id);
+    assertFalse(plan.contains("Seq Scan"), "Profile query fell back to a sequential scan:\n" + plan);
+    assertTrue(plan.contains("users_pkey"), "Profile query should be answered by the users primary key:\n" + plan);
+  }
+
+  @Test
+  void missingUserIsNotFoundAfterOneStatement() {
+    ApiException ex = assertThrows(ApiException.class, () -> userService.getProfile(Long.MAX_VALUE));
+
+    assertEquals(404, ex.getStatusCode());
+    assertEquals(1, statements.size());
+  }
+
+  // Sequential scans are priced out, so even on a near-empty table a Seq Scan means no index fits.
+  private String explain(String sql, long id) {
+    return setup.execute((Connection connection) -> {
+      connection.setAutoCommit(false);
+      try {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("SET LOCAL enable_seqscan = off");
+        }
+        List<String> lines = new ArrayList<>();
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+          explain.setLong(1, id);
+          try (ResultSet rs = explain.executeQuery()) {
+            while (rs.next()) {
+              lines.add(rs.getString(1));
+            }
+          }
+        }
+        return String.join("\n", lines);
+      } finally {
+        connection.rollback();
+      }
+    });
+  }
+
+  /** Records the SQL of every statement prepared or created on its connections. */
+  private final class CountingDataSource extends DelegatingDataSource {
+    CountingDataSource(DataSource target) {
+      super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      Connection connection = super.getConnection();
+      return (Connection) Proxy.newProxyInstance(
+          Connection.class.getClassLoader(),
+          new Class<?>[] {Connection.class},
+          (proxy, method, args) -> {
+            if (method.getName().equals("prepareStatement") || method.getName().equals("prepareCall")) {
+              statements.add((String) args[0]);
+            } else if (method.getName().equals("createStatement")) {
+              statements.add("<statement>");
+            }
+            try {
+              return method.invoke(connection, args);
+            } catch (InvocationTargetException ex) {
+              throw ex.getCause();
+            }
+          }
+      );
+    }
+  }
+}
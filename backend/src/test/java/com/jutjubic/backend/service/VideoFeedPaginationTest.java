@@ -0,0 +1,181 @@
+package com.jutjubic.backend.service;
+
+import com.jutjubic.backend.config.AppProperties;
+import com.jutjubic.backend.dto.VideoCursorPageResponse;
+import com.jutjubic.backend.dto.VideoListItem;
+import com.jutjubic.backend.repository.UserRepository;
+import com.jutjubic.backend.repository.VideoRepository;
+import com.jutjubic.backend.util.KeysetCursor;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Follows {@code nextCursor} through the video feeds on a real PostgreSQL and checks that every video
+ * comes back exactly once, in {@code created_at DESC, id DESC} order, including when a page boundary falls
+ * between videos that share a timestamp. Only runs when {@code TEST_POSTGRES_URL} points at a database set
+ * aside for tests; the schema is created for this class and dropped afterwards.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = "jdbc:postgresql:.+")
+class VideoFeedPaginationTest {
+  private static final String SCHEMA = "feed_test_" + UUID.randomUUID().toString().replace("-", "");
+  // Microseconds on purpose: a cursor that dropped them would repeat or skip the tied rows.
+  private static final OffsetDateTime NEWEST = OffsetDateTime.parse("2026-01-01T12:00:00.123456Z");
+  private static final int VIDEOS_PER_TIMESTAMP = 3;
+  private static final int LIMIT = 4;
+
+  @Autowired
+  private VideoRepository videoRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @TempDir
+  Path uploadDir;
+
+  @DynamicPropertySource
+  static void database(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", () -> System.getenv("TEST_POSTGRES_URL"));
+    registry.add("spring.datasource.username", VideoFeedPaginationTest::username);
+    registry.add("spring.datasource.password", VideoFeedPaginationTest::password);
+    registry.add("spring.datasource.hikari.schema", () -> SCHEMA);
+    registry.add("spring.flyway.schemas", () -> SCHEMA);
+    registry.add("spring.flyway.default-schema", () -> SCHEMA);
+    registry.add("spring.flyway.create-schemas", () -> "true");
+  }
+
+  @AfterAll
+  static void dropSchema() throws SQLException {
+    try (Connection connection = DriverManager.getConnection(System.getenv("TEST_POSTGRES_URL"), username(), password());
+         Statement statement = connection.createStatement()) {
+      statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+  }
+
+  @Test
+  void feedCursorsVisitEveryVideoOnceInOrder() {
+    long author = insertUser("ana");
+    List<Row> rows = insertVideos(List.of(author), 15);
+
+    List<Long> seen = follow(after -> videoService().findAfter(after, LIMIT));
+
+    assertEquals(expectedOrder(rows), seen);
+  }
+
+  @Test
+  void userCursorsStayWithinTheUserAndVisitEachVideoOnce() {
+    long ana = insertUser("ana");
+    long bojan = insertUser("bojan");
+    List<Row> rows = insertVideos(List.of(ana, bojan), 22);
+
+    UserService userService = new UserService(videoRepository, jdbcTemplate);
+    List<Long> seen = follow(after -> userService.getUserVideosAfter(ana, after, LIMIT));
+
+    assertEquals(expectedOrder(rows.stream().filter(row -> row.userId() == ana).toList()), seen);
+  }
+
+  @Test
+  void pageEndingOnTheLastVideoHasNoNextCursor() {
+    long author = insertUser("ana");
+    insertVideos(List.of(author), LIMIT);
+
+    VideoCursorPageResponse page = videoService().findAfter(null, LIMIT);
+
+    assertEquals(LIMIT, page.videos().size());
+    assertNull(page.pagination().nextCursor());
+  }
+
+  private List<Long> follow(Function<KeysetCursor, VideoCursorPageResponse> fetch) {
+    List<Long> seen = new ArrayList<>();
+    KeysetCursor after = null;
+    do {
+      VideoCursorPageResponse page = fetch.apply(after);
+      assertTrue(page.videos().size() <= LIMIT);
+      page.videos().stream().map(VideoListItem::id).forEach(seen::add);
+      after = KeysetCursor.parse(page.pagination().nextCursor());
+    } while (after != null);
+    return seen;
+  }
+
+  private VideoService videoService() {
+    AppProperties properties = new AppProperties();
+    properties.setUploadDir(uploadDir.toString());
+    return new VideoService(videoRepository, userRepository, null, null, null, properties);
+  }
+
+  private long insertUser(String username) {
+    return jdbcTemplate.queryForObject("""
+        INSERT INTO users (email, username, password_hash, first_name, last_name, address)
+        VALUES (?, ?, 'x', 'Test', 'User', 'Novi Sad')
+        RETURNING id
+        """, Long.class, username + "@example.com", username);
+  }
+
+  // Inserted in shuffled order so that ids do not follow the timestamps.
+  private List<Row> insertVideos(List<Long> userIds, int count) {
+    List<Integer> slots = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      slots.add(i);
+    }
+    Collections.shuffle(slots, new Random(7));
+
+    List<Row> rows = new ArrayList<>();
+    for (int slot : slots) {
+      OffsetDateTime createdAt = NEWEST.minusSeconds(slot / VIDEOS_PER_TIMESTAMP);
+      long userId = userIds.get(slot % userIds.size());
+      long id = jdbcTemplate.queryForObject("""
+          INSERT INTO videos (title, description, thumbnail_path, video_path, user_id, created_at, updated_at)
+          VALUES (?, '', 'thumbnails/t.jpg', 'videos/v.mp4', ?, ?, ?)
+          RETURNING id
+          """, Long.class, "Video " + slot, userId, createdAt, createdAt);
+      rows.add(new Row(id, userId, createdAt));
+    }
+    return rows;
+  }
+
+  private static List<Long> expectedOrder(List<Row> rows) {
+    return rows.stream()
+        .sorted(Comparator.comparing(Row::createdAt).thenComparingLong(Row::id).reversed())
+        .map(Row::id)
+        .toList();
+  }
+
+  private static String username() {
+    return System.getenv().getOrDefault("TEST_POSTGRES_USERNAME", "jutjubic");
+  }
+
+  private static String password() {
+    return System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", "jutjubic123");
+  }
+
+  private record Row(long id, long userId, OffsetDateTime createdAt) {}
+}
@@ -0,0 +1,297 @@
+package com.jutjubic.backend.service;
+
+import com.jutjubic.backend.config.AppProperties;
+import com.jutjubic.backend.entity.Video;
+import com.jutjubic.backend.exception.ApiException;
+import com.jutjubic.backend.repository.VideoRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VideoStreamServiceTest {
+  private static final long VIDEO_ID = 42;
+  private static final int SIZE = 200_000;
+  private static final Instant MODIFIED = Instant.parse("2026-03-01T10:15:30Z");
+
+  @TempDir
+  Path uploadDir;
+
+  private final byte[] content = new byte[SIZE];
+  private final AtomicInteger lookups = new AtomicInteger();
+  private VideoStreamService service;
+  private String etag;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    new Random(1).nextBytes(content);
+    Path file = Files.createDirectories(uploadDir.resolve("videos")).resolve("clip.mp4");
+    Files.write(file, content);
+    Files.setLastModifiedTime(file, FileTime.from(MODIFIED));
+    etag = "\"%s-%s\"".formatted(Long.toHexString(SIZE), Long.toHexString(MODIFIED.toEpochMilli()));
+
+    AppProperties properties = new AppProperties();
+    properties.setUploadDir(uploadDir.toString());
+    service = new VideoStreamService(videoRepository("videos/clip.mp4"), properties);
+  }
+
+  @Test
+  void noRangeSendsTheWholeFile() throws IOException {
+    MockHttpServletResponse response = stream(get());
+
+    assertEquals(200, response.getStatus());
+    assertEquals("video/mp4", response.getContentType());
+    assertEquals(SIZE, response.getContentLengthLong());
+    assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+    assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+    assertEquals(MODIFIED.toEpochMilli(), response.getDateHeader(HttpHeaders.LAST_MODIFIED));
+    assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+    assertArrayEquals(content, response.getContentAsByteArray());
+  }
+
+  @Test
+  void singleRangeSendsExactlyThoseBytes() throws IOException {
+    // Larger than the copy buffer, so the copy loop has to go round more than once.
+    MockHttpServletResponse response = stream(get("bytes=1000-99999"));
+
+    assertPartial(response, 1000, 99_999);
+  }
+
+  @Test
+  void openEndedAndSuffixRangesRunToTheEndOfTheFile() throws IOException {
+    assertPartial(stream(get("bytes=150000-")), 150_000, SIZE - 1);
+    assertPartial(stream(get("bytes=-500")), SIZE - 500, SIZE - 1);
+    assertPartial(stream(get("bytes=-999999")), 0, SIZE - 1);
+    assertPartial(stream(get("bytes=199000-999999")), 199_000, SIZE - 1);
+  }
+
+  @Test
+  void overlappingRangesLargerThanTheFileAreServedAsAWholeFile() throws IOException {
+    MockHttpServletResponse response = stream(get("bytes=0-,1000-"));
+
+    assertEquals(200, response.getStatus());
+    assertEquals(SIZE, response.getContentLengthLong());
+    assertArrayEquals(content, response.getContentAsByteArray());
+  }
+
+  @Test
+  void malformedOrNonByteRangeIsIgnored() throws IOException {
+    for (String range : new String[] {"bytes=abc", "items=0-10", "bytes=10-5"}) {
+      MockHttpServletResponse response = stream(get(range));
+
+      assertEquals(200, response.getStatus(), range);
+      assertEquals(SIZE, response.getContentAsByteArray().length, range);
+    }
+  }
+
+  @Test
+  void unsatisfiableRangeIs416WithTheFileSize() throws IOException {
+    for (String range : new String[] {"bytes=200000-", "bytes=300000-300010", "bytes=-0", "bytes=-0,200000-"}) {
+      MockHttpServletResponse response = stream(get(range));
+
+      assertEquals(416, response.getStatus(), range);
+      assertEquals("bytes */" + SIZE, response.getHeader(HttpHeaders.CONTENT_RANGE), range);
+      assertEquals(0, response.getContentAsByteArray().length, range);
+    }
+  }
+
+  @Test
+  void unsatisfiablePartsOfAMultiRangeAreDropped() throws IOException {
+    assertPartial(stream(get("bytes=-0,10-19")), 10, 19);
+    assertPartial(stream(get("bytes=10-19,500000-")), 10, 19);
+  }
+
+  @Test
+  void ifRangeWithTheCurrentValidatorKeepsTheRange() throws IOException {
+    MockHttpServletRequest byEtag = get("bytes=0-99");
+    byEtag.addHeader(HttpHeaders.IF_RANGE, etag);
+    MockHttpServletRequest byDate = get("bytes=0-99");
+    byDate.addHeader(HttpHeaders.IF_RANGE, MODIFIED.toEpochMilli());
+
+    assertPartial(stream(byEtag), 0, 99);
+    assertPartial(stream(byDate), 0, 99);
+  }
+
+  @Test
+  void ifRangeWithAStaleValidatorSendsTheWholeFile() throws IOException {
+    MockHttpServletRequest byEtag = get("bytes=0-99");
+    byEtag.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+    MockHttpServletRequest byWeakEtag = get("bytes=0-99");
+    byWeakEtag.addHeader(HttpHeaders.IF_RANGE, "W/" + etag);
+    MockHttpServletRequest byDate = get("bytes=0-99");
+    byDate.addHeader(HttpHeaders.IF_RANGE, MODIFIED.minusSeconds(60).toEpochMilli());
+
+    for (MockHttpServletRequest request : new MockHttpServletRequest[] {byEtag, byWeakEtag, byDate}) {
+      MockHttpServletResponse response = stream(request);
+
+      assertEquals(200, response.getStatus());
+      assertArrayEquals(content, response.getContentAsByteArray());
+    }
+  }
+
+  @Test
+  void matchingConditionalRequestIs304WithoutABody() throws IOException {
+    MockHttpServletRequest byEtag = get("bytes=0-99");
+    byEtag.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag);
+    MockHttpServletRequest byDate = get();
+    byDate.addHeader(HttpHeaders.IF_MODIFIED_SINCE, MODIFIED.toEpochMilli());
+
+    for (MockHttpServletRequest request : new MockHttpServletRequest[] {byEtag, byDate}) {
+      MockHttpServletResponse response = stream(request);
+
+      assertEquals(304, response.getStatus());
+      assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+      assertEquals(0, response.getContentAsByteArray().length);
+    }
+  }
+
+  @Test
+  void ifNoneMatchDecidesOverIfModifiedSince() throws IOException {
+    MockHttpServletRequest request = get();
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\"");
+    request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, MODIFIED.toEpochMilli());
+
+    assertEquals(200, stream(request).getStatus());
+  }
+
+  @Test
+  void multipleRangesAreFramedAsMultipartByteranges() throws IOException {
+    MockHttpServletResponse response = stream(get("bytes=0-9,100000-100099,-5"));
+
+    assertEquals(206, response.getStatus());
+    String contentType = response.getContentType();
+    assertTrue(contentType.startsWith("multipart/byteranges; boundary="), contentType);
+    String boundary = contentType.substring("multipart/byteranges; boundary=".length());
+
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    for (long[] range : new long[][] {{0, 9}, {100_000, 100_099}, {SIZE - 5, SIZE - 1}}) {
+      expected.writeBytes(("\r\n--%s\r\nContent-Type: video/mp4\r\nContent-Range: bytes %d-%d/%d\r\n\r\n")
+          .formatted(boundary, range[0], range[1], SIZE)
+          .getBytes(StandardCharsets.US_ASCII));
+      expected.writeBytes(Arrays.copyOfRange(content, (int) range[0], (int) range[1] + 1));
+    }
+    expected.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+
+    assertArrayEquals(expected.toByteArray(), response.getContentAsByteArray());
+    assertEquals(expected.size(), response.getContentLengthLong());
+    assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+  }
+
+  @Test
+  void headReportsTheLengthWithoutABody() throws IOException {
+    MockHttpServletRequest single = get("bytes=0-99");
+    single.setMethod("HEAD");
+    MockHttpServletRequest multipart = get("bytes=0-9,20-29");
+    multipart.setMethod("HEAD");
+
+    MockHttpServletResponse singleResponse = stream(single);
+    MockHttpServletResponse multipartResponse = stream(multipart);
+
+    assertEquals(206, singleResponse.getStatus());
+    assertEquals(100, singleResponse.getContentLengthLong());
+    assertEquals(0, singleResponse.getContentAsByteArray().length);
+    assertEquals(206, multipartResponse.getStatus());
+    assertTrue(multipartResponse.getContentLengthLong() > 20);
+    assertEquals(0, multipartResponse.getContentAsByteArray().length);
+  }
+
+  @Test
+  void singleRangeIsHandedToSendfileWhenTheConnectorOffersIt() throws IOException {
+    MockHttpServletRequest request = get("bytes=100-199");
+    request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+    MockHttpServletResponse response = stream(request);
+
+    assertEquals(206, response.getStatus());
+    assertEquals(100, response.getContentLengthLong());
+    assertEquals(0, response.getContentAsByteArray().length);
+    assertEquals(uploadDir.resolve("videos/clip.mp4").toAbsolutePath().normalize().toString(),
+        request.getAttribute("org.apache.tomcat.sendfile.filename"));
+    assertEquals(100L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+    assertEquals(200L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+  }
+
+  @Test
+  void videoPathIsLookedUpOncePerVideo() throws IOException {
+    stream(get("bytes=0-99"));
+    stream(get("bytes=100-199"));
+    stream(get());
+
+    assertEquals(1, lookups.get());
+  }
+
+  @Test
+  void pathOutsideTheUploadDirectoryIsNotServed() {
+    AppProperties properties = new AppProperties();
+    properties.setUploadDir(uploadDir.toString());
+    VideoStreamService escaping = new VideoStreamService(videoRepository("../../etc/passwd"), properties);
+
+    ApiException ex = assertThrows(
+        ApiException.class,
+        () -> escaping.stream(VIDEO_ID, get(), new MockHttpServletResponse())
+    );
+
+    assertEquals(404, ex.getStatusCode());
+  }
+
+  private void assertPartial(MockHttpServletResponse response, int start, int end) throws IOException {
+    assertEquals(206, response.getStatus());
+    assertEquals("video/mp4", response.getContentType());
+    assertEquals("bytes %d-%d/%d".formatted(start, end, SIZE), response.getHeader(HttpHeaders.CONTENT_RANGE));
+    assertEquals(end - start + 1, response.getContentLengthLong());
+    assertArrayEquals(Arrays.copyOfRange(content, start, end + 1), response.getContentAsByteArray());
+  }
+
+  private MockHttpServletResponse stream(MockHttpServletRequest request) throws IOException {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    service.stream(VIDEO_ID, request, response);
+    return response;
+  }
+
+  private static MockHttpServletRequest get() {
+    return new MockHttpServletRequest("GET", "/api/videos/" + VIDEO_ID + "/stream");
+  }
+
+  private static MockHttpServletRequest get(String range) {
+    MockHttpServletRequest request = get();
+    request.addHeader(HttpHeaders.RANGE, range);
+    return request;
+  }
+
+  private VideoRepository videoRepository(String videoPath) {
+    return (VideoRepository) Proxy.newProxyInstance(
+        VideoRepository.class.getClassLoader(),
+        new Class<?>[] {VideoRepository.class},
+        (proxy, method, args) -> {
+          if (!method.getName().equals("findById")) {
+            throw new UnsupportedOperationException(method.getName());
+          }
+          lookups.incrementAndGet();
+          Video video = new Video();
+          video.setId((Long) args[0]);
+          video.setVideoPath(videoPath);
+          return Optional.of(video);
+        }
+    );
+  }
+}
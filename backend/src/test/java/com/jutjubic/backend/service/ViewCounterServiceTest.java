@@ -0,0 +1,163 @@
+package com.jutjubic.backend.service;
+
+import com.jutjubic.backend.config.AppProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ViewCounterServiceTest {
+  private final VideosTable table = new VideosTable();
+  private final ViewCounterService service = new ViewCounterService(table, new ResourceVersionService(null) {
+    @Override
+    public void bump(String scope) {}
+  }, new AppProperties());
+
+  @Test
+  void flushWritesTheDeltasInIdOrderAndClearsThem() {
+    service.increment(7, 0);
+    service.increment(3, 0);
+    service.increment(7, 0);
+
+    assertEquals(2, service.flush());
+
+    assertEquals(List.of(List.of(3L, 7L)), table.batchIds);
+    assertEquals(Map.of(3L, 1L, 7L, 2L), table.views);
+    assertEquals(0, service.pendingViews(7));
+    assertEquals(0, service.flush());
+  }
+
+  @Test
+  void viewsStayCountedWhileTheirUpdateIsInFlight() {
+    for (int i = 0; i < 5; i++) {
+      service.increment(1, 100);
+    }
+    // The UPDATE has not committed yet, so a reader still loads the old persisted count.
+    table.duringUpdate = () -> assertEquals(106, service.increment(1, 100));
+
+    service.flush();
+
+    table.duringUpdate = null;
+    assertEquals(1, service.pendingViews(1));
+    assertEquals(105 + 2, service.increment(1, 105));
+  }
+
+  @Test
+  void failedFlushKeepsTheViewsForTheNextOne() {
+    service.increment(1, 0);
+    service.increment(1, 0);
+    table.failNext = true;
+
+    assertEquals(0, service.flush());
+    assertEquals(2, service.pendingViews(1));
+    assertEquals(3, service.increment(1, 0));
+
+    assertEquals(1, service.flush());
+    assertEquals(Map.of(1L, 3L), table.views);
+  }
+
+  @Test
+  void idleCounterIsDroppedAndComesBackOnTheNextView() {
+    service.increment(1, 0);
+    service.flush();
+    service.flush();
+
+    assertEquals(0, service.pendingViews(1));
+    assertEquals(11, service.increment(1, 10));
+    service.flush();
+    assertEquals(Map.of(1L, 2L), table.views);
+  }
+
+  @Test
+  void noViewIsLostWhileIdleCountersAreDropped() throws Exception {
+    int threads = 4;
+    int viewsPerThread = 20_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    AtomicBoolean running = new AtomicBoolean(true);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      Future<?> flusher = executor.submit(() -> {
+        await(start);
+        while (running.get()) {
+          service.flush();
+        }
+      });
+      List<Future<?>> viewers = new ArrayList<>();
+      for (int t = 0; t < threads - 1; t++) {
+        viewers.add(executor.submit(() -> {
+          await(start);
+          // Sparse views keep counters going idle between flushes, which is when they are dropped.
+          for (int i = 0; i < viewsPerThread; i++) {
+            service.increment(i % 64, 0);
+            if (i % 16 == 0) {
+              Thread.yield();
+            }
+          }
+        }));
+      }
+      start.countDown();
+      for (Future<?> viewer : viewers) {
+        viewer.get(30, TimeUnit.SECONDS);
+      }
+      running.set(false);
+      flusher.get(30, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+    service.flush();
+
+    long persisted = table.views.values().stream().mapToLong(Long::longValue).sum();
+    assertEquals((long) (threads - 1) * viewsPerThread, persisted);
+    for (long id = 0; id < 64; id++) {
+      assertEquals(0, service.pendingViews(id));
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(5, TimeUnit.SECONDS));
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Applies {@link ViewCounterService#FLUSH_SQL} to an in-memory view_count column. */
+  private static final class VideosTable extends JdbcTemplate {
+    private final Map<Long, Long> views = new ConcurrentHashMap<>();
+    private final List<List<Long>> batchIds = new ArrayList<>();
+    private volatile Runnable duringUpdate;
+    private volatile boolean failNext;
+
+    @Override
+    public int update(String sql, Object... args) {
+      if (failNext) {
+        failNext = false;
+        throw new DataAccessResourceFailureException("connection reset");
+      }
+      long[] ids = (long[]) args[0];
+      long[] deltas = (long[]) args[1];
+      if (duringUpdate != null) {
+        duringUpdate.run();
+      }
+      List<Long> batch = new ArrayList<>();
+      for (int i = 0; i < ids.length; i++) {
+        views.merge(ids[i], deltas[i], Long::sum);
+        batch.add(ids[i]);
+      }
+      batchIds.add(batch);
+      return ids.length;
+    }
+  }
+}
@@ -0,0 +1,310 @@
+package com.jutjubic.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jutjubic.backend.dto.WatchPartyMemberResponse;
+import com.jutjubic.backend.dto.WatchPartyResponse;
+import com.jutjubic.backend.exception.ApiException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Watch-party joins and closes through the real service, repositories and room cache on PostgreSQL, with
+ * the statements sent to the database counted. Redis is replaced by an in-memory hash store. Only runs
+ * when {@code TEST_POSTGRES_URL} points at a database set aside for tests; the schema is created for this
+ * class and dropped afterwards.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = "jdbc:postgresql:.+")
+@Import({WatchPartyService.class, WatchPartyRoomCache.class, WatchPartyServiceTest.Beans.class})
+// The service commits for real, so the cache writes that wait for a commit happen.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WatchPartyServiceTest {
+  private static final String SCHEMA = "watch_party_test_" + UUID.randomUUID().toString().replace("-", "");
+  private static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+  @Autowired
+  private WatchPartyService watchPartyService;
+
+  @Autowired
+  private WatchPartyRoomCache roomCache;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @DynamicPropertySource
+  static void database(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", () -> System.getenv("TEST_POSTGRES_URL"));
+    registry.add("spring.datasource.username", WatchPartyServiceTest::username);
+    registry.add("spring.datasource.password", WatchPartyServiceTest::password);
+    registry.add("spring.datasource.hikari.schema", () -> SCHEMA);
+    registry.add("spring.flyway.schemas", () -> SCHEMA);
+    registry.add("spring.flyway.default-schema", () -> SCHEMA);
+    registry.add("spring.flyway.create-schemas", () -> "true");
+  }
+
+  @AfterAll
+  static void dropSchema() throws SQLException {
+    try (Connection connection = DriverManager.getConnection(System.getenv("TEST_POSTGRES_URL"), username(), password());
+         Statement statement = connection.createStatement()) {
+      statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+  }
+
+  @Test
+  void newMemberIsOneStatementAndLandsInTheCachedRoom() {
+    long host = insertUser();
+    long guest = insertUser();
+    String roomCode = watchPartyService.create(host).roomCode();
+
+    STATEMENTS.set(0);
+    WatchPartyResponse joined = watchPartyService.join(roomCode, guest);
+
+    assertEquals(1, STATEMENTS.get());
+    assertEquals(List.of(host, guest), memberIds(joined));
+    assertEquals(joined, roomCache.get(roomCode));
+    assertEquals(2, memberRows(joined.id()));
+  }
+
+  @Test
+  void cachedRoomIsServedWithoutTheDatabase() {
+    long host = insertUser();
+    long guest = insertUser();
+    String roomCode = watchPartyService.create(host).roomCode();
+    watchPartyService.join(roomCode, guest);
+
+    STATEMENTS.set(0);
+    WatchPartyResponse polled = watchPartyService.getRoom(roomCode);
+    WatchPartyResponse rejoined = watchPartyService.join(roomCode, guest);
+
+    assertEquals(0, STATEMENTS.get());
+    assertEquals(polled, rejoined);
+    assertEquals(2, memberRows(polled.id()));
+  }
+
+  @Test
+  void uncachedRoomIsLoadedOnceAndCached() {
+    long host = insertUser();
+    WatchPartyResponse created = watchPartyService.create(host);
+    Beans.REDIS.clear();
+
+    WatchPartyResponse loaded = watchPartyService.getRoom(created.roomCode());
+    STATEMENTS.set(0);
+    watchPartyService.getRoom(created.roomCode());
+
+    assertEquals(memberIds(created), memberIds(loaded));
+    assertEquals(0, STATEMENTS.get());
+  }
+
+  @Test
+  void joinIsRefusedWhenTheCachedRoomMissedTheClose() {
+    long host = insertUser();
+    long guest = insertUser();
+    WatchPartyResponse created = watchPartyService.create(host);
+    jdbcTemplate.update("UPDATE watch_parties SET is_active = FALSE WHERE id = ?", created.id());
+
+    ApiException ex = assertThrows(ApiException.class, () -> watchPartyService.join(created.roomCode(), guest));
+
+    assertEquals(404, ex.getStatusCode());
+    assertEquals(1, memberRows(created.id()));
+    STATEMENTS.set(0);
+    assertThrows(ApiException.class, () -> watchPartyService.getRoom(created.roomCode()));
+    assertEquals(0, STATEMENTS.get());
+  }
+
+  @Test
+  void closedRoomStaysClosedWhenAStaleSnapshotIsWrittenAfterwards() {
+    long host = insertUser();
+    WatchPartyResponse created = watchPartyService.create(host);
+
+    watchPartyService.close(created.roomCode(), host);
+    roomCache.put(created.roomCode(), created);
+
+    ApiException ex = assertThrows(ApiException.class, () -> watchPartyService.getRoom(created.roomCode()));
+    assertEquals(404, ex.getStatusCode());
+  }
+
+  @Test
+  void onlyTheCreatorCanClose() {
+    long host = insertUser();
+    long guest = insertUser();
+    String roomCode = watchPartyService.create(host).roomCode();
+
+    ApiException ex = assertThrows(ApiException.class, () -> watchPartyService.close(roomCode, guest));
+
+    assertEquals(403, ex.getStatusCode());
+    assertTrue(watchPartyService.getRoom(roomCode).isActive());
+  }
+
+  @Test
+  void unknownUserCannotJoin() {
+    String roomCode = watchPartyService.create(insertUser()).roomCode();
+
+    ApiException ex = assertThrows(ApiException.class, () -> watchPartyService.join(roomCode, Integer.MAX_VALUE));
+
+    assertEquals(404, ex.getStatusCode());
+  }
+
+  private long insertUser() {
+    String username = "user_" + UUID.randomUUID().toString().substring(0, 8);
+    return jdbcTemplate.queryForObject("""
+        INSERT INTO users (email, username, password_hash, first_name, last_name, address)
+        VALUES (?, ?, 'x', 'Test', 'User', 'Novi Sad')
+        RETURNING id
+        """, Long.class, username + "@example.com", username);
+  }
+
+  private int memberRows(long partyId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT count(*) FROM watch_party_members WHERE watch_party_id = ?", Integer.class, partyId);
+  }
+
+  private static List<Long> memberIds(WatchPartyResponse room) {
+    return room.members().stream().map(WatchPartyMemberResponse::user).map(user -> user.id()).toList();
+  }
+
+  private static String username() {
+    return System.getenv().getOrDefault("TEST_POSTGRES_USERNAME", "jutjubic");
+  }
+
+  private static String password() {
+    return System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", "jutjubic123");
+  }
+
+  @TestConfiguration
+  static class Beans {
+    static final InMemoryRedis REDIS = new InMemoryRedis();
+
+    @Bean
+    StringRedisTemplate stringRedisTemplate() {
+      return REDIS;
+    }
+
+    @Bean
+    ObjectMapper objectMapper() {
+      return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Bean
+    static BeanPostProcessor countStatements() {
+      return new BeanPostProcessor() {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+          return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+        }
+      };
+    }
+  }
+
+  /** Counts every statement prepared or created on its connections. */
+  private static final class CountingDataSource extends DelegatingDataSource {
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    CountingDataSource(DataSource target) {
+      super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      Connection connection = super.getConnection();
+      return (Connection) Proxy.newProxyInstance(
+          Connection.class.getClassLoader(),
+          new Class<?>[] {Connection.class},
+          (proxy, method, args) -> {
+            if (STATEMENT_METHODS.contains(method.getName())) {
+              STATEMENTS.incrementAndGet();
+            }
+            try {
+              return method.invoke(connection, args);
+            } catch (InvocationTargetException ex) {
+              throw ex.getCause();
+            }
+          }
+      );
+    }
+  }
+
+  /**
+   * Just enough of Redis hashes for {@link WatchPartyRoomCache}.
+   */
+  private static final class InMemoryRedis extends StringRedisTemplate {
+    private final Map<String, Map<Object, Object>> hashes = new ConcurrentHashMap<>();
+
+    void clear() {
+      hashes.clear();
+    }
+
+    @Override
+    public void afterPropertiesSet() {}
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <HK, HV> HashOperations<String, HK, HV> opsForHash() {
+      return (HashOperations<String, HK, HV>) Proxy.newProxyInstance(
+          HashOperations.class.getClassLoader(),
+          new Class<?>[] {HashOperations.class},
+          (proxy, method, args) -> {
+            Map<Object, Object> hash = hashes.computeIfAbsent((String) args[0], key -> new ConcurrentHashMap<>());
+            return switch (method.getName()) {
+              case "entries" -> Map.copyOf(hash);
+              case "put" -> {
+                hash.put(args[1], args[2]);
+                yield null;
+              }
+              case "putAll" -> {
+                hash.putAll((Map<?, ?>) args[1]);
+                yield null;
+              }
+              default -> throw new UnsupportedOperationException(method.getName());
+            };
+          }
+      );
+    }
+
+    @Override
+    public Boolean expire(String key, long timeout, TimeUnit unit) {
+      return true;
+    }
+
+    @Override
+    public Boolean expire(String key, Duration timeout) {
+      return true;
+    }
+  }
+}
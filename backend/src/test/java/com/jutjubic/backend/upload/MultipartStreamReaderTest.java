@@ -0,0 +1,239 @@
+package com.jutjubic.backend.upload;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MultipartStreamReaderTest {
+  private static final String BOUNDARY = "----form7MA4YWxk";
+
+  @Test
+  void readsFieldsAndFilesInOrder() throws IOException {
+    byte[] body = multipart(
+        field("title", "Koncert"),
+        file("video", "clip.mp4", "video/mp4", bytes("frames"))
+    );
+
+    List<Part> parts = readAll(new ByteArrayInputStream(body));
+
+    assertEquals(2, parts.size());
+    assertEquals(new MultipartStreamReader.PartHeader("title", null, null), parts.get(0).header());
+    assertEquals("Koncert", parts.get(0).text());
+    assertEquals(new MultipartStreamReader.PartHeader("video", "clip.mp4", "video/mp4"), parts.get(1).header());
+    assertEquals("frames", parts.get(1).text());
+  }
+
+  @Test
+  void delimiterSplitAcrossReadsAtEveryOffset() throws IOException {
+    // The body ends in bytes that look like the start of a delimiter, to catch a reader that cuts early.
+    byte[] content = bytes("x".repeat(20_000) + "\r\n--" + BOUNDARY.substring(0, 5) + "\r\n-");
+    byte[] body = multipart(file("video", "clip.mp4", "video/mp4", content), field("title", "t"));
+
+    for (int chunk = 1; chunk <= 64; chunk++) {
+      List<Part> parts = readAll(new TrickleInputStream(body, chunk));
+
+      assertEquals(2, parts.size(), "read size " + chunk);
+      assertArrayEquals(content, parts.get(0).body(), "read size " + chunk);
+      assertEquals("t", parts.get(1).text(), "read size " + chunk);
+    }
+  }
+
+  @Test
+  void preambleAndEpilogueAreIgnored() throws IOException {
+    byte[] body = concat(
+        bytes("This is the preamble.\r\n"),
+        multipart(field("title", "Koncert")),
+        bytes("\r\nThis is the epilogue, with --" + BOUNDARY + " in it.\r\n")
+    );
+
+    List<Part> parts = readAll(new ByteArrayInputStream(body));
+
+    assertEquals(1, parts.size());
+    assertEquals("Koncert", parts.get(0).text());
+  }
+
+  @Test
+  void emptyAndCrlfOnlyPartsKeepTheirExactBodies() throws IOException {
+    byte[] body = multipart(
+        field("empty", ""),
+        field("crlf", "\r\n"),
+        field("crlfs", "\r\n\r\n")
+    );
+
+    List<Part> parts = readAll(new TrickleInputStream(body, 3));
+
+    assertEquals(List.of("", "\r\n", "\r\n\r\n"), parts.stream().map(Part::text).toList());
+  }
+
+  @Test
+  void formWithNoPartsHasNoParts() throws IOException {
+    byte[] body = bytes("--" + BOUNDARY + "--\r\n");
+
+    assertEquals(List.of(), readAll(new ByteArrayInputStream(body)));
+  }
+
+  @Test
+  void partWithoutContentDispositionIsRejected() {
+    byte[] noHeaders = bytes("--" + BOUNDARY + "\r\n\r\nvalue\r\n--" + BOUNDARY + "--\r\n");
+    byte[] otherHeaders = bytes("--" + BOUNDARY + "\r\nContent-Type: text/plain\r\n\r\nvalue\r\n--" + BOUNDARY + "--\r\n");
+
+    for (byte[] body : List.of(noHeaders, otherHeaders)) {
+      IOException ex = assertThrows(
+          MultipartStreamReader.MalformedMultipartException.class,
+          () -> readAll(new ByteArrayInputStream(body))
+      );
+      assertEquals("Multipart part is missing Content-Disposition", ex.getMessage());
+    }
+  }
+
+  @Test
+  void headersLargerThanTheBufferAreRejected() {
+    String header = "Content-Disposition: form-data; name=\"title\"\r\nX-Padding: " + "a".repeat(9_000) + "\r\n";
+    byte[] body = bytes("--" + BOUNDARY + "\r\n" + header + "\r\nvalue\r\n--" + BOUNDARY + "--\r\n");
+
+    IOException ex = assertThrows(
+        MultipartStreamReader.MalformedMultipartException.class,
+        () -> readAll(new TrickleInputStream(body, 1000))
+    );
+    assertEquals("Multipart part headers too large", ex.getMessage());
+  }
+
+  @Test
+  void truncatedStreamIsRejected() {
+    byte[] complete = multipart(file("video", "clip.mp4", "video/mp4", bytes("x".repeat(100))));
+    // Cut inside the body, inside the closing delimiter, and before the headers end.
+    for (int cut : new int[] {complete.length - 60, complete.length - 10, 40}) {
+      byte[] truncated = Arrays.copyOf(complete, cut);
+      assertThrows(
+          MultipartStreamReader.MalformedMultipartException.class,
+          () -> readAll(new ByteArrayInputStream(truncated)),
+          "cut at " + cut
+      );
+    }
+  }
+
+  @Test
+  void missingBoundaryIsRejected() {
+    IOException ex = assertThrows(
+        MultipartStreamReader.MalformedMultipartException.class,
+        () -> readAll(new ByteArrayInputStream(bytes("no multipart here")))
+    );
+    assertEquals("Multipart boundary not found", ex.getMessage());
+  }
+
+  @Test
+  void unreadPartIsSkippedByTheNextCall() throws IOException {
+    byte[] body = multipart(
+        file("video", "clip.mp4", "video/mp4", bytes("v".repeat(50_000))),
+        field("title", "Koncert")
+    );
+    MultipartStreamReader reader = new MultipartStreamReader(new TrickleInputStream(body, 777), BOUNDARY, 8192);
+
+    assertEquals("video", reader.nextPart().name());
+    byte[] some = new byte[10];
+    assertEquals(10, reader.readBody(some, 0, some.length));
+    assertEquals("title", reader.nextPart().name());
+    assertEquals("Koncert", new String(readBody(reader), StandardCharsets.UTF_8));
+    assertNull(reader.nextPart());
+    assertNull(reader.nextPart());
+  }
+
+  @Test
+  void readBodyAfterThePartEndedReturnsEndOfPart() throws IOException {
+    MultipartStreamReader reader = new MultipartStreamReader(
+        new ByteArrayInputStream(multipart(field("title", "Koncert"))), BOUNDARY, 8192);
+
+    reader.nextPart();
+    readBody(reader);
+
+    assertEquals(-1, reader.readBody(new byte[8], 0, 8));
+    assertNull(reader.nextPart());
+  }
+
+  static byte[] multipart(byte[]... parts) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] part : parts) {
+      out.writeBytes(bytes("--" + BOUNDARY + "\r\n"));
+      out.writeBytes(part);
+      out.writeBytes(bytes("\r\n"));
+    }
+    out.writeBytes(bytes("--" + BOUNDARY + "--\r\n"));
+    return out.toByteArray();
+  }
+
+  static byte[] field(String name, String value) {
+    return bytes("Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value);
+  }
+
+  static byte[] file(String name, String filename, String contentType, byte[] content) {
+    return concat(
+        bytes("Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + filename + "\"\r\n"
+            + "Content-Type: " + contentType + "\r\n\r\n"),
+        content
+    );
+  }
+
+  static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  static byte[] concat(byte[]... arrays) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] array : arrays) {
+      out.writeBytes(array);
+    }
+    return out.toByteArray();
+  }
+
+  private static List<Part> readAll(InputStream in) throws IOException {
+    MultipartStreamReader reader = new MultipartStreamReader(in, BOUNDARY, 8192);
+    List<Part> parts = new ArrayList<>();
+    MultipartStreamReader.PartHeader header;
+    while ((header = reader.nextPart()) != null) {
+      parts.add(new Part(header, readBody(reader)));
+    }
+    return parts;
+  }
+
+  private static byte[] readBody(MultipartStreamReader reader) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] chunk = new byte[1000];
+    int read;
+    while ((read = reader.readBody(chunk, 0, chunk.length)) != -1) {
+      out.write(chunk, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  private record Part(MultipartStreamReader.PartHeader header, byte[] body) {
+    String text() {
+      return new String(body, StandardCharsets.UTF_8);
+    }
+  }
+
+  /** Hands out at most {@code chunk} bytes per read, the way a slow client's packets arrive. */
+  static final class TrickleInputStream extends ByteArrayInputStream {
+    private final int chunk;
+
+    TrickleInputStream(byte[] data, int chunk) {
+      super(data);
+      this.chunk = chunk;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) {
+      return super.read(b, off, Math.min(len, chunk));
+    }
+  }
+}
@@ -0,0 +1,399 @@
+package com.jutjubic.backend.upload;
+
+import com.jutjubic.backend.config.AppProperties;
+import com.jutjubic.backend.dto.UploadStatusResponse;
+import com.jutjubic.backend.entity.User;
+import com.jutjubic.backend.entity.Video;
+import com.jutjubic.backend.exception.ApiException;
+import com.jutjubic.backend.mq.UploadEventMessage;
+import com.jutjubic.backend.mq.UploadEventOutbox;
+import com.jutjubic.backend.repository.UserRepository;
+import com.jutjubic.backend.repository.VideoRepository;
+import com.jutjubic.backend.service.ResourceVersionService;
+import com.jutjubic.backend.service.ThumbnailCacheService;
+import com.jutjubic.backend.service.VideoService;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResumableUploadServiceTest {
+  private static final long USER_ID = 7;
+  private static final int CHUNK_SIZE = 1000;
+  private static final long TTL_MS = 200;
+
+  @TempDir
+  Path uploadDir;
+
+  private Path tmpDir;
+  private AppProperties properties;
+  private ResumableUploadService service;
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @BeforeEach
+  void setUp() throws IOException {
+    tmpDir = Files.createDirectories(uploadDir.resolve("tmp"));
+    properties = new AppProperties();
+    properties.setUploadDir(uploadDir.toString());
+    properties.getUpload().setChunkSize(CHUNK_SIZE);
+    properties.getUpload().setStreamBufferSize(256);
+    properties.getUpload().setSessionTtlMs(TTL_MS);
+    service = new ResumableUploadService(properties);
+  }
+
+  @AfterEach
+  void stopExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void initiateAllocatesTheFileAndListsEveryChunkAsMissing() throws IOException {
+    UploadStatusResponse status = service.initiate(USER_ID, "clip.mp4", 2500);
+
+    assertEquals(3, status.totalChunks());
+    assertEquals(List.of(0, 1, 2), status.missingChunks());
+    assertEquals(0, status.receivedBytes());
+    assertFalse(status.complete());
+    assertEquals(2500, Files.size(tmpDir.resolve(status.uploadId() + ".mp4")));
+  }
+
+  @Test
+  void initiateRejectsBadFilesAndTooManySessions() {
+    assertEquals(400, assertThrows(ApiException.class, () -> service.initiate(USER_ID, "clip.exe", 10)).getStatusCode());
+    assertEquals(400, assertThrows(ApiException.class, () -> service.initiate(USER_ID, "clip.mp4", Long.MAX_VALUE))
+        .getStatusCode());
+
+    for (int i = 0; i < 5; i++) {
+      service.initiate(USER_ID, "clip.mp4", 10);
+    }
+    assertEquals(429, assertThrows(ApiException.class, () -> service.initiate(USER_ID, "clip.mp4", 10)).getStatusCode());
+    service.initiate(USER_ID + 1, "clip.mp4", 10);
+  }
+
+  @Test
+  void chunksSentInParallelAndOutOfOrderAssembleTheFile() throws Exception {
+    byte[] content = randomBytes(10_500);
+    String uploadId = service.initiate(USER_ID, "clip.mp4", content.length).uploadId();
+
+    List<Integer> order = new ArrayList<>();
+    for (int i = 0; i < 11; i++) {
+      order.add(i);
+    }
+    Collections.shuffle(order, new Random(3));
+    List<CompletableFuture<UploadStatusResponse>> writes = new ArrayList<>();
+    for (int index : order) {
+      writes.add(CompletableFuture.supplyAsync(() -> writeChunk(uploadId, index, content), executor));
+    }
+    for (CompletableFuture<UploadStatusResponse> write : writes) {
+      write.get(5, TimeUnit.SECONDS);
+    }
+
+    UploadStatusResponse status = service.getStatus(uploadId, USER_ID);
+    assertTrue(status.complete());
+    assertEquals(content.length, status.receivedBytes());
+    StagedFile staged = service.complete(uploadId, USER_ID);
+    assertEquals(content.length, staged.size());
+    assertArrayEquals(content, Files.readAllBytes(staged.path()));
+  }
+
+  @Test
+  void duplicateChunkIsCountedOnce() throws IOException {
+    byte[] content = randomBytes(1500);
+    String uploadId = service.initiate(USER_ID, "clip.mp4", content.length).uploadId();
+
+    writeChunk(uploadId, 1, content);
+    UploadStatusResponse status = writeChunk(uploadId, 1, content);
+
+    assertEquals(List.of(1), status.receivedChunks());
+    assertEquals(500, status.receivedBytes());
+    writeChunk(uploadId, 0, content);
+    assertArrayEquals(content, Files.readAllBytes(service.complete(uploadId, USER_ID).path()));
+  }
+
+  @Test
+  void chunkOfTheWrongLengthIsRejectedAndNotRecorded() {
+    String uploadId = service.initiate(USER_ID, "clip.mp4", 1500).uploadId();
+
+    // Declared wrong, declared right but cut short, and sent without a length but too long.
+    assertWrongLength(() -> service.writeChunk(uploadId, USER_ID, 1, 1000, new ByteArrayInputStream(new byte[1000])));
+    assertWrongLength(() -> service.writeChunk(uploadId, USER_ID, 0, 1000, new ByteArrayInputStream(new byte[999])));
+    assertWrongLength(() -> service.writeChunk(uploadId, USER_ID, 0, -1, new ByteArrayInputStream(new byte[1001])));
+
+    assertEquals(List.of(), service.getStatus(uploadId, USER_ID).receivedChunks());
+    ApiException outOfRange = assertThrows(
+        ApiException.class,
+        () -> service.writeChunk(uploadId, USER_ID, 2, 0, new ByteArrayInputStream(new byte[0]))
+    );
+    assertEquals("Chunk index out of range", outOfRange.getMessage());
+  }
+
+  @Test
+  void completeWithMissingChunksIsRefused() {
+    byte[] content = randomBytes(2500);
+    String uploadId = service.initiate(USER_ID, "clip.mp4", content.length).uploadId();
+    writeChunk(uploadId, 0, content);
+    writeChunk(uploadId, 2, content);
+
+    ApiException ex = assertThrows(ApiException.class, () -> service.complete(uploadId, USER_ID));
+
+    assertEquals(409, ex.getStatusCode());
+    assertEquals("Upload is incomplete: 2 of 3 chunks received", ex.getMessage());
+    writeChunk(uploadId, 1, content);
+    service.complete(uploadId, USER_ID);
+  }
+
+  @Test
+  void sessionIsOnlyVisibleToItsOwner() {
+    String uploadId = service.initiate(USER_ID, "clip.mp4", 10).uploadId();
+
+    assertEquals(404, assertThrows(ApiException.class, () -> service.getStatus(uploadId, USER_ID + 1)).getStatusCode());
+    assertEquals(404, assertThrows(ApiException.class, () -> service.abort(uploadId, USER_ID + 1)).getStatusCode());
+  }
+
+  @Test
+  void finalizingSessionRefusesChunksAbortAndSecondComplete() {
+    byte[] content = randomBytes(500);
+    String uploadId = service.initiate(USER_ID, "clip.mp4", content.length).uploadId();
+    writeChunk(uploadId, 0, content);
+    service.complete(uploadId, USER_ID);
+
+    assertEquals(409, assertThrows(ApiException.class, () -> writeChunk(uploadId, 0, content)).getStatusCode());
+    assertEquals(409, assertThrows(ApiException.class, () -> service.complete(uploadId, USER_ID)).getStatusCode());
+    assertEquals(409, assertThrows(ApiException.class, () -> service.abort(uploadId, USER_ID)).getStatusCode());
+
+    service.finish(uploadId);
+    assertEquals(404, assertThrows(ApiException.class, () -> service.getStatus(uploadId, USER_ID)).getStatusCode());
+  }
+
+  @Test
+  void reopenAllowsAnotherCompleteUnlessTheFileIsGone() throws IOException {
+    byte[] content = randomBytes(500);
+    String uploadId = service.initiate(USER_ID, "clip.mp4", content.length).uploadId();
+    writeChunk(uploadId, 0, content);
+
+    service.complete(uploadId, USER_ID);
+    service.reopen(uploadId);
+    StagedFile staged = service.complete(uploadId, USER_ID);
+
+    Files.delete(staged.path());
+    service.reopen(uploadId);
+    assertEquals(404, assertThrows(ApiException.class, () -> service.complete(uploadId, USER_ID)).getStatusCode());
+  }
+
+  @Test
+  void abortDeletesTheFile() {
+    UploadStatusResponse status = service.initiate(USER_ID, "clip.mp4", 10);
+
+    service.abort(status.uploadId(), USER_ID);
+
+    assertFalse(Files.exists(tmpDir.resolve(status.uploadId() + ".mp4")));
+    assertEquals(404, assertThrows(ApiException.class, () -> service.getStatus(status.uploadId(), USER_ID))
+        .getStatusCode());
+  }
+
+  @Test
+  void janitorLeavesASessionAloneWhileAChunkIsArriving() throws Exception {
+    byte[] content = randomBytes(1000);
+    String uploadId = service.initiate(USER_ID, "clip.mp4", content.length).uploadId();
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    InputStream slowBody = new ByteArrayInputStream(content) {
+      @Override
+      public synchronized int read(byte[] b, int off, int len) {
+        reading.countDown();
+        await(release);
+        return super.read(b, off, len);
+      }
+    };
+
+    CompletableFuture<UploadStatusResponse> write = CompletableFuture.supplyAsync(
+        () -> service.writeChunk(uploadId, USER_ID, 0, content.length, slowBody), executor);
+    assertTrue(reading.await(5, TimeUnit.SECONDS));
+    Thread.sleep(TTL_MS * 2);
+    // Must neither wait for the chunk nor take the session from under it.
+    CompletableFuture.runAsync(service::reclaimAbandoned, executor).get(5, TimeUnit.SECONDS);
+    release.countDown();
+
+    assertTrue(write.get(5, TimeUnit.SECONDS).complete());
+    assertArrayEquals(content, Files.readAllBytes(service.complete(uploadId, USER_ID).path()));
+  }
+
+  @Test
+  void janitorReclaimsIdleSessionsAndOrphansButNotFinalizingOnes() throws Exception {
+    byte[] content = randomBytes(500);
+    String idle = service.initiate(USER_ID, "clip.mp4", 10).uploadId();
+    String finalizing = service.initiate(USER_ID, "clip.mp4", content.length).uploadId();
+    writeChunk(finalizing, 0, content);
+    StagedFile staged = service.complete(finalizing, USER_ID);
+    Path orphan = Files.write(tmpDir.resolve("left-over.mp4"), content);
+    Path fresh = Files.write(tmpDir.resolve("in-flight.mp4"), content);
+    Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minusSeconds(60)));
+    Files.setLastModifiedTime(staged.path(), FileTime.from(Instant.now().minusSeconds(60)));
+
+    Thread.sleep(TTL_MS * 2);
+    Files.setLastModifiedTime(fresh, FileTime.from(Instant.now()));
+    service.reclaimAbandoned();
+
+    assertEquals(404, assertThrows(ApiException.class, () -> service.getStatus(idle, USER_ID)).getStatusCode());
+    assertFalse(Files.exists(tmpDir.resolve(idle + ".mp4")));
+    assertFalse(Files.exists(orphan));
+    assertTrue(Files.exists(fresh));
+    assertTrue(Files.exists(staged.path()));
+    service.getStatus(finalizing, USER_ID);
+  }
+
+  @Test
+  void rolledBackVideoLeavesTheUploadReadyToCompleteAgain() throws IOException {
+    byte[] content = randomBytes(1500);
+    String uploadId = service.initiate(USER_ID, "clip.mp4", content.length).uploadId();
+    writeChunk(uploadId, 0, content);
+    writeChunk(uploadId, 1, content);
+    VideoService videoService = videoService();
+    TransactionTemplate transaction = new TransactionTemplate(new NoOpTransactionManager());
+
+    StagedFile video = service.complete(uploadId, USER_ID);
+    StagedFile thumbnail = stageThumbnail();
+    // Fails after the files were moved into place, as a failing commit would.
+    assertThrows(IllegalStateException.class, () -> transaction.executeWithoutResult(status -> {
+      videoService.createFromStaged(input(video, thumbnail));
+      throw new IllegalStateException("commit failed");
+    }));
+    service.reopen(uploadId);
+
+    assertArrayEquals(content, Files.readAllBytes(video.path()));
+    assertTrue(Files.exists(thumbnail.path()));
+    assertFalse(Files.exists(uploadDir.resolve("videos").resolve(video.path().getFileName())));
+
+    StagedFile retried = service.complete(uploadId, USER_ID);
+    transaction.executeWithoutResult(status -> videoService.createFromStaged(input(retried, thumbnail)));
+    service.finish(uploadId);
+
+    assertArrayEquals(content, Files.readAllBytes(uploadDir.resolve("videos").resolve(retried.path().getFileName())));
+    assertFalse(Files.exists(retried.path()));
+  }
+
+  private UploadStatusResponse writeChunk(String uploadId, int index, byte[] content) {
+    int from = index * CHUNK_SIZE;
+    byte[] chunk = Arrays.copyOfRange(content, from, Math.min(content.length, from + CHUNK_SIZE));
+    return service.writeChunk(uploadId, USER_ID, index, chunk.length, new ByteArrayInputStream(chunk));
+  }
+
+  private static void assertWrongLength(Runnable write) {
+    ApiException ex = assertThrows(ApiException.class, write::run);
+    assertEquals(400, ex.getStatusCode());
+    assertTrue(ex.getMessage().startsWith("Chunk "), ex.getMessage());
+  }
+
+  private static byte[] randomBytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(size).nextBytes(bytes);
+    return bytes;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private StagedFile stageThumbnail() throws IOException {
+    Path path = Files.write(tmpDir.resolve("thumb-" + System.nanoTime() + ".png"), new byte[] {1, 2, 3});
+    return new StagedFile(path, "thumb.png", 3, null);
+  }
+
+  private static VideoService.StagedVideoInput input(StagedFile video, StagedFile thumbnail) {
+    return new VideoService.StagedVideoInput(
+        "Koncert", "", List.of("live"), null, null, USER_ID, video, thumbnail);
+  }
+
+  // Just enough of the repositories and collaborators for createFromStaged, without a database.
+  private VideoService videoService() {
+    User user = new User();
+    user.setId(USER_ID);
+    user.setUsername("ana");
+    UserRepository users = repository(UserRepository.class, (name, args) -> switch (name) {
+      case "findById" -> Optional.of(user);
+      case "incrementVideoCount" -> 1;
+      default -> throw new UnsupportedOperationException(name);
+    });
+    VideoRepository videos = repository(VideoRepository.class, (name, args) -> {
+      if (!name.equals("save")) {
+        throw new UnsupportedOperationException(name);
+      }
+      Video video = (Video) args[0];
+      video.setId(1L);
+      return video;
+    });
+    UploadEventOutbox outbox = new UploadEventOutbox(null, null) {
+      @Override
+      public void append(UploadEventMessage event) {}
+    };
+    ResourceVersionService versions = new ResourceVersionService(null) {
+      @Override
+      public void bump(String scope) {}
+    };
+    ThumbnailCacheService thumbnails = new ThumbnailCacheService(null, null, properties) {
+      @Override
+      public void put(long videoId, byte[] bytes, String etag) {}
+    };
+    return new VideoService(videos, users, thumbnails, versions, outbox, properties);
+  }
+
+  private interface Calls {
+    Object call(String name, Object[] args);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T repository(Class<T> type, Calls calls) {
+    return (T) Proxy.newProxyInstance(
+        type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> calls.call(method.getName(), args));
+  }
+
+  /** Runs the synchronization callbacks of a real transaction manager around no resource at all. */
+  private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+    @Override
+    protected Object doGetTransaction() {
+      return new Object();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {}
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {}
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {}
+  }
+}
@@ -0,0 +1,172 @@
+package com.jutjubic.backend.upload;
+
+import com.jutjubic.backend.config.AppProperties;
+import com.jutjubic.backend.exception.ApiException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static com.jutjubic.backend.upload.MultipartStreamReaderTest.bytes;
+import static com.jutjubic.backend.upload.MultipartStreamReaderTest.concat;
+import static com.jutjubic.backend.upload.MultipartStreamReaderTest.field;
+import static com.jutjubic.backend.upload.MultipartStreamReaderTest.file;
+import static com.jutjubic.backend.upload.MultipartStreamReaderTest.multipart;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingUploadServiceTest {
+  private static final String CONTENT_TYPE = "multipart/form-data; boundary=----form7MA4YWxk";
+
+  @TempDir
+  Path uploadDir;
+
+  private Path tmpDir;
+  private StreamingUploadService service;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    tmpDir = Files.createDirectories(uploadDir.resolve("tmp"));
+    AppProperties properties = new AppProperties();
+    properties.setUploadDir(uploadDir.toString());
+    properties.getUpload().setMaxVideoSize(64 * 1024);
+    properties.getUpload().setMaxThumbnailSize(1024);
+    properties.getUpload().setStreamBufferSize(8192);
+    service = new StreamingUploadService(properties);
+  }
+
+  @Test
+  void stagesFilesWithTheSizeAndHashOfTheExactPartBody() throws Exception {
+    // Ends in a CRLF and contains a near-delimiter, both of which belong to the file.
+    byte[] video = concat(bytes("v".repeat(30_000)), bytes("\r\n--not-the-boundary\r\n"));
+    byte[] thumbnail = bytes("\r\n");
+
+    StreamingUploadService.StreamedUpload upload = service.receive(request(multipart(
+        field("title", "Koncert"),
+        file("video", "Clip.MP4", "video/mp4", video),
+        file("thumbnail", "thumb.png", "image/png", thumbnail),
+        field("tags", "[\"live\"]")
+    )));
+
+    assertEquals(Map.of("title", "Koncert", "tags", "[\"live\"]"), upload.fields());
+    assertStaged(upload.video(), "Clip.MP4", video);
+    assertStaged(upload.thumbnail(), "thumb.png", thumbnail);
+    assertTrue(upload.video().path().getFileName().toString().endsWith(".MP4"));
+  }
+
+  @Test
+  void unexpectedFilePartIsSkippedWithoutStaging() throws Exception {
+    StreamingUploadService.StreamedUpload upload = service.receive(request(multipart(
+        file("attachment", "notes.txt", "text/plain", bytes("x".repeat(20_000))),
+        file("video", "clip.mp4", "video/mp4", bytes("video")),
+        file("thumbnail", "thumb.jpg", "image/jpeg", bytes("thumb"))
+    )));
+
+    assertEquals(2, stagedFiles().size());
+    assertStaged(upload.video(), "clip.mp4", bytes("video"));
+  }
+
+  @Test
+  void badExtensionIsRejectedBeforeAnythingIsWritten() throws IOException {
+    ApiException ex = assertThrows(ApiException.class, () -> service.receive(request(multipart(
+        file("video", "clip.exe", "video/mp4", bytes("video")),
+        file("thumbnail", "thumb.jpg", "image/jpeg", bytes("thumb"))
+    ))));
+
+    assertEquals(400, ex.getStatusCode());
+    assertEquals(List.of(), stagedFiles());
+  }
+
+  @Test
+  void laterRejectionRemovesFilesAlreadyStaged() throws IOException {
+    ApiException ex = assertThrows(ApiException.class, () -> service.receive(request(multipart(
+        file("video", "clip.mp4", "video/mp4", bytes("video")),
+        file("thumbnail", "thumb.gif", "image/gif", bytes("thumb"))
+    ))));
+
+    assertEquals(400, ex.getStatusCode());
+    assertEquals(List.of(), stagedFiles());
+  }
+
+  @Test
+  void oversizedFileIsRejectedAndRemoved() throws IOException {
+    ApiException ex = assertThrows(ApiException.class, () -> service.receive(request(multipart(
+        file("video", "clip.mp4", "video/mp4", bytes("v".repeat(64 * 1024 + 1))),
+        file("thumbnail", "thumb.jpg", "image/jpeg", bytes("thumb"))
+    ))));
+
+    assertEquals("File too large: clip.mp4", ex.getMessage());
+    assertEquals(List.of(), stagedFiles());
+  }
+
+  @Test
+  void truncatedUploadIsRejectedAndRemoved() throws IOException {
+    byte[] complete = multipart(
+        file("video", "clip.mp4", "video/mp4", bytes("v".repeat(20_000))),
+        file("thumbnail", "thumb.jpg", "image/jpeg", bytes("thumb"))
+    );
+
+    ApiException ex = assertThrows(
+        ApiException.class,
+        () -> service.receive(request(Arrays.copyOf(complete, 10_000)))
+    );
+
+    assertEquals(400, ex.getStatusCode());
+    assertEquals("Unexpected end of multipart body", ex.getMessage());
+    assertEquals(List.of(), stagedFiles());
+  }
+
+  @Test
+  void emptyOrMissingFilesAreRejected() throws IOException {
+    for (byte[] body : List.of(
+        multipart(file("video", "clip.mp4", "video/mp4", bytes("video"))),
+        multipart(file("video", "clip.mp4", "video/mp4", new byte[0]), file("thumbnail", "t.jpg", "image/jpeg", bytes("t")))
+    )) {
+      ApiException ex = assertThrows(ApiException.class, () -> service.receive(request(body)));
+      assertEquals("Video and thumbnail files are required", ex.getMessage());
+    }
+    assertEquals(List.of(), stagedFiles());
+  }
+
+  @Test
+  void requestWithoutAMultipartBoundaryIsRejected() {
+    MockHttpServletRequest request = request(multipart(field("title", "Koncert")));
+    request.setContentType("application/json");
+
+    ApiException ex = assertThrows(ApiException.class, () -> service.receive(request));
+
+    assertEquals("Expected multipart/form-data upload", ex.getMessage());
+  }
+
+  private void assertStaged(StagedFile staged, String filename, byte[] content) throws Exception {
+    assertEquals(filename, staged.originalFilename());
+    assertEquals(content.length, staged.size());
+    assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)), staged.sha256());
+    assertEquals(tmpDir, staged.path().getParent());
+    assertArrayEquals(content, Files.readAllBytes(staged.path()));
+  }
+
+  private List<Path> stagedFiles() throws IOException {
+    try (Stream<Path> files = Files.list(tmpDir)) {
+      return files.toList();
+    }
+  }
+
+  private static MockHttpServletRequest request(byte[] body) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/videos/stream-upload");
+    request.setContentType(CONTENT_TYPE);
+    request.setContent(body);
+    return request;
+  }
+}
@@ -0,0 +1,90 @@
+package com.jutjubic.backend.util;
+
+import com.jutjubic.backend.dto.VideoCursorPageResponse;
+import com.jutjubic.backend.dto.VideoListItem;
+import com.jutjubic.backend.entity.User;
+import com.jutjubic.backend.entity.Video;
+import com.jutjubic.backend.exception.ApiException;
+import java.lang.reflect.Field;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+  private static final OffsetDateTime NOW = OffsetDateTime.parse("2026-01-01T14:00:00.123456+02:00");
+
+  @Test
+  void roundTripKeepsTheInstantToTheMicrosecond() {
+    KeysetCursor cursor = KeysetCursor.of(NOW, 42);
+
+    assertEquals("2026-01-01T12:00:00.123456Z,42", cursor.toString());
+    assertEquals(cursor, KeysetCursor.parse(cursor.toString()));
+    assertEquals(NOW.toInstant(), KeysetCursor.parse(cursor.toString()).createdAt().toInstant());
+  }
+
+  @Test
+  void blankCursorAsksForTheFirstPage() {
+    assertNull(KeysetCursor.parse(null));
+    assertNull(KeysetCursor.parse(" "));
+  }
+
+  @Test
+  void malformedCursorIsABadRequest() {
+    for (String value : List.of("42", ",42", "yesterday,42", "2026-01-01T12:00:00Z,abc")) {
+      ApiException ex = assertThrows(ApiException.class, () -> KeysetCursor.parse(value), value);
+      assertEquals(400, ex.getStatusCode());
+    }
+  }
+
+  @Test
+  void nextCursorPointsAtTheLastVideoOnThePage() {
+    // Two videos share a timestamp across the page boundary, so the cursor needs the id as well.
+    List<Video> rows = List.of(
+        video(9, NOW),
+        video(8, NOW.minusSeconds(1)),
+        video(7, NOW.minusSeconds(1))
+    );
+
+    VideoCursorPageResponse page = ResponseMapper.mapVideoCursorPage(rows, 2);
+
+    assertEquals(List.of(9L, 8L), page.videos().stream().map(VideoListItem::id).toList());
+    assertEquals(KeysetCursor.of(NOW.minusSeconds(1), 8), KeysetCursor.parse(page.pagination().nextCursor()));
+  }
+
+  @Test
+  void lastPageHasNoNextCursor() {
+    List<Video> rows = List.of(video(2, NOW), video(1, NOW));
+
+    assertNull(ResponseMapper.mapVideoCursorPage(rows, 2).pagination().nextCursor());
+    assertNull(ResponseMapper.mapVideoCursorPage(List.of(), 2).pagination().nextCursor());
+  }
+
+  private static Video video(long id, OffsetDateTime createdAt) {
+    User user = new User();
+    user.setId(1L);
+    user.setUsername("user_1");
+
+    Video video = new Video();
+    video.setId(id);
+    video.setTitle("Video " + id);
+    video.setTags(new String[0]);
+    video.setUser(user);
+    set(video, "createdAt", createdAt);
+    return video;
+  }
+
+  // Videos only get a timestamp from the database, so the test sets it directly.
+  private static void set(Object entity, String name, Object value) {
+    try {
+      Field field = entity.getClass().getDeclaredField(name);
+      field.setAccessible(true);
+      field.set(entity, value);
+    } catch (ReflectiveOperationException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
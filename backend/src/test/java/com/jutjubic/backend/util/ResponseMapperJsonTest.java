@@ -0,0 +1,271 @@
+package com.jutjubic.backend.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.jutjubic.backend.dto.CommentPageResponse;
+import com.jutjubic.backend.dto.PageInfo;
+import com.jutjubic.backend.dto.VideoPageResponse;
+import com.jutjubic.backend.entity.Comment;
+import com.jutjubic.backend.entity.User;
+import com.jutjubic.backend.entity.Video;
+import com.jutjubic.backend.entity.WatchParty;
+import com.jutjubic.backend.entity.WatchPartyMember;
+import java.lang.reflect.Field;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The typed responses must put the same JSON on the wire as the maps they replaced. The maps built their
+ * nested objects with {@code Map.of}, whose key order changes from one JVM run to the next, so the bodies
+ * are compared as trees and by length rather than byte for byte.
+ */
+class ResponseMapperJsonTest {
+  private static final OffsetDateTime NOW = OffsetDateTime.parse("2026-01-01T12:00:00.123456+02:00");
+
+  private final ObjectMapper plain = mapper(false);
+  private final ObjectMapper blackbird = mapper(true);
+
+  @Test
+  void videoPageMatchesTheMapResponse() throws Exception {
+    List<Video> videos = videos(3);
+    Map<String, Object> pagination = new LinkedHashMap<>();
+    pagination.put("page", 2);
+    pagination.put("limit", 3);
+    pagination.put("total", 7L);
+    pagination.put("totalPages", 3);
+    Object legacy = Map.of(
+        "videos", videos.stream().map(LegacyMapper::mapVideoForList).toList(),
+        "pagination", pagination
+    );
+
+    assertSameJson(legacy, new VideoPageResponse(
+        videos.stream().map(ResponseMapper::mapVideoForList).toList(),
+        PageInfo.of(2, 3, 7)
+    ));
+  }
+
+  @Test
+  void videoCursorPagesMatchTheMapResponse() throws Exception {
+    List<Video> rows = videos(4);
+    assertSameJson(LegacyMapper.mapVideoCursorPage(rows, 3), ResponseMapper.mapVideoCursorPage(rows, 3));
+    assertSameJson(LegacyMapper.mapVideoCursorPage(rows, 10), ResponseMapper.mapVideoCursorPage(rows, 10));
+  }
+
+  @Test
+  void commentPagesMatchTheMapResponse() throws Exception {
+    List<Comment> rows = comments(6);
+    assertSameJson(LegacyMapper.mapCommentCursorPage(rows, 5, 42), ResponseMapper.mapCommentCursorPage(rows, 5, 42));
+    assertSameJson(LegacyMapper.mapCommentCursorPage(rows, 8, 6), ResponseMapper.mapCommentCursorPage(rows, 8, 6));
+
+    Map<String, Object> pagination = new LinkedHashMap<>();
+    pagination.put("page", 1);
+    pagination.put("limit", 20);
+    pagination.put("total", 6L);
+    pagination.put("totalPages", 1);
+    Object legacy = Map.of(
+        "comments", rows.stream().map(LegacyMapper::mapComment).toList(),
+        "pagination", pagination
+    );
+    assertSameJson(legacy, new CommentPageResponse(
+        rows.stream().map(ResponseMapper::mapComment).toList(),
+        PageInfo.of(1, 20, 6)
+    ));
+  }
+
+  @Test
+  void watchPartyMatchesTheMapResponse() throws Exception {
+    WatchParty party = new WatchParty();
+    party.setId(9L);
+    party.setRoomCode("A1B2C3D4");
+    party.setCreator(user(1));
+    set(party, "createdAt", NOW);
+    List<WatchPartyMember> members = new ArrayList<>();
+    for (long i = 1; i <= 3; i++) {
+      WatchPartyMember member = new WatchPartyMember();
+      member.setId(i);
+      member.setUser(user(i));
+      member.setWatchParty(party);
+      set(member, "joinedAt", NOW.plusMinutes(i));
+      members.add(member);
+    }
+
+    assertSameJson(LegacyMapper.mapWatchParty(party, members), ResponseMapper.mapWatchParty(party, members));
+
+    party.setActive(false);
+    party.setCurrentVideoId(5L);
+    assertSameJson(LegacyMapper.mapWatchParty(party, members), ResponseMapper.mapWatchParty(party, members));
+  }
+
+  private void assertSameJson(Object legacy, Object typed) throws Exception {
+    byte[] expected = plain.writeValueAsBytes(legacy);
+    byte[] actual = plain.writeValueAsBytes(typed);
+    assertEquals(plain.readTree(expected), plain.readTree(actual));
+    assertEquals(expected.length, actual.length);
+    assertEquals(new String(actual), new String(blackbird.writeValueAsBytes(typed)));
+  }
+
+  /** Configured like the mapper Spring Boot builds, with and without the Blackbird module. */
+  private static ObjectMapper mapper(boolean withBlackbird) {
+    JsonMapper.Builder builder = JsonMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    if (withBlackbird) {
+      builder.addModule(new BlackbirdModule());
+    }
+    return builder.build();
+  }
+
+  private static List<Video> videos(int count) {
+    List<Video> videos = new ArrayList<>();
+    for (long id = count; id >= 1; id--) {
+      Video video = new Video();
+      video.setId(id);
+      video.setTitle("Video " + id + " \"uživo\"");
+      video.setDescription(id % 2 == 0 ? null : "Opis " + id);
+      video.setTags(new String[] {"music", "tag-" + id});
+      video.setThumbnailPath("thumbnails/video-" + id + ".jpg");
+      video.setVideoPath("videos/video-" + id + ".mp4");
+      video.setViewCount((int) id * 37);
+      video.setLatitude(id % 2 == 0 ? null : 44.81);
+      video.setLongitude(id % 2 == 0 ? null : 20.46);
+      video.setUser(user(id));
+      set(video, "createdAt", NOW.minusMinutes(id));
+      set(video, "updatedAt", NOW.minusMinutes(id).withOffsetSameInstant(ZoneOffset.UTC));
+      videos.add(video);
+    }
+    return videos;
+  }
+
+  private static List<Comment> comments(int count) {
+    List<Comment> comments = new ArrayList<>();
+    for (long id = count; id >= 1; id--) {
+      Comment comment = new Comment();
+      comment.setId(id);
+      comment.setText("Komentar " + id);
+      comment.setUser(user(id));
+      set(comment, "createdAt", NOW.minusSeconds(id));
+      comments.add(comment);
+    }
+    return comments;
+  }
+
+  private static User user(long id) {
+    User user = new User();
+    user.setId(id);
+    user.setUsername("user_" + id);
+    return user;
+  }
+
+  // The entities only get timestamps from the database, so the test sets them directly.
+  private static void set(Object entity, String name, Object value) {
+    try {
+      Field field = entity.getClass().getDeclaredField(name);
+      field.setAccessible(true);
+      field.set(entity, value);
+    } catch (ReflectiveOperationException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * {@code ResponseMapper} as it was before the typed responses, kept for comparison.
+   */
+  private static final class LegacyMapper {
+    static Map<String, Object> mapVideoForList(Video video) {
+      Map<String, Object> body = new LinkedHashMap<>();
+      body.put("id", video.getId());
+      body.put("title", video.getTitle());
+      body.put("description", video.getDescription());
+      body.put("tags", video.getTags());
+      body.put("thumbnailPath", video.getThumbnailPath());
+      body.put("videoPath", video.getVideoPath());
+      body.put("viewCount", video.getViewCount());
+      body.put("latitude", video.getLatitude());
+      body.put("longitude", video.getLongitude());
+      body.put("createdAt", video.getCreatedAt());
+      body.put("updatedAt", video.getUpdatedAt());
+      body.put("user", Map.of(
+          "id", video.getUser().getId(),
+          "username", video.getUser().getUsername()
+      ));
+      return body;
+    }
+
+    static Map<String, Object> mapVideoCursorPage(List<Video> rows, int limit) {
+      List<Video> videos = rows.size() > limit ? rows.subList(0, limit) : rows;
+      Video last = videos.isEmpty() ? null : videos.get(videos.size() - 1);
+
+      Map<String, Object> pagination = new LinkedHashMap<>();
+      pagination.put("limit", limit);
+      pagination.put("nextCursor", rows.size() > limit
+          ? KeysetCursor.of(last.getCreatedAt(), last.getId()).toString()
+          : null);
+
+      return Map.of(
+          "videos", videos.stream().map(LegacyMapper::mapVideoForList).toList(),
+          "pagination", pagination
+      );
+    }
+
+    static Map<String, Object> mapCommentCursorPage(List<Comment> rows, int limit, long total) {
+      List<Comment> comments = rows.size() > limit ? rows.subList(0, limit) : rows;
+      Comment last = comments.isEmpty() ? null : comments.get(comments.size() - 1);
+
+      Map<String, Object> pagination = new LinkedHashMap<>();
+      pagination.put("limit", limit);
+      pagination.put("total", total);
+      pagination.put("nextCursor", rows.size() > limit
+          ? KeysetCursor.of(last.getCreatedAt(), last.getId()).toString()
+          : null);
+
+      return Map.of(
+          "comments", comments.stream().map(LegacyMapper::mapComment).toList(),
+          "pagination", pagination
+      );
+    }
+
+    static Map<String, Object> mapComment(Comment comment) {
+      return Map.of(
+          "id", comment.getId(),
+          "text", comment.getText(),
+          "createdAt", comment.getCreatedAt(),
+          "user", Map.of(
+              "id", comment.getUser().getId(),
+              "username", comment.getUser().getUsername()
+          )
+      );
+    }
+
+    static Map<String, Object> mapWatchParty(WatchParty party, List<WatchPartyMember> members) {
+      Map<String, Object> body = new LinkedHashMap<>();
+      body.put("id", party.getId());
+      body.put("roomCode", party.getRoomCode());
+      body.put("isActive", party.isActive());
+      body.put("createdAt", party.getCreatedAt());
+      body.put("creator", Map.of(
+          "id", party.getCreator().getId(),
+          "username", party.getCreator().getUsername()
+      ));
+      body.put("members", members.stream().map(member -> Map.of(
+          "id", member.getId(),
+          "joinedAt", member.getJoinedAt(),
+          "user", Map.of(
+              "id", member.getUser().getId(),
+              "username", member.getUser().getUsername()
+          )
+      )).toList());
+      body.put("currentVideoId", party.getCurrentVideoId());
+      return body;
+    }
+  }
+}
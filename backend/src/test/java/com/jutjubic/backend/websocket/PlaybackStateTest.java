@@ -0,0 +1,56 @@
+package com.jutjubic.backend.websocket;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PlaybackStateTest {
+  private static final long START_AT = 1_767_268_805_000L;
+
+  @Test
+  void lateJoinerDuringCountdownGetsStartAt() {
+    PlaybackState state = PlaybackState.started(42, "Finale", START_AT, 7L);
+
+    Map<String, Object> snapshot = state.snapshot(START_AT - 2_000);
+
+    assertEquals(0.0, snapshot.get("position"));
+    assertEquals(START_AT, snapshot.get("startAt"));
+    assertEquals(true, snapshot.get("playing"));
+  }
+
+  @Test
+  void positionAdvancesWhilePlayingAndFreezesOnPause() {
+    PlaybackState state = PlaybackState.started(42, "Finale", START_AT, 7L);
+    assertEquals(90.5, state.positionAt(START_AT + 90_500));
+
+    PlaybackState paused = state.apply("pause", null, START_AT + 120_000, 7L);
+    assertFalse(paused.playing());
+    assertEquals(120.0, paused.positionAt(START_AT + 600_000));
+
+    Map<String, Object> snapshot = paused.snapshot(START_AT + 600_000);
+    assertEquals(120.0, snapshot.get("position"));
+    assertFalse(snapshot.containsKey("startAt"));
+  }
+
+  @Test
+  void clientPositionWinsOverServerEstimate() {
+    PlaybackState state = PlaybackState.started(42, "Finale", START_AT, 7L)
+        .apply("pause", 58.25, START_AT + 60_000, 7L)
+        .apply("seek", 300.0, START_AT + 70_000, 9L)
+        .apply("play", null, START_AT + 75_000, 9L);
+
+    assertEquals(310.0, state.positionAt(START_AT + 85_000));
+    assertEquals(9L, state.updatedBy());
+  }
+
+  @Test
+  void seekWithoutPositionAndUnknownActionsAreIgnored() {
+    PlaybackState state = PlaybackState.started(42, "Finale", START_AT, 7L);
+
+    assertSame(state, state.apply("seek", null, START_AT + 1_000, 9L));
+    assertSame(state, state.apply("rewind", 3.0, START_AT + 1_000, 9L));
+  }
+}
@@ -0,0 +1,67 @@
+package com.jutjubic.backend.websocket;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.protocol.EngineIOVersion;
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketEncoder;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Encodes packets with netty-socketio's own encoder, as each socket's pipeline does, to check that a
+ * pre-encoded payload puts the same bytes on the wire as the payload object itself.
+ */
+class PreEncodedPayloadTest {
+  private final PacketEncoder encoder = new PacketEncoder(new Configuration(), new JacksonJsonSupport());
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void producesTheSamePacketAsEncodingThePayloadPerRecipient() throws Exception {
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("videoId", 42L);
+    payload.put("videoTitle", "Žurka \"uživo\" – 日本");
+    payload.put("startedBy", 7L);
+    payload.put("serverTime", 1_767_268_800_000L);
+    payload.put("startAt", 1_767_268_805_000L);
+
+    String expected = encode("play-video", payload);
+
+    assertEquals(expected, encode("play-video", PreEncodedPayload.encode(objectMapper, payload)));
+  }
+
+  @Test
+  void canBeWrittenToManyPackets() throws Exception {
+    Object encoded = PreEncodedPayload.encode(objectMapper, Map.of("action", "seek", "currentTime", 12.5));
+
+    String first = encode("sync-video", encoded);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(first, encode("sync-video", encoded));
+    }
+  }
+
+  private String encode(String event, Object payload) throws Exception {
+    Packet packet = new Packet(PacketType.MESSAGE, EngineIOVersion.V4);
+    packet.setSubType(PacketType.EVENT);
+    packet.setName(event);
+    packet.setData(List.of(payload));
+    packet.setNsp("");
+
+    ByteBuf out = UnpooledByteBufAllocator.DEFAULT.buffer();
+    try {
+      encoder.encodePacket(packet, out, UnpooledByteBufAllocator.DEFAULT, false);
+      return out.toString(StandardCharsets.UTF_8);
+    } finally {
+      out.release();
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package com.jutjubic.backend.websocket;
+
+import com.jutjubic.backend.config.AppProperties;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyncVideoCoalescerTest {
+  private static final String ROOM = "A1B2C3D4";
+  private static final long WINDOW_MS = 100;
+  private static final UUID HOST = UUID.randomUUID();
+
+  private final List<SyncVideo> delivered = new CopyOnWriteArrayList<>();
+  private SyncVideoCoalescer coalescer;
+
+  @AfterEach
+  void stop() {
+    coalescer.stop();
+  }
+
+  @Test
+  void firstSeekGoesOutAtOnceAndLaterSeeksCollapseIntoTheLatest() throws Exception {
+    start(100);
+
+    coalescer.submit(ROOM, HOST, seek(10));
+    assertEquals(List.of(10.0), times());
+
+    coalescer.submit(ROOM, HOST, seek(20));
+    coalescer.submit(ROOM, HOST, seek(30));
+    coalescer.submit(ROOM, HOST, seek(40));
+    assertEquals(List.of(10.0), times());
+
+    awaitDeliveries(2);
+    assertEquals(List.of(10.0, 40.0), times());
+    assertEquals(2L, coalescer.stats().get("coalesced"));
+  }
+
+  @Test
+  void pendingSeekGoesOutAheadOfPlayAndPause() {
+    start(100);
+
+    coalescer.submit(ROOM, HOST, seek(10));
+    coalescer.submit(ROOM, HOST, seek(20));
+    coalescer.submit(ROOM, HOST, pause(21));
+    coalescer.submit(ROOM, HOST, play(21));
+
+    assertEquals(List.of("seek", "seek", "pause", "play"), delivered.stream().map(SyncVideo::action).toList());
+    assertEquals(List.of(10.0, 20.0, 21.0, 21.0), times());
+  }
+
+  @Test
+  void playAndPauseAreNeverHeldBackByTheRateCap() {
+    start(2);
+
+    for (int i = 0; i < 10; i++) {
+      coalescer.submit(ROOM, HOST, new SyncVideo(i % 2 == 0 ? "pause" : "play", (double) i, 0, 1L));
+    }
+
+    assertEquals(10, delivered.size());
+  }
+
+  @Test
+  void seekWaitsForTheRateCapOnceTheBudgetIsSpent() throws Exception {
+    start(2);
+    coalescer.submit(ROOM, HOST, pause(1));
+    coalescer.submit(ROOM, HOST, play(1));
+
+    long submittedAt = System.nanoTime();
+    coalescer.submit(ROOM, HOST, seek(50));
+    assertEquals(2, delivered.size());
+
+    awaitDeliveries(3);
+    long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedAt);
+    assertTrue(waitedMs >= 300, "A seek should wait for a token at 2/s, waited " + waitedMs + " ms");
+    assertEquals(1L, coalescer.stats().get("throttled"));
+  }
+
+  @Test
+  void roomsAreCoalescedIndependently() {
+    start(100);
+
+    coalescer.submit(ROOM, HOST, seek(10));
+    coalescer.submit("OTHER001", HOST, seek(20));
+
+    assertEquals(List.of(10.0, 20.0), times());
+  }
+
+  @Test
+  void sinkRunsWithoutTheRoomLockAndKeepsTheOrder() throws Exception {
+    CountDownLatch inSink = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    start(100);
+    coalescer.onFlush((roomCode, excluded, event) -> {
+      delivered.add(event);
+      if (delivered.size() == 1) {
+        inSink.countDown();
+        await(release);
+      }
+    });
+
+    CompletableFuture<Void> first = CompletableFuture.runAsync(() -> coalescer.submit(ROOM, HOST, seek(10)));
+    assertTrue(inSink.await(5, TimeUnit.SECONDS));
+
+    // Would block on the room's lock if the first delivery still held it.
+    CompletableFuture<Void> second = CompletableFuture.runAsync(
+        () -> coalescer.submit(ROOM, HOST, pause(11))
+    );
+    second.get(5, TimeUnit.SECONDS);
+    assertEquals(1, delivered.size());
+
+    release.countDown();
+    first.get(5, TimeUnit.SECONDS);
+    assertEquals(List.of("seek", "pause"), delivered.stream().map(SyncVideo::action).toList());
+  }
+
+  @Test
+  void failingSinkDoesNotStopLaterEvents() {
+    start(100);
+    coalescer.onFlush((roomCode, excluded, event) -> {
+      if (event.currentTime() == 1) {
+        throw new IllegalStateException("socket closed");
+      }
+      delivered.add(event);
+    });
+
+    coalescer.submit(ROOM, HOST, pause(1));
+    coalescer.submit(ROOM, HOST, play(2));
+
+    assertEquals(List.of(2.0), times());
+  }
+
+  private void start(int maxEventsPerSecond) {
+    AppProperties properties = new AppProperties();
+    properties.getSocket().setSyncCoalesceWindowMs(WINDOW_MS);
+    properties.getSocket().setSyncMaxEventsPerSecond(maxEventsPerSecond);
+    coalescer = new SyncVideoCoalescer(properties);
+    coalescer.onFlush((roomCode, excluded, event) -> delivered.add(event));
+  }
+
+  private void awaitDeliveries(int count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (delivered.size() < count && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(count, delivered.size());
+  }
+
+  private List<Double> times() {
+    return delivered.stream().map(SyncVideo::currentTime).toList();
+  }
+
+  private static SyncVideo seek(double time) {
+    return new SyncVideo("seek", time, 0, 1L);
+  }
+
+  private static SyncVideo pause(double time) {
+    return new SyncVideo("pause", time, 0, 1L);
+  }
+
+  private static SyncVideo play(double time) {
+    return new SyncVideo("play", time, 0, 1L);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.jutjubic.backend.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two nodes sharing one Redis. A node that is told about a playback change drops its copy and reloads it,
+ * which is only safe once the origin's update future has completed.
+ */
+class WatchPartyPlaybackStoreTest {
+  private static final String ROOM = "A1B2C3D4";
+  private static final long START_AT = 1_767_268_805_000L;
+
+  private final Map<String, String> redis = new ConcurrentHashMap<>();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private volatile CountDownLatch writeGate = new CountDownLatch(0);
+  private volatile boolean redisDown;
+  private final WatchPartyPlaybackStore origin = new WatchPartyPlaybackStore(redis(), objectMapper);
+  private final WatchPartyPlaybackStore remote = new WatchPartyPlaybackStore(redis(), objectMapper);
+
+  @AfterEach
+  void stop() {
+    origin.stop();
+    remote.stop();
+  }
+
+  @Test
+  void updateCompletesOnlyAfterTheStateIsInRedis() throws Exception {
+    writeGate = new CountDownLatch(1);
+
+    CompletableFuture<PlaybackState> stored = origin.update(
+        ROOM,
+        current -> PlaybackState.started(42, "Finale", START_AT, 7L)
+    );
+
+    Thread.sleep(100);
+    assertFalse(stored.isDone(), "Update completed while the Redis write was still running");
+    writeGate.countDown();
+    stored.get(5, TimeUnit.SECONDS);
+    assertTrue(redis.get("watch-party:playback:" + ROOM).contains("\"videoId\":42"));
+  }
+
+  @Test
+  void remoteNodeEvictingAfterTheUpdateReadsTheNewState() throws Exception {
+    origin.update(ROOM, current -> PlaybackState.started(42, "Finale", START_AT, 7L)).get(5, TimeUnit.SECONDS);
+    assertEquals(true, remote.snapshot(ROOM).get(5, TimeUnit.SECONDS).get("playing"));
+
+    // What the socket server does with a playback broadcast: publish once stored, evict on receipt.
+    origin.update(ROOM, current -> current.apply("pause", 12.5, START_AT + 20_000, 8L))
+        .thenRun(() -> remote.evictLocal(ROOM))
+        .get(5, TimeUnit.SECONDS);
+
+    Map<String, Object> snapshot = remote.snapshot(ROOM).get(5, TimeUnit.SECONDS);
+    assertEquals(false, snapshot.get("playing"));
+    assertEquals(12.5, snapshot.get("position"));
+  }
+
+  @Test
+  void failedRedisWriteStillCompletesTheUpdate() throws Exception {
+    redisDown = true;
+
+    PlaybackState next = origin.update(ROOM, current -> PlaybackState.started(42, "Finale", START_AT, 7L))
+        .get(5, TimeUnit.SECONDS);
+
+    assertEquals(42L, next.videoId());
+    assertEquals(1L, origin.stats().get("mirrorFailures"));
+    assertEquals(42L, origin.snapshot(ROOM).get(5, TimeUnit.SECONDS).get("videoId"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private StringRedisTemplate redis() {
+    ValueOperations<String, String> values = (ValueOperations<String, String>) Proxy.newProxyInstance(
+        ValueOperations.class.getClassLoader(),
+        new Class<?>[] {ValueOperations.class},
+        (proxy, method, args) -> {
+          if (redisDown) {
+            throw new IllegalStateException("Redis is down");
+          }
+          switch (method.getName()) {
+            case "get":
+              return redis.get((String) args[0]);
+            case "set":
+              writeGate.await(5, TimeUnit.SECONDS);
+              redis.put((String) args[0], (String) args[1]);
+              return null;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        }
+    );
+    return new StringRedisTemplate() {
+      @Override
+      public ValueOperations<String, String> opsForValue() {
+        return values;
+      }
+    };
+  }
+}
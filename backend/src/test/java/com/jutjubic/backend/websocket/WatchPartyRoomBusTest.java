@@ -0,0 +1,119 @@
+package com.jutjubic.backend.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jutjubic.backend.config.AppProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WatchPartyRoomBusTest {
+  private static final String ROOM = "A1B2C3D4";
+  private static final String CHANNEL = "watch-party:room:" + ROOM;
+
+  private final RecordingContainer container = new RecordingContainer();
+  private final WatchPartyRoomBus bus = bus("redis");
+
+  @Test
+  void nodeSubscribesForTheFirstSocketAndUnsubscribesAfterTheLast() {
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+
+    assertTrue(bus.joined(first, ROOM));
+    assertTrue(bus.joined(second, ROOM));
+    assertEquals(List.of("+" + CHANNEL), container.calls);
+
+    assertTrue(bus.left(first, ROOM));
+    assertEquals(List.of("+" + CHANNEL), container.calls);
+    assertTrue(bus.left(second, ROOM));
+
+    assertEquals(List.of("+" + CHANNEL, "-" + CHANNEL), container.calls);
+    assertEquals(0, bus.stats().get("localRooms"));
+  }
+
+  @Test
+  void repeatedJoinOrLeaveIsCountedOnce() {
+    UUID session = UUID.randomUUID();
+
+    assertTrue(bus.joined(session, ROOM));
+    assertFalse(bus.joined(session, ROOM));
+    assertEquals(1, bus.stats().get("localMembers"));
+
+    assertTrue(bus.left(session, ROOM));
+    assertFalse(bus.left(session, ROOM));
+    assertFalse(bus.left(UUID.randomUUID(), ROOM));
+    assertEquals(List.of("+" + CHANNEL, "-" + CHANNEL), container.calls);
+  }
+
+  @Test
+  void disconnectReleasesEveryRoomTheSocketWasStillIn() {
+    UUID leaving = UUID.randomUUID();
+    UUID staying = UUID.randomUUID();
+    bus.joined(leaving, ROOM);
+    bus.joined(leaving, "OTHER001");
+    bus.joined(staying, ROOM);
+
+    assertEquals(Set.of(ROOM, "OTHER001"), bus.disconnected(leaving));
+
+    assertEquals(List.of("+" + CHANNEL, "+watch-party:room:OTHER001", "-watch-party:room:OTHER001"), container.calls);
+    assertEquals(1, bus.stats().get("localRooms"));
+    assertEquals(1, bus.stats().get("localMembers"));
+    assertEquals(Set.of(), bus.disconnected(leaving));
+  }
+
+  @Test
+  void disconnectAfterLeavingReleasesNothingTwice() {
+    UUID session = UUID.randomUUID();
+    UUID other = UUID.randomUUID();
+    bus.joined(session, ROOM);
+    bus.joined(other, ROOM);
+    bus.left(session, ROOM);
+
+    assertEquals(Set.of(), bus.disconnected(session));
+
+    assertEquals(1, bus.stats().get("localMembers"));
+    assertEquals(List.of("+" + CHANNEL), container.calls);
+  }
+
+  @Test
+  void localModeCountsMembersWithoutSubscribing() {
+    WatchPartyRoomBus local = bus("local");
+    UUID session = UUID.randomUUID();
+
+    local.joined(session, ROOM);
+    assertEquals(1, local.stats().get("localMembers"));
+    local.disconnected(session);
+
+    assertEquals(0, local.stats().get("localMembers"));
+    assertEquals(List.of(), container.calls);
+  }
+
+  private WatchPartyRoomBus bus(String clusterMode) {
+    AppProperties properties = new AppProperties();
+    properties.getSocket().setClusterMode(clusterMode);
+    properties.getSocket().setNodeId("node-a");
+    return new WatchPartyRoomBus(null, container, new ObjectMapper(), properties);
+  }
+
+  private static final class RecordingContainer extends RedisMessageListenerContainer {
+    private final List<String> calls = new ArrayList<>();
+
+    @Override
+    public void addMessageListener(MessageListener listener, Topic topic) {
+      calls.add("+" + topic.getTopic());
+    }
+
+    @Override
+    public void removeMessageListener(MessageListener listener, Topic topic) {
+      calls.add("-" + topic.getTopic());
+    }
+  }
+}
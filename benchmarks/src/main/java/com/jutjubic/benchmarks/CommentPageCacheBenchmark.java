@@ -0,0 +1,103 @@
+package com.jutjubic.benchmarks;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.jutjubic.backend.dto.CommentCursorPageResponse;
+import com.jutjubic.backend.entity.Comment;
+import com.jutjubic.backend.entity.Video;
+import com.jutjubic.backend.util.ResponseMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Cost of answering a comment page from the cache, from the value Redis returns to the written response
+ * body. {@code reparsed} is the old path: the value decoded to a {@code String}, read back into
+ * {@link CommentCursorPageResponse} and written by the JSON converter. {@code storedBytes} is the current
+ * one: the cached UTF-8 bytes written by the byte-array converter as they are.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CommentPageCacheBenchmark {
+  @Param({"20", "50"})
+  public int pageSize;
+
+  private ObjectReader pageReader;
+  private MappingJackson2HttpMessageConverter jsonConverter;
+  private ByteArrayHttpMessageConverter bytesConverter;
+  private byte[] stored;
+
+  @Setup
+  public void setUp() throws Exception {
+    ObjectMapper objectMapper = Fixtures.blackbirdObjectMapper();
+    pageReader = objectMapper.readerFor(CommentCursorPageResponse.class)
+        .without(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE);
+    jsonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+    bytesConverter = new ByteArrayHttpMessageConverter();
+
+    Video video = Fixtures.video(1);
+    List<Comment> comments = new ArrayList<>(pageSize + 1);
+    for (int i = 0; i <= pageSize; i++) {
+      comments.add(Fixtures.comment(i + 1, video));
+    }
+    stored = objectMapper.writeValueAsBytes(ResponseMapper.mapCommentCursorPage(comments, pageSize, 1_000));
+  }
+
+  @Benchmark
+  public byte[] reparsed() throws Exception {
+    CommentCursorPageResponse page = pageReader.readValue(new String(stored, StandardCharsets.UTF_8));
+    Body body = new Body();
+    jsonConverter.write(page, MediaType.APPLICATION_JSON, body);
+    return body.bytes();
+  }
+
+  @Benchmark
+  public byte[] storedBytes() throws Exception {
+    Body body = new Body();
+    bytesConverter.write(stored, MediaType.APPLICATION_JSON, body);
+    return body.bytes();
+  }
+
+  private static final class Body implements HttpOutputMessage {
+    private final HttpHeaders headers = new HttpHeaders();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+
+    @Override
+    public OutputStream getBody() {
+      return out;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+
+    byte[] bytes() {
+      return out.toByteArray();
+    }
+  }
+}
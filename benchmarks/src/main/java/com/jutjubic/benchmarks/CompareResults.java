@@ -0,0 +1,96 @@
+package com.jutjubic.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints a Markdown table comparing two JMH JSON result files, e.g. the previous release against the current
+ * build: {@code java -cp target/benchmarks.jar com.jutjubic.benchmarks.CompareResults old.json new.json}.
+ */
+public final class CompareResults {
+  private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+  private CompareResults() {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: CompareResults <baseline.json> <current.json>");
+      System.exit(2);
+    }
+
+    Map<String, JsonNode> baseline = load(Path.of(args[0]));
+    Map<String, JsonNode> current = load(Path.of(args[1]));
+
+    StringBuilder out = new StringBuilder();
+    out.append("| Benchmark | Unit | Baseline | Current | Delta | Alloc baseline (B/op) | Alloc current (B/op) |\n");
+    out.append("|---|---|---:|---:|---:|---:|---:|\n");
+    for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+      JsonNode now = entry.getValue();
+      JsonNode before = baseline.get(entry.getKey());
+      double score = now.path("primaryMetric").path("score").asDouble();
+      String change = before == null
+          ? "new"
+          : "%+.1f%%".formatted(delta(before.path("primaryMetric").path("score").asDouble(), score));
+      out.append("| %s | %s | %s | %s | %s | %s | %s |\n".formatted(
+          entry.getKey(),
+          now.path("primaryMetric").path("scoreUnit").asText(),
+          before == null ? "-" : formatScore(before),
+          formatScore(now),
+          change,
+          before == null ? "-" : formatAlloc(before),
+          formatAlloc(now)
+      ));
+    }
+    for (String removed : baseline.keySet()) {
+      if (!current.containsKey(removed)) {
+        out.append("| %s | | %s | - | removed | | |\n".formatted(removed, formatScore(baseline.get(removed))));
+      }
+    }
+    System.out.print(out);
+  }
+
+  private static Map<String, JsonNode> load(Path path) throws IOException {
+    Map<String, JsonNode> results = new LinkedHashMap<>();
+    for (JsonNode result : new ObjectMapper().readTree(path.toFile())) {
+      results.put(key(result), result);
+    }
+    return results;
+  }
+
+  private static String key(JsonNode result) {
+    // Class and method only, e.g. "JwtVerificationBenchmark.cachedVerify", plus any @Param values.
+    String[] parts = result.path("benchmark").asText().split("\\.");
+    StringBuilder key = new StringBuilder(parts[parts.length - 2]).append('.').append(parts[parts.length - 1]);
+    List<String> params = new ArrayList<>();
+    Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> param = fields.next();
+      params.add(param.getKey() + "=" + param.getValue().asText());
+    }
+    if (!params.isEmpty()) {
+      key.append(" (").append(String.join(", ", params)).append(')');
+    }
+    return key.toString();
+  }
+
+  private static String formatScore(JsonNode result) {
+    JsonNode metric = result.path("primaryMetric");
+    return "%.3f +/- %.3f".formatted(metric.path("score").asDouble(), metric.path("scoreError").asDouble());
+  }
+
+  private static String formatAlloc(JsonNode result) {
+    JsonNode metric = result.path("secondaryMetrics").path(ALLOC_METRIC);
+    return metric.isMissingNode() ? "-" : "%.0f".formatted(metric.path("score").asDouble());
+  }
+
+  private static double delta(double baseline, double current) {
+    return baseline == 0 ? 0 : (current - baseline) / baseline * 100.0;
+  }
+}
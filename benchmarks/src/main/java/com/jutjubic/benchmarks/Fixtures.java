@@ -0,0 +1,97 @@
+package com.jutjubic.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.jutjubic.backend.entity.Comment;
+import com.jutjubic.backend.entity.User;
+import com.jutjubic.backend.entity.Video;
+import com.jutjubic.backend.mq.UploadEventMessage;
+import java.lang.reflect.Field;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+final class Fixtures {
+  static final OffsetDateTime NOW = OffsetDateTime.parse("2026-01-01T12:00:00Z");
+
+  private Fixtures() {}
+
+  /** Configured like the mapper Spring Boot builds for the backend. */
+  static ObjectMapper objectMapper() {
+    return JsonMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+  }
+
+  /** {@link #objectMapper()} plus the Blackbird module the backend registers for its response records. */
+  static ObjectMapper blackbirdObjectMapper() {
+    return objectMapper().registerModule(new BlackbirdModule());
+  }
+
+  static UploadEventMessage uploadEvent(long id) {
+    return new UploadEventMessage(
+        id,
+        "Video " + id + " - weekend highlights",
+        52_428_800 + id,
+        48_000,
+        1 + id % 5000,
+        "user_" + (1 + id % 5000),
+        "Generated benchmark description for upload " + id + " with a couple of sentences of text.",
+        List.of("music", "live", "tag-" + id % 97),
+        "videos/video-" + id + ".mp4",
+        "thumbnails/video-" + id + ".jpg",
+        NOW.minusMinutes(id)
+    );
+  }
+
+  static Video video(long id) {
+    User user = new User();
+    user.setId(1 + id % 50);
+    user.setUsername("user_" + user.getId());
+    user.setFirstName("First" + user.getId());
+    user.setLastName("Last" + user.getId());
+    setTimestamps(user, NOW.minusDays(30));
+
+    Video video = new Video();
+    video.setId(id);
+    video.setTitle("Video " + id + " - weekend highlights");
+    video.setDescription("Generated benchmark description for upload " + id + ".");
+    video.setTags(new String[] {"music", "live", "tag-" + id % 97});
+    video.setThumbnailPath("thumbnails/video-" + id + ".jpg");
+    video.setVideoPath("videos/video-" + id + ".mp4");
+    video.setViewCount((int) (id * 37 % 100_000));
+    video.setLatitude(44.8 + id % 10 / 100.0);
+    video.setLongitude(20.4 + id % 10 / 100.0);
+    video.setUser(user);
+    setTimestamps(video, NOW.minusMinutes(id));
+    return video;
+  }
+
+  static Comment comment(long id, Video video) {
+    Comment comment = new Comment();
+    comment.setId(id);
+    comment.setText("Generated benchmark comment " + id + ", about as long as a typical one.");
+    comment.setUser(video.getUser());
+    comment.setVideo(video);
+    setTimestamps(comment, NOW.minusSeconds(id));
+    return comment;
+  }
+
+  // The entities only get timestamps from the database, so fixtures set them directly.
+  private static void setTimestamps(Object entity, OffsetDateTime value) {
+    try {
+      for (Field field : entity.getClass().getDeclaredFields()) {
+        if (!field.getName().equals("createdAt") && !field.getName().equals("updatedAt")) {
+          continue;
+        }
+        field.setAccessible(true);
+        field.set(entity, value);
+      }
+    } catch (ReflectiveOperationException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
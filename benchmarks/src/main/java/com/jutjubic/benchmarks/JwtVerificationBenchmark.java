@@ -0,0 +1,65 @@
+package com.jutjubic.benchmarks;
+
+import com.jutjubic.backend.security.JwtPrincipal;
+import com.jutjubic.backend.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtVerificationBenchmark {
+  static final String SECRET = "benchmark-secret-key-that-is-at-least-32-bytes";
+
+  private SecretKey signingKey;
+  private JwtParser sharedParser;
+  private JwtService jwtService;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    signingKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    sharedParser = Jwts.parser().verifyWith(signingKey).build();
+    jwtService = new JwtService(SECRET, "24h", 10_000);
+    token = jwtService.generateToken(42L, "viewer@example.com");
+    jwtService.verifyToken(token);
+  }
+
+  /** What every authenticated request paid before: a fresh parser, HMAC and claim parsing. */
+  @Benchmark
+  public JwtPrincipal parserPerCall() {
+    return toPrincipal(Jwts.parser().verifyWith(signingKey).build().parseSignedClaims(token).getPayload());
+  }
+
+  @Benchmark
+  public JwtPrincipal sharedParser() {
+    return toPrincipal(sharedParser.parseSignedClaims(token).getPayload());
+  }
+
+  @Benchmark
+  public JwtPrincipal cachedVerify() {
+    return jwtService.verifyToken(token);
+  }
+
+  private JwtPrincipal toPrincipal(Claims claims) {
+    return new JwtPrincipal(claims.get("userId", Number.class).longValue(), claims.get("email", String.class));
+  }
+}
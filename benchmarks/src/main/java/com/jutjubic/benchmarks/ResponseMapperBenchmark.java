@@ -0,0 +1,173 @@
+package com.jutjubic.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jutjubic.backend.dto.PageInfo;
+import com.jutjubic.backend.dto.VideoPageResponse;
+import com.jutjubic.backend.entity.Comment;
+import com.jutjubic.backend.entity.Video;
+import com.jutjubic.backend.util.KeysetCursor;
+import com.jutjubic.backend.util.ResponseMapper;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of turning one page of videos or comments into a response body: the {@code Map} trees the backend
+ * used to build against the typed records of {@link ResponseMapper}, each on its own and through Jackson to
+ * bytes, with and without the Blackbird module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ResponseMapperBenchmark {
+  @Param({"50"})
+  public int pageSize;
+
+  private ObjectMapper objectMapper;
+  private ObjectMapper blackbirdObjectMapper;
+  private List<Video> videos;
+  private List<Comment> comments;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Fixtures.objectMapper();
+    blackbirdObjectMapper = Fixtures.blackbirdObjectMapper();
+    videos = new ArrayList<>(pageSize);
+    comments = new ArrayList<>(pageSize + 1);
+    for (int i = 0; i < pageSize; i++) {
+      videos.add(Fixtures.video(i + 1));
+    }
+    for (int i = 0; i <= pageSize; i++) {
+      comments.add(Fixtures.comment(i + 1, videos.get(0)));
+    }
+  }
+
+  @Benchmark
+  public Object videoPageMapBuild() {
+    return LegacyMapper.videoPage(videos);
+  }
+
+  @Benchmark
+  public Object videoPageRecordBuild() {
+    return videoPage();
+  }
+
+  @Benchmark
+  public byte[] videoPageMapSerialize() throws Exception {
+    return objectMapper.writeValueAsBytes(LegacyMapper.videoPage(videos));
+  }
+
+  @Benchmark
+  public byte[] videoPageRecordSerialize() throws Exception {
+    return objectMapper.writeValueAsBytes(videoPage());
+  }
+
+  @Benchmark
+  public byte[] videoPageRecordSerializeBlackbird() throws Exception {
+    return blackbirdObjectMapper.writeValueAsBytes(videoPage());
+  }
+
+  @Benchmark
+  public byte[] commentPageMapSerialize() throws Exception {
+    return objectMapper.writeValueAsBytes(LegacyMapper.commentCursorPage(comments, pageSize, 1_000));
+  }
+
+  @Benchmark
+  public byte[] commentPageRecordSerialize() throws Exception {
+    return objectMapper.writeValueAsBytes(ResponseMapper.mapCommentCursorPage(comments, pageSize, 1_000));
+  }
+
+  @Benchmark
+  public byte[] commentPageRecordSerializeBlackbird() throws Exception {
+    return blackbirdObjectMapper.writeValueAsBytes(ResponseMapper.mapCommentCursorPage(comments, pageSize, 1_000));
+  }
+
+  private VideoPageResponse videoPage() {
+    return new VideoPageResponse(
+        videos.stream().map(ResponseMapper::mapVideoForList).toList(),
+        PageInfo.of(1, pageSize, 10_000)
+    );
+  }
+
+  /**
+   * The map-building response code as it was before the typed records, kept for comparison.
+   */
+  private static final class LegacyMapper {
+    static Map<String, Object> videoPage(List<Video> videos) {
+      Map<String, Object> pagination = new LinkedHashMap<>();
+      pagination.put("page", 1);
+      pagination.put("limit", videos.size());
+      pagination.put("total", 10_000L);
+      pagination.put("totalPages", (int) Math.ceil(10_000.0 / videos.size()));
+      return Map.of(
+          "videos", videos.stream().map(LegacyMapper::video).toList(),
+          "pagination", pagination
+      );
+    }
+
+    static Map<String, Object> commentCursorPage(List<Comment> rows, int limit, long total) {
+      List<Comment> comments = rows.size() > limit ? rows.subList(0, limit) : rows;
+      Comment last = comments.get(comments.size() - 1);
+
+      Map<String, Object> pagination = new LinkedHashMap<>();
+      pagination.put("limit", limit);
+      pagination.put("total", total);
+      pagination.put("nextCursor", rows.size() > limit
+          ? KeysetCursor.of(last.getCreatedAt(), last.getId()).toString()
+          : null);
+
+      return Map.of(
+          "comments", comments.stream().map(LegacyMapper::comment).toList(),
+          "pagination", pagination
+      );
+    }
+
+    static Map<String, Object> video(Video video) {
+      Map<String, Object> body = new LinkedHashMap<>();
+      body.put("id", video.getId());
+      body.put("title", video.getTitle());
+      body.put("description", video.getDescription());
+      body.put("tags", video.getTags());
+      body.put("thumbnailPath", video.getThumbnailPath());
+      body.put("videoPath", video.getVideoPath());
+      body.put("viewCount", video.getViewCount());
+      body.put("latitude", video.getLatitude());
+      body.put("longitude", video.getLongitude());
+      body.put("createdAt", video.getCreatedAt());
+      body.put("updatedAt", video.getUpdatedAt());
+      body.put("user", Map.of(
+          "id", video.getUser().getId(),
+          "username", video.getUser().getUsername()
+      ));
+      return body;
+    }
+
+    static Map<String, Object> comment(Comment comment) {
+      return Map.of(
+          "id", comment.getId(),
+          "text", comment.getText(),
+          "createdAt", comment.getCreatedAt(),
+          "user", Map.of(
+              "id", comment.getUser().getId(),
+              "username", comment.getUser().getUsername()
+          )
+      );
+    }
+  }
+}
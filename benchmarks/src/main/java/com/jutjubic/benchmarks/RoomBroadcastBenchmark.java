@@ -0,0 +1,99 @@
+package com.jutjubic.benchmarks;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.protocol.EngineIOVersion;
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketEncoder;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jutjubic.backend.websocket.PreEncodedPayload;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * One {@code sync-video} broadcast to a room, sender excluded: the packets netty-socketio's encoder writes
+ * for every other member, with the payload serialized per recipient (the old path) or once up front.
+ * Sockets are left out, so the score is the encoding work a broadcast adds to the event loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RoomBroadcastBenchmark {
+  @Param({"10", "100", "500"})
+  public int roomSize;
+
+  private final ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+  private PacketEncoder encoder;
+  private ObjectMapper objectMapper;
+  private long serverTime;
+
+  @Setup
+  public void setUp() {
+    encoder = new PacketEncoder(new Configuration(), new JacksonJsonSupport());
+    objectMapper = Fixtures.objectMapper();
+    serverTime = 1_767_268_800_000L;
+  }
+
+  @Benchmark
+  public void perRecipient(Blackhole blackhole) throws Exception {
+    Map<String, Object> payload = new HashMap<>();
+    payload.put("action", "seek");
+    payload.put("currentTime", 734.25);
+    payload.put("serverTime", serverTime);
+    payload.put("triggeredBy", 7L);
+
+    for (int i = 1; i < roomSize; i++) {
+      write(payload, blackhole);
+    }
+  }
+
+  @Benchmark
+  public void preEncoded(Blackhole blackhole) throws Exception {
+    Object payload = PreEncodedPayload.encode(objectMapper, new SyncVideo("seek", 734.25, serverTime, 7L));
+
+    for (int i = 1; i < roomSize; i++) {
+      write(payload, blackhole);
+    }
+  }
+
+  private void write(Object payload, Blackhole blackhole) throws Exception {
+    Packet packet = new Packet(PacketType.MESSAGE, EngineIOVersion.V4);
+    packet.setSubType(PacketType.EVENT);
+    packet.setName("sync-video");
+    packet.setData(List.of(payload));
+    packet.setNsp("");
+
+    ByteBuf out = encoder.allocateBuffer(allocator);
+    try {
+      encoder.encodePacket(packet, out, allocator, false);
+      blackhole.consume(out.readableBytes());
+    } finally {
+      out.release();
+    }
+  }
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record SyncVideo(String action, Double currentTime, long serverTime, Long triggeredBy) {}
+}
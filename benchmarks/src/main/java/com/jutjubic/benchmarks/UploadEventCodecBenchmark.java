@@ -0,0 +1,61 @@
+package com.jutjubic.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jutjubic.backend.mq.UploadEventMapper;
+import com.jutjubic.backend.mq.UploadEventMessage;
+import com.jutjubic.backend.proto.UploadEventProto;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encode and decode cost of one upload event in each wire format the publisher supports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UploadEventCodecBenchmark {
+  private ObjectMapper objectMapper;
+  private UploadEventMessage event;
+  private byte[] jsonBytes;
+  private byte[] protobufBytes;
+
+  @Setup
+  public void setUp() throws Exception {
+    objectMapper = Fixtures.objectMapper();
+    event = Fixtures.uploadEvent(4242);
+    jsonBytes = objectMapper.writeValueAsBytes(event);
+    protobufBytes = UploadEventMapper.toProto(event).toByteArray();
+  }
+
+  @Benchmark
+  public byte[] jsonEncode() throws Exception {
+    return objectMapper.writeValueAsBytes(event);
+  }
+
+  @Benchmark
+  public UploadEventMessage jsonDecode() throws Exception {
+    return objectMapper.readValue(jsonBytes, UploadEventMessage.class);
+  }
+
+  @Benchmark
+  public byte[] protobufEncode() {
+    return UploadEventMapper.toProto(event).toByteArray();
+  }
+
+  @Benchmark
+  public UploadEventMessage protobufDecode() throws Exception {
+    return UploadEventMapper.fromProto(UploadEventProto.UploadEvent.parseFrom(protobufBytes));
+  }
+}
@@ -0,0 +1,145 @@
+package com.jutjubic.benchmarks;
+
+import com.jutjubic.backend.config.AppProperties;
+import com.jutjubic.backend.mq.UploadEventOutbox;
+import com.jutjubic.backend.mq.UploadEventPublisher;
+import com.jutjubic.backend.mq.UploadEventRelay;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Outbox relay throughput under sustained upload load. Four threads append upload events to the outbox
+ * the way video creation does, while one relay thread claims, publishes and deletes them; {@code relayed}
+ * is the rate at which events leave the outbox, in events per second. The outbox is the real one on
+ * PostgreSQL and events go through the real publisher's encoding, but the broker confirms at once, so the
+ * result is the relay's own ceiling rather than RabbitMQ's. Needs {@code TEST_POSTGRES_URL} like
+ * {@link VideoFeedPaginationBenchmark}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UploadEventRelayBenchmark {
+  @Param({"protobuf", "both"})
+  public String publishFormat;
+
+  private final String schema = "bench_outbox_" + UUID.randomUUID().toString().replace("-", "");
+  private final AtomicLong videoIds = new AtomicLong();
+  private HikariDataSource dataSource;
+  private UploadEventOutbox outbox;
+  private UploadEventRelay uploadEventRelay;
+
+  @Setup
+  public void setUp() {
+    String url = System.getenv("TEST_POSTGRES_URL");
+    if (url == null) {
+      throw new IllegalStateException("Set TEST_POSTGRES_URL to a PostgreSQL set aside for tests");
+    }
+    String username = System.getenv().getOrDefault("TEST_POSTGRES_USERNAME", "jutjubic");
+    String password = System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", "jutjubic123");
+
+    Flyway.configure()
+        .dataSource(url, username, password)
+        .schemas(schema)
+        .defaultSchema(schema)
+        .createSchemas(true)
+        .load()
+        .migrate();
+
+    dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl(url);
+    dataSource.setUsername(username);
+    dataSource.setPassword(password);
+    dataSource.setSchema(schema);
+    dataSource.setMaximumPoolSize(8);
+
+    AppProperties properties = new AppProperties();
+    properties.getMq().setExchange("upload.events");
+    properties.getMq().setPublishFormat(publishFormat);
+    outbox = new UploadEventOutbox(new JdbcTemplate(dataSource), Fixtures.objectMapper());
+    uploadEventRelay = new UploadEventRelay(
+        outbox,
+        new UploadEventPublisher(new ConfirmingBroker(), Fixtures.objectMapper(), properties),
+        properties
+    );
+  }
+
+  @TearDown
+  public void tearDown() {
+    try {
+      new JdbcTemplate(dataSource).execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+    } finally {
+      dataSource.close();
+    }
+  }
+
+  @Benchmark
+  @Group("sustained")
+  @GroupThreads(4)
+  public void upload() {
+    outbox.append(Fixtures.uploadEvent(videoIds.incrementAndGet()));
+  }
+
+  @Benchmark
+  @Group("sustained")
+  @GroupThreads(1)
+  public void relay(Relayed relayed) {
+    relayed.relayed += uploadEventRelay.relay();
+  }
+
+  /**
+   * Events the relay moved out of the outbox, reported by JMH as a rate next to the per-method scores.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Relayed {
+    public long relayed;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      relayed = 0;
+    }
+  }
+
+  /** Accepts every message and confirms at once, so only the relay and the outbox are measured. */
+  private static final class ConfirmingBroker extends RabbitTemplate {
+    @Override
+    public <T> T invoke(
+        OperationsCallback<T> action,
+        com.rabbitmq.client.ConfirmCallback acks,
+        com.rabbitmq.client.ConfirmCallback nacks
+    ) {
+      return action.doInRabbit(this);
+    }
+
+    @Override
+    public void send(String exchange, String routingKey, Message message) {}
+
+    @Override
+    public void waitForConfirmsOrDie(long timeout) {}
+  }
+}
@@ -0,0 +1,158 @@
+package com.jutjubic.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * One video feed page read with {@code ?page=} (OFFSET plus the total count) or with {@code ?after=}
+ * (a seek on {@code (created_at, id)}), using the same SQL shape the repository queries produce. Needs a
+ * PostgreSQL set aside for tests in {@code TEST_POSTGRES_URL}; each fork migrates a schema of its own,
+ * seeds it, and drops it at the end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class VideoFeedPaginationBenchmark {
+  private static final int VIDEOS = 100_000;
+  private static final int VIDEOS_PER_TIMESTAMP = 4;
+  private static final int LIMIT = 12;
+  private static final String COLUMNS = """
+      SELECT v.id, v.title, v.description, v.tags, v.thumbnail_path, v.video_path, v.view_count,
+             v.latitude, v.longitude, v.created_at, v.updated_at, u.id AS user_id, u.username
+      FROM videos v JOIN users u ON u.id = v.user_id
+      """;
+  private static final String OFFSET_SQL = COLUMNS + "ORDER BY v.created_at DESC, v.id DESC OFFSET ? LIMIT ?";
+  private static final String COUNT_SQL = "SELECT count(*) FROM videos";
+  private static final String FIRST_SQL = COLUMNS + "ORDER BY v.created_at DESC, v.id DESC LIMIT ?";
+  private static final String AFTER_SQL = COLUMNS
+      + "WHERE (v.created_at, v.id) < (?, ?) ORDER BY v.created_at DESC, v.id DESC LIMIT ?";
+
+  @Param({"1", "100", "5000"})
+  public int page;
+
+  private final String schema = "bench_feed_" + UUID.randomUUID().toString().replace("-", "");
+  private Connection connection;
+  private PreparedStatement offsetPage;
+  private PreparedStatement count;
+  private PreparedStatement keysetPage;
+
+  @Setup
+  public void setUp() throws SQLException {
+    String url = System.getenv("TEST_POSTGRES_URL");
+    if (url == null) {
+      throw new IllegalStateException("Set TEST_POSTGRES_URL to a PostgreSQL set aside for tests");
+    }
+    String username = System.getenv().getOrDefault("TEST_POSTGRES_USERNAME", "jutjubic");
+    String password = System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", "jutjubic123");
+
+    Flyway.configure()
+        .dataSource(url, username, password)
+        .schemas(schema)
+        .defaultSchema(schema)
+        .createSchemas(true)
+        .load()
+        .migrate();
+
+    connection = DriverManager.getConnection(url, username, password);
+    connection.setSchema(schema);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("""
+          INSERT INTO users (email, username, password_hash, first_name, last_name, address)
+          SELECT 'user' || n || '@example.com', 'user_' || n, 'x', 'Bench', 'User', 'Novi Sad'
+          FROM generate_series(1, 100) AS n
+          """);
+      statement.execute("""
+          INSERT INTO videos (title, description, tags, thumbnail_path, video_path, user_id, created_at, updated_at)
+          SELECT 'Video ' || n, 'Generated video', '{music,live}', 'thumbnails/' || n || '.jpg',
+                 'videos/' || n || '.mp4', 1 + n %% 100, ts, ts
+          FROM generate_series(1, %d) AS n,
+               LATERAL (SELECT TIMESTAMPTZ '2026-01-01 12:00:00.123456Z' - make_interval(secs => n / %d)) AS t(ts)
+          """.formatted(VIDEOS, VIDEOS_PER_TIMESTAMP));
+      statement.execute("ANALYZE users");
+      statement.execute("ANALYZE videos");
+    }
+
+    offsetPage = connection.prepareStatement(OFFSET_SQL);
+    offsetPage.setInt(1, (page - 1) * LIMIT);
+    offsetPage.setInt(2, LIMIT);
+    count = connection.prepareStatement(COUNT_SQL);
+
+    // The cursor a client holds after reading page - 1 pages: the last row of the previous page.
+    if (page == 1) {
+      keysetPage = connection.prepareStatement(FIRST_SQL);
+      keysetPage.setInt(1, LIMIT + 1);
+      return;
+    }
+    OffsetDateTime createdAt;
+    long id;
+    try (PreparedStatement last = connection.prepareStatement(OFFSET_SQL)) {
+      last.setInt(1, (page - 1) * LIMIT - 1);
+      last.setInt(2, 1);
+      try (ResultSet rs = last.executeQuery()) {
+        rs.next();
+        createdAt = rs.getObject("created_at", OffsetDateTime.class);
+        id = rs.getLong("id");
+      }
+    }
+    keysetPage = connection.prepareStatement(AFTER_SQL);
+    keysetPage.setObject(1, createdAt);
+    keysetPage.setLong(2, id);
+    keysetPage.setInt(3, LIMIT + 1);
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+    } finally {
+      connection.close();
+    }
+  }
+
+  @Benchmark
+  public void offset(Blackhole blackhole) throws SQLException {
+    read(offsetPage, blackhole);
+    try (ResultSet rs = count.executeQuery()) {
+      rs.next();
+      blackhole.consume(rs.getLong(1));
+    }
+  }
+
+  @Benchmark
+  public void keyset(Blackhole blackhole) throws SQLException {
+    read(keysetPage, blackhole);
+  }
+
+  private static void read(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+    try (ResultSet rs = statement.executeQuery()) {
+      while (rs.next()) {
+        blackhole.consume(rs.getLong(1));
+        blackhole.consume(rs.getString(2));
+      }
+    }
+  }
+}
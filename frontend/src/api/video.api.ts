@@ -37,7 +37,7 @@ export const videoApi = {
     client.get<Video>(`/videos/${id}`),
 
   upload: (formData: FormData) =>
-    client.post<Video>('/videos', formData, {
+    client.post<Video>('/videos/stream-upload', formData, {
       headers: { 'Content-Type': 'multipart/form-data' },
       timeout: 60000,
     }),
@@ -47,8 +47,8 @@ export const videoApi = {
     return `${baseUrl}/api/videos/${id}/thumbnail`;
   },
 
-  getVideoStreamUrl: (videoPath: string) => {
+  getVideoStreamUrl: (id: number) => {
     const baseUrl = import.meta.env.VITE_API_URL || '';
-    return `${baseUrl}/uploads/${videoPath}`;
+    return `${baseUrl}/api/videos/${id}/stream`;
   },
 };
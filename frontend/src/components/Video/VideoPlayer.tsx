@@ -2,7 +2,7 @@ import React, { forwardRef, useImperativeHandle, useRef, useEffect } from 'react
 import { videoApi } from '../../api/video.api';
 
 interface VideoPlayerProps {
-  videoPath: string;
+  videoId: number;
   autoPlayAt?: number; // Unix timestamp in ms when video should start
   onPlay?: () => void;
   onPause?: () => void;
@@ -17,7 +17,7 @@ export interface VideoPlayerHandle {
 }
 
 const VideoPlayer = forwardRef<VideoPlayerHandle, VideoPlayerProps>(
-  ({ videoPath, autoPlayAt, onPlay, onPause, onSeeked }, ref) => {
+  ({ videoId, autoPlayAt, onPlay, onPause, onSeeked }, ref) => {
     const videoRef = useRef<HTMLVideoElement>(null);
 
     useImperativeHandle(ref, () => ({
@@ -54,7 +54,7 @@ const VideoPlayer = forwardRef<VideoPlayerHandle, VideoPlayerProps>(
         ref={videoRef}
         controls
         style={{ width: '100%', maxHeight: '70vh', backgroundColor: '#000' }}
-        src={videoApi.getVideoStreamUrl(videoPath)}
+        src={videoApi.getVideoStreamUrl(videoId)}
         onPlay={onPlay}
         onPause={onPause}
         onSeeked={() => onSeeked?.(videoRef.current?.currentTime ?? 0)}
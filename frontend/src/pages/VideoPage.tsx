@@ -17,6 +17,14 @@ interface LocationState {
   watchPartyRoomCode?: string;
 }
 
+interface PlaybackSnapshot {
+  videoId: number | null;
+  playing: boolean;
+  position: number;
+  serverTime: number;
+  startAt?: number;
+}
+
 const VideoPage: React.FC = () => {
   const { id } = useParams<{ id: string }>();
   const location = useLocation();
@@ -63,7 +71,18 @@ const VideoPage: React.FC = () => {
     });
 
     socket.on('connect', () => {
-      socket.emit('join-room', watchPartyRoomCode);
+      // The server answers with the room's current playback, so a late joiner catches up right away.
+      socket.emit('join-room', watchPartyRoomCode, (snapshot?: PlaybackSnapshot) => {
+        if (!snapshot || snapshot.videoId !== Number(id) || snapshot.startAt !== undefined) return;
+        isSyncingRef.current = true;
+        videoRef.current?.seek(snapshot.position);
+        if (snapshot.playing) {
+          videoRef.current?.play();
+        } else {
+          videoRef.current?.pause();
+        }
+        setTimeout(() => { isSyncingRef.current = false; }, 100);
+      });
     });
 
     socket.on('sync-video', (data: { action: 'play' | 'pause' | 'seek'; currentTime?: number }) => {
@@ -83,7 +102,7 @@ const VideoPage: React.FC = () => {
     return () => {
       socket.disconnect();
     };
-  }, [watchPartyRoomCode, token]);
+  }, [watchPartyRoomCode, token, id]);
 
   const handlePlay = () => {
     if (watchPartyRoomCode && socketRef.current && !isSyncingRef.current) {
@@ -158,7 +177,7 @@ const VideoPage: React.FC = () => {
 
       <VideoPlayer
         ref={videoRef}
-        videoPath={video.videoPath}
+        videoId={video.id}
         autoPlayAt={watchPartyStartAt}
         onPlay={handlePlay}
         onPause={handlePause}
@@ -20,6 +20,7 @@ public class AppProperties {
     private String protobufQueue;
     private String jsonRoutingKey;
     private String protobufRoutingKey;
+    private ConsumerProperties consumer = new ConsumerProperties();
 
     public String getExchange() {
       return exchange;
@@ -60,5 +61,88 @@ public class AppProperties {
     public void setProtobufRoutingKey(String protobufRoutingKey) {
       this.protobufRoutingKey = protobufRoutingKey;
     }
+
+    public ConsumerProperties getConsumer() {
+      return consumer;
+    }
+
+    public void setConsumer(ConsumerProperties consumer) {
+      this.consumer = consumer;
+    }
+  }
+
+  public static class ConsumerProperties {
+    private boolean batchEnabled = true;
+    private int batchSize = 50;
+    private long batchReceiveTimeoutMs = 200;
+    private int prefetch = 250;
+    private int concurrency = 1;
+    private int maxConcurrency = 4;
+    private int consecutiveActiveTrigger = 10;
+    private int consecutiveIdleTrigger = 10;
+
+    public boolean isBatchEnabled() {
+      return batchEnabled;
+    }
+
+    public void setBatchEnabled(boolean batchEnabled) {
+      this.batchEnabled = batchEnabled;
+    }
+
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+      this.batchSize = batchSize;
+    }
+
+    public long getBatchReceiveTimeoutMs() {
+      return batchReceiveTimeoutMs;
+    }
+
+    public void setBatchReceiveTimeoutMs(long batchReceiveTimeoutMs) {
+      this.batchReceiveTimeoutMs = batchReceiveTimeoutMs;
+    }
+
+    public int getPrefetch() {
+      return prefetch;
+    }
+
+    public void setPrefetch(int prefetch) {
+      this.prefetch = prefetch;
+    }
+
+    public int getConcurrency() {
+      return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+      this.concurrency = concurrency;
+    }
+
+    public int getMaxConcurrency() {
+      return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+      this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getConsecutiveActiveTrigger() {
+      return consecutiveActiveTrigger;
+    }
+
+    public void setConsecutiveActiveTrigger(int consecutiveActiveTrigger) {
+      this.consecutiveActiveTrigger = consecutiveActiveTrigger;
+    }
+
+    public int getConsecutiveIdleTrigger() {
+      return consecutiveIdleTrigger;
+    }
+
+    public void setConsecutiveIdleTrigger(int consecutiveIdleTrigger) {
+      this.consecutiveIdleTrigger = consecutiveIdleTrigger;
+    }
   }
 }
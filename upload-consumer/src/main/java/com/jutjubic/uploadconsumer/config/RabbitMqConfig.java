@@ -5,6 +5,9 @@ import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -46,4 +49,40 @@ public class RabbitMqConfig {
         .to(uploadEventsExchange)
         .with(appProperties.getMq().getProtobufRoutingKey());
   }
+
+  /**
+   * Listener container for both upload event queues. Consumers scale between {@code concurrency} and
+   * {@code max-concurrency}: a consumer is added after {@code consecutive-active-trigger} receives in a row
+   * found messages waiting, and removed after {@code consecutive-idle-trigger} empty ones, so the consumer
+   * count follows the queue backlog. In batch mode each consumer hands the listener up to {@code batch-size}
+   * messages at once and acknowledges them together.
+   */
+  @Bean
+  public SimpleRabbitListenerContainerFactory uploadEventContainerFactory(
+      SimpleRabbitListenerContainerFactoryConfigurer configurer,
+      ConnectionFactory connectionFactory,
+      AppProperties appProperties
+  ) {
+    AppProperties.ConsumerProperties consumer = appProperties.getMq().getConsumer();
+
+    SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+    configurer.configure(factory, connectionFactory);
+    factory.setConcurrentConsumers(consumer.getConcurrency());
+    factory.setMaxConcurrentConsumers(Math.max(consumer.getConcurrency(), consumer.getMaxConcurrency()));
+    factory.setConsecutiveActiveTrigger(consumer.getConsecutiveActiveTrigger());
+    factory.setConsecutiveIdleTrigger(consumer.getConsecutiveIdleTrigger());
+
+    if (consumer.isBatchEnabled()) {
+      int batchSize = Math.max(1, consumer.getBatchSize());
+      factory.setBatchListener(true);
+      factory.setConsumerBatchEnabled(true);
+      factory.setBatchSize(batchSize);
+      factory.setReceiveTimeout(consumer.getBatchReceiveTimeoutMs());
+      // The broker must be allowed to push at least a full batch, or batches would always time out short.
+      factory.setPrefetchCount(Math.max(consumer.getPrefetch(), batchSize));
+    } else {
+      factory.setPrefetchCount(consumer.getPrefetch());
+    }
+    return factory;
+  }
 }
@@ -0,0 +1,61 @@
+package com.jutjubic.uploadconsumer.listener;
+
+import com.jutjubic.uploadconsumer.model.UploadEventMessage;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Batch-mode counterpart of {@link UploadEventListener}. Each call receives up to
+ * {@code app.mq.consumer.batch-size} deliveries, which are acknowledged together once the call returns.
+ * Payloads that cannot be decoded are logged and skipped so they do not take the rest of the batch down.
+ */
+@Component
+@ConditionalOnProperty(name = "app.mq.consumer.batch-enabled", havingValue = "true", matchIfMissing = true)
+public class UploadEventBatchListener {
+  private static final Logger log = LoggerFactory.getLogger(UploadEventBatchListener.class);
+
+  private final UploadEventDecoder decoder;
+
+  public UploadEventBatchListener(UploadEventDecoder decoder) {
+    this.decoder = decoder;
+  }
+
+  @RabbitListener(
+      queues = {"${app.mq.json-queue}", "${app.mq.protobuf-queue}"},
+      containerFactory = "uploadEventContainerFactory"
+  )
+  public void onEvents(List<Message> messages) {
+    List<UploadEventMessage> events = new ArrayList<>(messages.size());
+    for (Message message : messages) {
+      try {
+        events.add(decoder.decode(message));
+      } catch (Exception ex) {
+        log.error("Failed to deserialize {} upload event", UploadEventDecoder.format(message), ex);
+      }
+    }
+    process(events);
+  }
+
+  public void process(List<UploadEventMessage> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+
+    long totalBytes = 0;
+    List<Long> videoIds = new ArrayList<>(events.size());
+    for (UploadEventMessage event : events) {
+      totalBytes += event.videoSizeBytes();
+      videoIds.add(event.videoId());
+      log.debug("Received upload event: videoId={}, title='{}', author={}, videoSize={}B",
+          event.videoId(), event.title(), event.authorUsername(), event.videoSizeBytes());
+    }
+    log.info("Received batch of {} upload events: videoIds={}, totalVideoSize={}B",
+        events.size(), videoIds, totalBytes);
+  }
+}
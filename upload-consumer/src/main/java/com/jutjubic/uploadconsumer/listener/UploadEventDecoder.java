@@ -0,0 +1,54 @@
+package com.jutjubic.uploadconsumer.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jutjubic.uploadconsumer.model.UploadEventMapper;
+import com.jutjubic.uploadconsumer.model.UploadEventMessage;
+import com.jutjubic.uploadconsumer.proto.UploadEventProto;
+import java.io.IOException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the decoder from the message's {@code contentType}, so either queue can carry either encoding.
+ */
+@Component
+public class UploadEventDecoder {
+  private final ObjectMapper objectMapper;
+
+  public UploadEventDecoder(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  public UploadEventMessage decode(Message message) throws IOException {
+    MessageProperties properties = message.getMessageProperties();
+    Object version = properties.getHeader(UploadEventEnvelope.SCHEMA_VERSION_HEADER);
+    // Messages from publishers that predate the envelope have no version header and use schema 1.
+    if (version instanceof Number number && number.intValue() > UploadEventEnvelope.SCHEMA_VERSION) {
+      throw new IOException("Unsupported upload event schema version " + version);
+    }
+
+    String contentType = properties.getContentType();
+    if (UploadEventEnvelope.CONTENT_TYPE_PROTOBUF.equals(contentType)) {
+      return fromProtobuf(message.getBody());
+    }
+    if (contentType != null && contentType.startsWith(UploadEventEnvelope.CONTENT_TYPE_JSON)) {
+      return fromJson(message.getBody());
+    }
+    throw new IOException("Unsupported upload event content type " + contentType);
+  }
+
+  public static String format(Message message) {
+    return UploadEventEnvelope.CONTENT_TYPE_PROTOBUF.equals(message.getMessageProperties().getContentType())
+        ? "PROTOBUF"
+        : "JSON";
+  }
+
+  private UploadEventMessage fromJson(byte[] payload) throws IOException {
+    return objectMapper.readValue(payload, UploadEventMessage.class);
+  }
+
+  private UploadEventMessage fromProtobuf(byte[] payload) throws IOException {
+    return UploadEventMapper.fromProto(UploadEventProto.UploadEvent.parseFrom(payload));
+  }
+}
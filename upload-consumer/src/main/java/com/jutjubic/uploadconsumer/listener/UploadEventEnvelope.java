@@ -0,0 +1,14 @@
+package com.jutjubic.uploadconsumer.listener;
+
+/**
+ * AMQP properties the backend puts on every upload event. Must match the publisher's copy of this class.
+ */
+public final class UploadEventEnvelope {
+  public static final String TYPE = "upload.event";
+  public static final String SCHEMA_VERSION_HEADER = "x-schema-version";
+  public static final int SCHEMA_VERSION = 1;
+  public static final String CONTENT_TYPE_JSON = "application/json";
+  public static final String CONTENT_TYPE_PROTOBUF = "application/x-protobuf";
+
+  private UploadEventEnvelope() {}
+}
@@ -1,47 +1,36 @@
 package com.jutjubic.uploadconsumer.listener;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.jutjubic.uploadconsumer.config.AppProperties;
-import com.jutjubic.uploadconsumer.model.UploadEventMapper;
 import com.jutjubic.uploadconsumer.model.UploadEventMessage;
-import com.jutjubic.uploadconsumer.proto.UploadEventProto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnProperty(name = "app.mq.consumer.batch-enabled", havingValue = "false")
 public class UploadEventListener {
   private static final Logger log = LoggerFactory.getLogger(UploadEventListener.class);
 
-  private final ObjectMapper objectMapper;
-  private final AppProperties appProperties;
+  private final UploadEventDecoder decoder;
 
-  public UploadEventListener(ObjectMapper objectMapper, AppProperties appProperties) {
-    this.objectMapper = objectMapper;
-    this.appProperties = appProperties;
+  public UploadEventListener(UploadEventDecoder decoder) {
+    this.decoder = decoder;
   }
 
-  @RabbitListener(queues = "${app.mq.json-queue}")
-  public void onJsonEvent(byte[] payload) {
+  @RabbitListener(
+      queues = {"${app.mq.json-queue}", "${app.mq.protobuf-queue}"},
+      containerFactory = "uploadEventContainerFactory"
+  )
+  public void onEvent(Message message) {
+    String format = UploadEventDecoder.format(message);
     try {
-      UploadEventMessage event = objectMapper.readValue(payload, UploadEventMessage.class);
-      log.info("[JSON] Received upload event: videoId={}, title='{}', author={}, videoSize={}B",
-          event.videoId(), event.title(), event.authorUsername(), event.videoSizeBytes());
+      UploadEventMessage event = decoder.decode(message);
+      log.info("[{}] Received upload event: videoId={}, title='{}', author={}, videoSize={}B",
+          format, event.videoId(), event.title(), event.authorUsername(), event.videoSizeBytes());
     } catch (Exception ex) {
-      log.error("Failed to deserialize JSON upload event", ex);
-    }
-  }
-
-  @RabbitListener(queues = "${app.mq.protobuf-queue}")
-  public void onProtobufEvent(byte[] payload) {
-    try {
-      UploadEventProto.UploadEvent proto = UploadEventProto.UploadEvent.parseFrom(payload);
-      UploadEventMessage event = UploadEventMapper.fromProto(proto);
-      log.info("[PROTOBUF] Received upload event: videoId={}, title='{}', author={}, videoSize={}B",
-          event.videoId(), event.title(), event.authorUsername(), event.videoSizeBytes());
-    } catch (Exception ex) {
-      log.error("Failed to deserialize Protobuf upload event", ex);
+      log.error("Failed to deserialize {} upload event", format, ex);
     }
   }
 }
@@ -0,0 +1,83 @@
+package com.jutjubic.uploadconsumer.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.util.ReflectionTestUtils.getField;
+
+class RabbitMqConfigTest {
+  private final CachingConnectionFactory connectionFactory = new CachingConnectionFactory();
+  private final AppProperties appProperties = new AppProperties();
+
+  @AfterEach
+  void close() {
+    connectionFactory.destroy();
+  }
+
+  @Test
+  void batchModeHandsOverBatchesWithAPrefetchOfAtLeastOneBatch() {
+    AppProperties.ConsumerProperties consumer = appProperties.getMq().getConsumer();
+    consumer.setBatchSize(100);
+    consumer.setPrefetch(40);
+    consumer.setBatchReceiveTimeoutMs(300);
+    consumer.setConcurrency(2);
+    consumer.setMaxConcurrency(6);
+    consumer.setConsecutiveActiveTrigger(3);
+    consumer.setConsecutiveIdleTrigger(20);
+
+    SimpleRabbitListenerContainerFactory factory = factory();
+    SimpleMessageListenerContainer container = factory.createListenerContainer();
+
+    assertEquals(true, getField(factory, "batchListener"));
+    assertEquals(true, getField(container, "consumerBatchEnabled"));
+    assertEquals(100, getField(container, "batchSize"));
+    assertEquals(300L, getField(container, "receiveTimeout"));
+    assertEquals(100, getField(container, "prefetchCount"));
+    assertEquals(2, getField(container, "concurrentConsumers"));
+    assertEquals(6, getField(container, "maxConcurrentConsumers"));
+    assertEquals(3, getField(container, "consecutiveActiveTrigger"));
+    assertEquals(20, getField(container, "consecutiveIdleTrigger"));
+  }
+
+  @Test
+  void batchModeKeepsALargerPrefetch() {
+    SimpleMessageListenerContainer container = factory().createListenerContainer();
+
+    assertEquals(50, getField(container, "batchSize"));
+    assertEquals(250, getField(container, "prefetchCount"));
+    assertEquals(1, getField(container, "concurrentConsumers"));
+    assertEquals(4, getField(container, "maxConcurrentConsumers"));
+  }
+
+  @Test
+  void singleModeUsesThePrefetchAsConfigured() {
+    AppProperties.ConsumerProperties consumer = appProperties.getMq().getConsumer();
+    consumer.setBatchEnabled(false);
+    consumer.setPrefetch(10);
+    consumer.setConcurrency(3);
+    consumer.setMaxConcurrency(2);
+
+    SimpleRabbitListenerContainerFactory factory = factory();
+    SimpleMessageListenerContainer container = factory.createListenerContainer();
+
+    assertEquals(false, getField(factory, "batchListener"));
+    assertEquals(false, getField(container, "consumerBatchEnabled"));
+    assertEquals(10, getField(container, "prefetchCount"));
+    assertEquals(3, getField(container, "concurrentConsumers"));
+    assertEquals(3, getField(container, "maxConcurrentConsumers"));
+  }
+
+  private SimpleRabbitListenerContainerFactory factory() {
+    return new RabbitMqConfig().uploadEventContainerFactory(
+        new SimpleRabbitListenerContainerFactoryConfigurer(new RabbitProperties()),
+        connectionFactory,
+        appProperties
+    );
+  }
+}
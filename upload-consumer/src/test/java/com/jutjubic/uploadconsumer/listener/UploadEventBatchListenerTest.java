@@ -0,0 +1,109 @@
+package com.jutjubic.uploadconsumer.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jutjubic.uploadconsumer.model.UploadEventMessage;
+import com.jutjubic.uploadconsumer.proto.UploadEventProto;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UploadEventBatchListenerTest {
+  private static final OffsetDateTime UPLOADED_AT = OffsetDateTime.parse("2026-01-01T12:00:00.123456Z");
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .registerModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  private final List<List<UploadEventMessage>> processed = new ArrayList<>();
+  private final UploadEventBatchListener listener = new UploadEventBatchListener(new UploadEventDecoder(objectMapper)) {
+    @Override
+    public void process(List<UploadEventMessage> events) {
+      processed.add(events);
+    }
+  };
+
+  @Test
+  void undecodableMessagesAreSkippedAndTheRestOfTheBatchIsProcessed() throws Exception {
+    Message newerSchema = json(event(5));
+    newerSchema.getMessageProperties().setHeader(
+        UploadEventEnvelope.SCHEMA_VERSION_HEADER,
+        UploadEventEnvelope.SCHEMA_VERSION + 1
+    );
+
+    listener.onEvents(List.of(
+        json(event(1)),
+        message("{\"videoId\":".getBytes(StandardCharsets.UTF_8), UploadEventEnvelope.CONTENT_TYPE_JSON),
+        protobuf(event(2)),
+        message(new byte[] {(byte) 0xff, 0x01, 0x02}, UploadEventEnvelope.CONTENT_TYPE_PROTOBUF),
+        json(event(3)),
+        message("videoId=4".getBytes(StandardCharsets.UTF_8), "text/plain"),
+        newerSchema,
+        protobuf(event(6))
+    ));
+
+    assertEquals(List.of(List.of(event(1), event(2), event(3), event(6))), processed);
+  }
+
+  @Test
+  void batchWithNothingDecodableStillReturns() {
+    listener.onEvents(List.of(
+        message("not json".getBytes(StandardCharsets.UTF_8), UploadEventEnvelope.CONTENT_TYPE_JSON),
+        message(new byte[0], null)
+    ));
+
+    assertEquals(List.of(List.of()), processed);
+  }
+
+  private static UploadEventMessage event(long videoId) {
+    return new UploadEventMessage(
+        videoId,
+        "Video " + videoId,
+        1_000_000 * videoId,
+        20_000,
+        7,
+        "user_7",
+        "Opis " + videoId,
+        List.of("music", "live"),
+        "videos/video-" + videoId + ".mp4",
+        "thumbnails/video-" + videoId + ".jpg",
+        UPLOADED_AT
+    );
+  }
+
+  private Message json(UploadEventMessage event) throws Exception {
+    return message(objectMapper.writeValueAsBytes(event), UploadEventEnvelope.CONTENT_TYPE_JSON);
+  }
+
+  private static Message protobuf(UploadEventMessage event) {
+    byte[] body = UploadEventProto.UploadEvent.newBuilder()
+        .setVideoId(event.videoId())
+        .setTitle(event.title())
+        .setVideoSizeBytes(event.videoSizeBytes())
+        .setThumbnailSizeBytes(event.thumbnailSizeBytes())
+        .setAuthorId(event.authorId())
+        .setAuthorUsername(event.authorUsername())
+        .setDescription(event.description())
+        .addAllTags(event.tags())
+        .setVideoPath(event.videoPath())
+        .setThumbnailPath(event.thumbnailPath())
+        .setUploadedAt(event.uploadedAt().toString())
+        .build()
+        .toByteArray();
+    return message(body, UploadEventEnvelope.CONTENT_TYPE_PROTOBUF);
+  }
+
+  private static Message message(byte[] body, String contentType) {
+    MessageProperties properties = new MessageProperties();
+    properties.setContentType(contentType);
+    properties.setType(UploadEventEnvelope.TYPE);
+    properties.setHeader(UploadEventEnvelope.SCHEMA_VERSION_HEADER, UploadEventEnvelope.SCHEMA_VERSION);
+    return new Message(body, properties);
+  }
+}